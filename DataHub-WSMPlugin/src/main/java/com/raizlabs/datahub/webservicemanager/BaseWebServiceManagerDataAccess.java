@@ -78,15 +78,14 @@ public abstract class BaseWebServiceManagerDataAccess<Result, Data> implements W
     protected DataAccessResult<Data> getResult(ResultInfo<Result> resultInfo) {
         if ((resultInfo == null) || (resultInfo.getResponseCode() == -1)) {
             final String className = request.getClass().getSimpleName();
-            final String message = "Error establishing a connection in " + className;
-            return DataAccessResult.fromError(new DataHubError(message, ErrorTypes.CONNECTION, resultInfo));
+            DataHubError error = DataHubError.newLightweight("Error establishing a connection in %s",
+                    ErrorTypes.CONNECTION, resultInfo, className);
+            return DataAccessResult.fromError(error);
         } else if (!resultInfo.isStatusOK()) {
-            final String connectionErrorFormat = "Connection error in %s (status code: %d)";
             final String className = request.getClass().getSimpleName();
             final int statusCode = resultInfo.getResponseCode();
-            final String message = String.format(connectionErrorFormat, className, statusCode);
-
-            DataHubError error = new DataHubError(message, DataHubError.Types.DATA_ACCESS, resultInfo);
+            DataHubError error = DataHubError.newLightweight("Connection error in %s (status code: %d)",
+                    DataHubError.Types.DATA_ACCESS, resultInfo, className, statusCode);
             return DataAccessResult.fromError(error);
         } else {
             return DataAccessResult.fromResult(getDataFromResult(resultInfo.getResult()));
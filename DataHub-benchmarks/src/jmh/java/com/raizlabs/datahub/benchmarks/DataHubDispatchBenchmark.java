@@ -0,0 +1,112 @@
+package com.raizlabs.datahub.benchmarks;
+
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.DataHub;
+import com.raizlabs.datahub.hub.DataHubListener;
+import com.raizlabs.datahub.hub.DataHubResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the fan-out of a single result from {@link DataHub#onProcessResult(DataHubResult)} to N listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataHubDispatchBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int listenerCount;
+
+    private DispatchingDataHub hub;
+    private DataHubResult<Object> result;
+
+    @Setup(Level.Trial)
+    public void setup(final Blackhole blackhole) {
+        hub = new DispatchingDataHub();
+        result = new DataHubResult<>(DataAccessResult.fromResult(new Object()), 1000, false);
+
+        for (int i = 0; i < listenerCount; i++) {
+            hub.addListener(new DataHubListener<Object>() {
+                @Override
+                public void onDataFetchStarted() {
+                    blackhole.consume(true);
+                }
+
+                @Override
+                public void onDataFetchFinished() {
+                    blackhole.consume(false);
+                }
+
+                @Override
+                public void onResultReceived(DataHubResult<Object> result) {
+                    blackhole.consume(result);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void dispatch() {
+        hub.dispatch(result);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void dispatchContended() {
+        hub.dispatch(result);
+    }
+
+    /**
+     * Minimal {@link DataHub} which exposes its result processing so that dispatch can be measured in isolation.
+     */
+    static class DispatchingDataHub extends DataHub<Object> {
+
+        void dispatch(DataHubResult<Object> result) {
+            onProcessResult(result);
+        }
+
+        @Override
+        protected DataHubResult<Object> doGetCurrent() {
+            return new DataHubResult<>(DataAccessResult.fromUnavailable(), 1000, isFetching());
+        }
+
+        @Override
+        protected void doFetch() {
+
+        }
+
+        @Override
+        protected void doFetch(int limitId) {
+
+        }
+
+        @Override
+        protected void doImportData(Object o) {
+
+        }
+
+        @Override
+        protected void doClose() {
+
+        }
+
+        @Override
+        public boolean isFetching() {
+            return true;
+        }
+    }
+}
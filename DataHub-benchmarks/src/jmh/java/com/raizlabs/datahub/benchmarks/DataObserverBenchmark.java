@@ -0,0 +1,90 @@
+package com.raizlabs.datahub.benchmarks;
+
+import com.raizlabs.datahub.DataResult;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.DataHubResult;
+import com.raizlabs.datahub.observer.DataObserver;
+import com.raizlabs.datahub.observer.ResultFilter;
+import com.raizlabs.datahub.observer.ResultFilters;
+import com.raizlabs.datahub.observer.SimpleDataObserverListener;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DataObserver} result delivery through a set of dispatch filters to its listeners. Listeners are
+ * dispatched inline (no {@link android.os.Handler}) so only the observer overhead is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataObserverBenchmark {
+
+    @Param({"0", "1", "5"})
+    public int filterCount;
+
+    @Param({"1", "10"})
+    public int listenerCount;
+
+    private ExposedDataObserver observer;
+    private DataHubResult<Object> result;
+
+    @Setup(Level.Trial)
+    public void setup(final Blackhole blackhole) {
+        observer = new ExposedDataObserver(new DataHubDispatchBenchmark.DispatchingDataHub());
+        result = new DataHubResult<>(DataAccessResult.fromResult(new Object()), 1000, false);
+
+        for (int i = 0; i < filterCount; i++) {
+            observer.addDispatchResultFilter(i == 0 ? ResultFilters.NULL_DATA : new ResultFilter<Object>() {
+                @Override
+                public boolean shouldFilter(DataHubResult<?> result) {
+                    return result.hasError();
+                }
+            });
+        }
+
+        for (int i = 0; i < listenerCount; i++) {
+            observer.addListener(new SimpleDataObserverListener<Object>() {
+                @Override
+                public void onDataReceived(DataResult<Object> data) {
+                    blackhole.consume(data);
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        observer.close(true);
+    }
+
+    @Benchmark
+    public void onResultReceived() {
+        observer.deliver(result);
+    }
+
+    /**
+     * {@link DataObserver} which dispatches inline and exposes result delivery.
+     */
+    private static class ExposedDataObserver extends DataObserver<Object> {
+
+        ExposedDataObserver(DataHubDispatchBenchmark.DispatchingDataHub dataHub) {
+            super(dataHub, null);
+        }
+
+        void deliver(DataHubResult<Object> result) {
+            onResultReceived(result);
+        }
+    }
+}
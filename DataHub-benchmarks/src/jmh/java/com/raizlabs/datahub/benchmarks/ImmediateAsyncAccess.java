@@ -0,0 +1,41 @@
+package com.raizlabs.datahub.benchmarks;
+
+import com.raizlabs.datahub.access.AsyncDataAccess;
+import com.raizlabs.datahub.access.DataAccessResult;
+
+/**
+ * {@link AsyncDataAccess} which responds with a fixed result on the calling thread, so that benchmarks measure only
+ * the hub and strategy overhead.
+ *
+ * @param <T> {@inheritDoc}
+ */
+class ImmediateAsyncAccess<T> implements AsyncDataAccess<T> {
+
+    private final DataAccessResult<T> result;
+    private final int typeId;
+
+    ImmediateAsyncAccess(DataAccessResult<T> result, int typeId) {
+        this.result = result;
+        this.typeId = typeId;
+    }
+
+    @Override
+    public void get(AsyncDataCallback<T> asyncDataCallback) {
+        asyncDataCallback.onResult(result, this);
+    }
+
+    @Override
+    public void importData(T t) {
+
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public int getTypeId() {
+        return typeId;
+    }
+}
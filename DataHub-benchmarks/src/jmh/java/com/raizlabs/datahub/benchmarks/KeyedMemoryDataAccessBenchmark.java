@@ -0,0 +1,76 @@
+package com.raizlabs.datahub.benchmarks;
+
+import com.raizlabs.datahub.access.CachedKeyedDataManager;
+import com.raizlabs.datahub.access.ConcurrentMemoryKeyedDataManager;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.access.KeyedDataManager;
+import com.raizlabs.datahub.access.KeyedMemoryDataAccess;
+import com.raizlabs.datahub.access.MemoryKeyedDataManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link KeyedMemoryDataAccess#get()} hits and misses against the provided
+ * {@link KeyedDataManager} implementations, both uncontended and from several threads at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeyedMemoryDataAccessBenchmark {
+
+    private static final int KEY_COUNT = 1024;
+
+    @Param({"Memory", "ConcurrentMemory", "Cached"})
+    public String manager;
+
+    private KeyedMemoryDataAccess<Object> hitAccess;
+    private KeyedMemoryDataAccess<Object> missAccess;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        KeyedDataManager<String, Object> dataManager;
+        if ("Cached".equals(manager)) {
+            dataManager = new CachedKeyedDataManager<>(KEY_COUNT * 2);
+        } else if ("ConcurrentMemory".equals(manager)) {
+            dataManager = new ConcurrentMemoryKeyedDataManager<>();
+        } else {
+            dataManager = new MemoryKeyedDataManager<>();
+        }
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            dataManager.set("key" + i, new Object());
+        }
+
+        hitAccess = dataManager.createDataAccess("key" + (KEY_COUNT / 2));
+        missAccess = dataManager.createDataAccess("missing");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public DataAccessResult<Object> getHit() {
+        return hitAccess.get();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public DataAccessResult<Object> getMiss() {
+        return missAccess.get();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public DataAccessResult<Object> getHitContended() {
+        return hitAccess.get();
+    }
+}
@@ -0,0 +1,95 @@
+package com.raizlabs.datahub.benchmarks;
+
+import com.raizlabs.datahub.access.AsyncDataAccess;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.access.KeyedMemoryDataAccess;
+import com.raizlabs.datahub.access.MemoryKeyedDataManager;
+import com.raizlabs.datahub.hub.DataHubListener;
+import com.raizlabs.datahub.hub.DataHubResult;
+import com.raizlabs.datahub.hub.ordered.FetchStrategies;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete {@link OrderedDataHub#fetch()} through a memory tier and a chain of immediately responding
+ * async tiers, including backporting and listener dispatch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderedDataHubFetchBenchmark {
+
+    @Param({"Parallel", "Serial"})
+    public String strategy;
+
+    @Param({"1", "4", "8"})
+    public int asyncTiers;
+
+    @Param({"true", "false"})
+    public boolean backport;
+
+    private OrderedDataHub<Object> hub;
+    private Blackhole blackhole;
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+
+        OrderedDataHub.Builder<Object> builder;
+        if ("Serial".equals(strategy)) {
+            builder = OrderedDataHub.Builder.newSerial(FetchStrategies.Serial.Finalizers.newNone());
+        } else {
+            builder = OrderedDataHub.Builder.newParallel();
+        }
+
+        MemoryKeyedDataManager<String, Object> manager = new MemoryKeyedDataManager<>();
+        builder.setSynchronousAccess(new KeyedMemoryDataAccess<>("key", manager));
+        for (int i = 0; i < asyncTiers; i++) {
+            AsyncDataAccess<Object> access =
+                    new ImmediateAsyncAccess<>(DataAccessResult.fromResult(new Object()), 2000 + i);
+            builder.addAsynchronousAccess(access);
+        }
+
+        hub = builder.setShouldBackport(backport).build();
+        hub.addListener(new DataHubListener<Object>() {
+            @Override
+            public void onDataFetchStarted() {
+                OrderedDataHubFetchBenchmark.this.blackhole.consume(true);
+            }
+
+            @Override
+            public void onDataFetchFinished() {
+                OrderedDataHubFetchBenchmark.this.blackhole.consume(false);
+            }
+
+            @Override
+            public void onResultReceived(DataHubResult<Object> result) {
+                OrderedDataHubFetchBenchmark.this.blackhole.consume(result);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hub.close();
+    }
+
+    @Benchmark
+    public boolean fetch() {
+        hub.fetch();
+        return hub.isFetching();
+    }
+}
@@ -1,7 +1,17 @@
 package com.raizlabs.datahub;
 
+import com.raizlabs.datahub.metrics.DataHubEvents;
+
+import java.util.Arrays;
+
 /**
  * A class which represents an error from a {@link com.raizlabs.datahub.hub.DataHub}.
+ * <p></p>
+ * Errors created through the public constructors capture a stack trace at creation, which is relatively expensive.
+ * For errors that are produced frequently (network failures, closed hubs, etc.), prefer the lightweight errors from
+ * {@link #newLightweight(String, int, Object)}, {@link #newLightweight(String, int, Object, Object...)} or
+ * {@link #getShared(int)}, which never capture a stack trace and only build their {@link Throwable} and message when
+ * they are requested.
  */
 public class DataHubError {
 
@@ -22,15 +32,108 @@ public class DataHubError {
          * not be found.
          */
         public static final int DATA_ACCESS_NOT_FOUND = 405;
+        /**
+         * Indicates that an error occurred because a {@link com.raizlabs.datahub.access.DataAccess} or fetch did not
+         * complete within its allowed time.
+         */
+        public static final int TIMEOUT = 408;
         /**
          * Indicates that an error occurred because something was in an invalid state.
          */
         public static final int INVALID_STATE = 500;
+        /**
+         * Indicates that an error occurred because a {@link com.raizlabs.datahub.access.DataAccess} was not called
+         * as its circuit breaker is open after too many failures.
+         *
+         * @see com.raizlabs.datahub.access.CircuitBreakerAsyncDataAccess
+         */
+        public static final int CIRCUIT_OPEN = 503;
+    }
+
+    private static final Object SHARED_ERRORS_LOCK = new Object();
+    // Copy on write so lookups are lock free and never box the error type
+    private static volatile SharedErrorTable sharedErrors = new SharedErrorTable(new int[0], new DataHubError[0]);
+
+    /**
+     * Creates a lightweight error with the given message and error type. The error does not capture a stack trace
+     * and its {@link Throwable} is only created if {@link #getThrowable()} is called.
+     *
+     * @param message   The message about the error.
+     * @param errorType An integer representing type of error that was caused.
+     * @param tag       An optional object which may be stored to be retrieved from this error.
+     * @return The created error.
+     * @see {@link com.raizlabs.datahub.DataHubError.Types} for predefined type constants.
+     */
+    public static DataHubError newLightweight(String message, int errorType, Object tag) {
+        return reportCreated(new DataHubError(message, errorType, tag, null, false));
+    }
+
+    /**
+     * Creates a lightweight error whose message is built from the given format and arguments via
+     * {@link String#format(String, Object...)}. The message is only formatted if {@link #getMessage()} or
+     * {@link #getThrowable()} is called, and no stack trace is captured. If no arguments are given, the format is
+     * used as the message as is.
+     *
+     * @param format    The format string of the message.
+     * @param errorType An integer representing type of error that was caused.
+     * @param tag       An optional object which may be stored to be retrieved from this error.
+     * @param args      The arguments referenced by the format string.
+     * @return The created error.
+     * @see {@link com.raizlabs.datahub.DataHubError.Types} for predefined type constants.
+     */
+    public static DataHubError newLightweight(String format, int errorType, Object tag, Object... args) {
+        return reportCreated(new DataHubError(format, errorType, tag, args, false));
     }
 
-    private int errorType;
-    private Object tag;
-    private Throwable throwable;
+    /**
+     * Returns a shared, immutable lightweight error for the given error type. The same instance is returned for every
+     * call with the same type, so this may be used on hot paths where the individual error details don't matter and
+     * no allocation is desired. Shared errors never have a tag.
+     *
+     * @param errorType An integer representing type of error that was caused.
+     * @return The shared error for the given type.
+     */
+    public static DataHubError getShared(int errorType) {
+        DataHubError error = sharedErrors.get(errorType);
+        if (error != null) {
+            return error;
+        }
+
+        final DataHubError created;
+        synchronized (SHARED_ERRORS_LOCK) {
+            final SharedErrorTable table = sharedErrors;
+            error = table.get(errorType);
+            if (error != null) {
+                return error;
+            }
+            created = new DataHubError("DataHub error of type %d", errorType, null, new Object[]{errorType}, false);
+            sharedErrors = table.with(errorType, created);
+        }
+        // Only the instance which is actually shared is reported
+        return reportCreated(created);
+    }
+
+    /**
+     * Reports the given fully constructed error to the {@link DataHubEvents} sink, if there is one.
+     *
+     * @param error The error which was created.
+     * @return The given error.
+     */
+    private static DataHubError reportCreated(DataHubError error) {
+        final DataHubEvents.Sink eventSink = DataHubEvents.getSink();
+        if (eventSink != null) {
+            eventSink.onErrorCreated(error);
+        }
+        return error;
+    }
+
+    private final int errorType;
+    private final Object tag;
+
+    private final String messageFormat;
+    private final Object[] messageArgs;
+    private volatile String message;
+    private volatile Throwable throwable;
 
     /**
      * Creates a new error with the given message and error type.
@@ -54,16 +157,60 @@ public class DataHubError {
      * @see {@link com.raizlabs.datahub.DataHubError.Types} for predefined type constants.
      */
     public DataHubError(String message, int errorType, Object tag) {
+        this(message, errorType, tag, null, true);
+        // Subclasses aren't fully constructed yet, so they report themselves through reportCreated()
+        if (getClass() == DataHubError.class) {
+            reportCreated(this);
+        }
+    }
+
+    /**
+     * Creates a new error.
+     *
+     * @param messageFormat The message about the error, or a format string for the message if arguments are given.
+     * @param errorType     An integer representing type of error that was caused.
+     * @param tag           An optional object which may be stored to be retrieved from this error.
+     * @param messageArgs   The arguments to format the message with, or null or empty if the message should be used as
+     *                      is.
+     * @param captureStack  True to eagerly create the {@link Throwable} and capture the current stack trace, false to
+     *                      lazily create a {@link Throwable} without a stack trace.
+     */
+    protected DataHubError(String messageFormat, int errorType, Object tag, Object[] messageArgs,
+                           boolean captureStack) {
         this.errorType = errorType;
         this.tag = tag;
-        this.throwable = new Exception(message);
+        this.messageFormat = messageFormat;
+        this.messageArgs = messageArgs;
+
+        // Without arguments there is nothing to format, and formatting would choke on any '%' in the message
+        if ((messageArgs == null) || (messageArgs.length == 0)) {
+            this.message = messageFormat;
+        }
+
+        if (captureStack) {
+            this.throwable = new Exception(getMessage());
+        }
+    }
+
+    /**
+     * Reports this error to the {@link DataHubEvents} sink, if there is one. Errors created through this class's
+     * public constructors and static factory methods are reported automatically. Subclasses should call this once at
+     * the end of their constructors, so that the sink only ever sees fully constructed errors.
+     */
+    protected final void reportCreated() {
+        reportCreated(this);
     }
 
     /**
      * @return The message associated with this error.
      */
     public String getMessage() {
-        return throwable.getMessage();
+        String message = this.message;
+        if (message == null) {
+            message = String.format(messageFormat, messageArgs);
+            this.message = message;
+        }
+        return message;
     }
 
     /**
@@ -77,9 +224,15 @@ public class DataHubError {
     }
 
     /**
-     * @return A throwable which contains information about the source of the error.
+     * @return A throwable which contains information about the source of the error. For lightweight errors, this is
+     * created on the first call and will not contain a stack trace.
      */
     public Throwable getThrowable() {
+        Throwable throwable = this.throwable;
+        if (throwable == null) {
+            throwable = new StacklessException(getMessage());
+            this.throwable = throwable;
+        }
         return throwable;
     }
 
@@ -89,4 +242,55 @@ public class DataHubError {
     public Object getTag() {
         return tag;
     }
+
+    /**
+     * Immutable table of shared errors, sorted by error type so they can be looked up by binary search.
+     */
+    private static class SharedErrorTable {
+        private final int[] types;
+        private final DataHubError[] errors;
+
+        SharedErrorTable(int[] types, DataHubError[] errors) {
+            this.types = types;
+            this.errors = errors;
+        }
+
+        DataHubError get(int errorType) {
+            final int index = Arrays.binarySearch(types, errorType);
+            return (index >= 0) ? errors[index] : null;
+        }
+
+        /**
+         * Returns a copy of this table with the given error added. The type must not already be in the table.
+         */
+        SharedErrorTable with(int errorType, DataHubError error) {
+            final int index = -(Arrays.binarySearch(types, errorType) + 1);
+            final int[] newTypes = new int[types.length + 1];
+            final DataHubError[] newErrors = new DataHubError[errors.length + 1];
+            System.arraycopy(types, 0, newTypes, 0, index);
+            System.arraycopy(errors, 0, newErrors, 0, index);
+            newTypes[index] = errorType;
+            newErrors[index] = error;
+            System.arraycopy(types, index, newTypes, index + 1, types.length - index);
+            System.arraycopy(errors, index, newErrors, index + 1, errors.length - index);
+            return new SharedErrorTable(newTypes, newErrors);
+        }
+    }
+
+    /**
+     * {@link Exception} which skips capturing a stack trace.
+     */
+    private static class StacklessException extends Exception {
+
+        private static final long serialVersionUID = 3150741265129453071L;
+
+        StacklessException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
 }
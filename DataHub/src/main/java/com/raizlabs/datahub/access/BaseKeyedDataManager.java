@@ -1,5 +1,9 @@
 package com.raizlabs.datahub.access;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Base class which implements {@link KeyedDataManager} and provides some of the basic functionality.
  *
@@ -8,6 +12,47 @@ package com.raizlabs.datahub.access;
  */
 public abstract class BaseKeyedDataManager<K, V> implements KeyedDataManager<K, V> {
 
+    /**
+     * {@inheritDoc}
+     * <br/><br/>
+     * By default this calls {@link #get(Object)} for each key.
+     */
+    @Override
+    public <T> Map<K, T> getAll(Collection<? extends K> keys) {
+        final Map<K, T> values = new HashMap<>(keys.size() * 2);
+        for (K key : keys) {
+            final T value = get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/><br/>
+     * By default this calls {@link #set(Object, Object)} for each entry.
+     */
+    @Override
+    public void setAll(Map<? extends K, ? extends V> values) {
+        for (Map.Entry<? extends K, ? extends V> entry : values.entrySet()) {
+            set(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/><br/>
+     * By default this calls {@link #remove(Object)} for each key.
+     */
+    @Override
+    public void removeAll(Collection<? extends K> keys) {
+        for (K key : keys) {
+            remove(key);
+        }
+    }
+
     @Override
     public <T extends V> KeyedMemoryDataAccess<T> createDataAccess(K key) {
         return new KeyedMemoryDataAccess<>(key, this);
@@ -0,0 +1,101 @@
+package com.raizlabs.datahub.access;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class which provides access to the values stored under a set of keys in a {@link KeyedDataManager} as a single
+ * map. This is the batch equivalent of {@link KeyedMemoryDataAccess}, and reads all of the keys in one pass through
+ * {@link KeyedDataManager#getAll(Collection)} instead of one lookup per key. This will always fetch the current values
+ * of the keys in the given manager.
+ * <p></p>
+ * The result is unavailable if none of the keys have a value. Otherwise, it contains each key which has a value.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class BatchKeyedMemoryDataAccess<K, V> implements SyncDataAccess<Map<K, V>> {
+
+    private final List<K> keys;
+    private final int typeId;
+    private final KeyedDataManager<K, ? super V> dataManager;
+
+    /**
+     * Creates a {@link BatchKeyedMemoryDataAccess} which fetches the given keys from the given manager.
+     *
+     * @param keys    The keys to access the values of.
+     * @param manager The manager to access the data from.
+     */
+    public BatchKeyedMemoryDataAccess(Collection<? extends K> keys, KeyedDataManager<K, ? super V> manager) {
+        this(keys, manager, AccessTypeIds.MEMORY_DATA);
+    }
+
+    /**
+     * Creates a {@link BatchKeyedMemoryDataAccess} which fetches the given keys from the given manager.
+     *
+     * @param keys    The keys to access the values of.
+     * @param manager The manager to access the data from.
+     * @param typeId  The type ID to return for this access.
+     */
+    public BatchKeyedMemoryDataAccess(Collection<? extends K> keys, KeyedDataManager<K, ? super V> manager,
+                                      int typeId) {
+        this.keys = Collections.unmodifiableList(new ArrayList<K>(keys));
+        this.typeId = typeId;
+        this.dataManager = manager;
+    }
+
+    /**
+     * @return The keys being used to access the data.
+     */
+    public List<K> getKeys() {
+        return keys;
+    }
+
+    /**
+     * @return The {@link KeyedDataManager} that data is being accessed from.
+     */
+    public KeyedDataManager<K, ? super V> getDataManager() {
+        return dataManager;
+    }
+
+    @Override
+    public DataAccessResult<Map<K, V>> get() {
+        final Map<K, V> values = dataManager.getAll(keys);
+        if (values.isEmpty()) {
+            return DataAccessResult.fromUnavailable();
+        }
+        return DataAccessResult.fromResult(values);
+    }
+
+    /**
+     * Sets each of the keys in the given map to its value. Keys which aren't accessed by this access are set as well.
+     *
+     * @param data The keys and values to set.
+     */
+    @Override
+    public void importData(Map<K, V> data) {
+        if (data != null) {
+            dataManager.setAll(data);
+        }
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public int getTypeId() {
+        return typeId;
+    }
+
+    /**
+     * Clears the values stored for all of the keys.
+     */
+    public void clear() {
+        dataManager.removeAll(keys);
+    }
+}
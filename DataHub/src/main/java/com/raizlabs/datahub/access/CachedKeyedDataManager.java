@@ -2,11 +2,19 @@ package com.raizlabs.datahub.access;
 
 import android.support.v4.util.LruCache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Implementation of a {@link KeyedDataManager} that keeps all key/value pairs in a memory cache which is trimmed when
  * too many items are added. This class uses a concept of "size" for each object and is set to allow a maximum total
  * size. By default, all items are assumed to have a size of 1. When the size is exceeded, the least recently accessed
  * objects will be trimmed.
+ * <p></p>
+ * To bound the cache by memory instead of by entry count, provide a {@link Weigher} which returns the approximate
+ * byte size of each value, and a maximum size in bytes. Hit, miss, put and eviction counts are available through
+ * {@link #getStats()}, and an {@link EvictionListener} may be set to observe individual evictions.
  *
  * @param <K> {@inheritDoc}
  * @param <V> {@inheritDoc}
@@ -14,7 +22,116 @@ import android.support.v4.util.LruCache;
  */
 public class CachedKeyedDataManager<K, V> extends BaseKeyedDataManager<K, V> {
 
+    /**
+     * Interface which determines the size or weight of individual cache entries.
+     *
+     * @param <K> The key type.
+     * @param <V> The value type.
+     */
+    public interface Weigher<K, V> {
+        /**
+         * Called to obtain the weight of the given entry. This must not change while the entry is in the cache.
+         *
+         * @param key   The key of the entry.
+         * @param value The value of the entry.
+         * @return The weight of the entry, such as its approximate size in bytes. Must not be negative.
+         */
+        int weigh(K key, V value);
+    }
+
+    /**
+     * Listener interface which is notified when entries are evicted to make room for others.
+     *
+     * @param <K> The key type.
+     * @param <V> The value type.
+     */
+    public interface EvictionListener<K, V> {
+        /**
+         * Called when an entry has been evicted from the cache because the maximum size was exceeded, or because the
+         * cache was cleared via {@link CachedKeyedDataManager#clear()}. This is not called for entries that are
+         * individually removed or replaced.
+         *
+         * @param key   The key of the evicted entry.
+         * @param value The value of the evicted entry.
+         */
+        void onEvicted(K key, V value);
+    }
+
+    /**
+     * An immutable snapshot of the statistics of a {@link CachedKeyedDataManager}.
+     */
+    public static class Stats {
+        private final int hitCount;
+        private final int missCount;
+        private final int putCount;
+        private final int evictionCount;
+        private final int size;
+        private final int maxSize;
+
+        Stats(int hitCount, int missCount, int putCount, int evictionCount, int size, int maxSize) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.putCount = putCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * @return The number of lookups which found a value.
+         */
+        public int getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * @return The number of lookups which didn't find a value.
+         */
+        public int getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * @return The ratio of lookups which found a value, or 0 if there have been no lookups.
+         */
+        public double getHitRate() {
+            final int total = hitCount + missCount;
+            return (total == 0) ? 0 : ((double) hitCount / total);
+        }
+
+        /**
+         * @return The number of values which have been set.
+         */
+        public int getPutCount() {
+            return putCount;
+        }
+
+        /**
+         * @return The number of values which have been evicted to make room for others.
+         */
+        public int getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * @return The total size of all entries at the time of the snapshot, as determined by
+         * {@link CachedKeyedDataManager#sizeOf(Object, Object)}.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return The maximum total size of all entries at the time of the snapshot.
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+    }
+
     private final LruCache<K, V> cache;
+    private final Weigher<? super K, ? super V> weigher;
+    private volatile EvictionListener<? super K, ? super V> evictionListener;
 
     /**
      * Creates a new {@link CachedKeyedDataManager} which permits the given maximum total size.
@@ -22,14 +139,60 @@ public class CachedKeyedDataManager<K, V> extends BaseKeyedDataManager<K, V> {
      * @param size The maximum total size of all items allowed. Items will be trimmed when this is exceeded.
      */
     public CachedKeyedDataManager(int size) {
-        this.cache = new LruCache<K, V>(size) {
+        this(size, null);
+    }
+
+    /**
+     * Creates a new {@link CachedKeyedDataManager} which sizes its entries using the given {@link Weigher} and
+     * permits the given maximum total weight. For example, to bound the cache to 4MB, provide a weigher which returns
+     * the approximate byte size of each value, and a size of 4 * 1024 * 1024.
+     *
+     * @param maxWeight The maximum total weight of all items allowed. Items will be trimmed when this is exceeded.
+     * @param weigher   The {@link Weigher} to size entries with, or null to give every entry a size of 1.
+     */
+    public CachedKeyedDataManager(int maxWeight, Weigher<? super K, ? super V> weigher) {
+        this.weigher = weigher;
+        this.cache = new LruCache<K, V>(maxWeight) {
             @Override
             protected int sizeOf(K key, V value) {
                 return CachedKeyedDataManager.this.sizeOf(key, value);
             }
+
+            @Override
+            protected void entryRemoved(boolean evicted, K key, V oldValue, V newValue) {
+                if (evicted) {
+                    onEntryEvicted(key, oldValue);
+                }
+            }
         };
     }
 
+    /**
+     * Sets the listener to be notified when entries are evicted.
+     *
+     * @param listener The listener to notify, or null to remove the current listener.
+     */
+    public void setEvictionListener(EvictionListener<? super K, ? super V> listener) {
+        this.evictionListener = listener;
+    }
+
+    /**
+     * @return A snapshot of the current hit, miss, put and eviction counts and sizes of this cache.
+     */
+    public Stats getStats() {
+        return new Stats(cache.hitCount(), cache.missCount(), cache.putCount(), cache.evictionCount(),
+                cache.size(), cache.maxSize());
+    }
+
+    /**
+     * Changes the maximum total size of all items allowed, trimming items immediately if the new size is exceeded.
+     *
+     * @param maxSize The new maximum total size.
+     */
+    public void resize(int maxSize) {
+        cache.resize(maxSize);
+    }
+
     @Override
     public boolean containsKey(K key) {
         return (cache.get(key) != null);
@@ -56,19 +219,91 @@ public class CachedKeyedDataManager<K, V> extends BaseKeyedDataManager<K, V> {
         return cache.remove(key);
     }
 
+    /**
+     * {@inheritDoc}
+     * <br/><br/>
+     * The cache lock is taken once for the whole batch, so other threads can't interleave with it.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Map<K, T> getAll(Collection<? extends K> keys) {
+        final Map<K, T> values = new HashMap<>(keys.size() * 2);
+        synchronized (cache) {
+            for (K key : keys) {
+                if (key == null) {
+                    continue;
+                }
+
+                final V value = cache.get(key);
+                if (value != null) {
+                    values.put(key, (T) value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/><br/>
+     * The cache lock is taken once for the whole batch. Any {@link EvictionListener} is called while it is held.
+     */
+    @Override
+    public void setAll(Map<? extends K, ? extends V> values) {
+        synchronized (cache) {
+            for (Map.Entry<? extends K, ? extends V> entry : values.entrySet()) {
+                cache.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/><br/>
+     * The cache lock is taken once for the whole batch.
+     */
+    @Override
+    public void removeAll(Collection<? extends K> keys) {
+        synchronized (cache) {
+            for (K key : keys) {
+                if (key != null) {
+                    cache.remove(key);
+                }
+            }
+        }
+    }
+
     @Override
     public void clear() {
         cache.evictAll();
     }
 
     /**
-     * Called to obtain the size of the value in the given key/value pair.
+     * Called to obtain the size of the value in the given key/value pair. By default, this uses the {@link Weigher}
+     * provided at construction, or returns 1 if none was provided.
      *
      * @param key   The key of the item being queried for size.
      * @param value The value to return the size of.
      * @return The size of the given value.
      */
     protected int sizeOf(K key, V value) {
+        if (weigher != null) {
+            return weigher.weigh(key, value);
+        }
         return 1;
     }
+
+    /**
+     * Called when an entry has been evicted because the maximum size was exceeded. By default, this notifies the
+     * {@link EvictionListener}, if one is set.
+     *
+     * @param key   The key of the evicted entry.
+     * @param value The value of the evicted entry.
+     */
+    protected void onEntryEvicted(K key, V value) {
+        EvictionListener<? super K, ? super V> listener = evictionListener;
+        if (listener != null) {
+            listener.onEvicted(key, value);
+        }
+    }
 }
@@ -0,0 +1,293 @@
+package com.raizlabs.datahub.access;
+
+import com.raizlabs.datahub.DataHubError;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AsyncDataAccess} implementation which wraps another {@link AsyncDataAccess} and stops calling it while it is
+ * failing, in the spirit of {@link AsyncDataAccessProxy}. The outcomes of the most recent calls are tracked in a
+ * sliding window, and once enough of them have failed the circuit opens. While open, every call fails immediately with
+ * a {@link DataHubError.Types#CIRCUIT_OPEN} error instead of reaching the target, which takes load off a failing
+ * backend and lets fetch strategies move on to other accesses straight away rather than waiting for a timeout.
+ * <p></p>
+ * After the open duration has passed, the circuit becomes half-open and lets a limited number of probe calls through.
+ * If all of them succeed, the circuit closes and calls flow as normal again. If any of them fail, it opens again for
+ * another open duration. If the probes haven't all responded within an open duration, such as because the target
+ * hangs, a new round of probes is let through.
+ * <p></p>
+ * A result is a failure if it has an error. Results without data or an error count as successes, as the target did
+ * respond. Results of calls made before the circuit last changed state are not counted.
+ *
+ * @param <Data> {@inheritDoc}
+ * @see #getCurrentTimeMillis() - Override to change the clock used for the open duration.
+ */
+public class CircuitBreakerAsyncDataAccess<Data> implements AsyncDataAccess<Data> {
+
+    /**
+     * The states of the circuit.
+     */
+    public enum State {
+        /**
+         * Calls reach the target and their outcomes are tracked.
+         */
+        CLOSED,
+        /**
+         * Calls fail immediately without reaching the target.
+         */
+        OPEN,
+        /**
+         * A limited number of probe calls reach the target to decide whether to close or open the circuit. Any other
+         * calls fail immediately.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * The default number of most recent calls which the failure rate is measured over.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+    /**
+     * The default failure rate at which the circuit opens.
+     */
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    /**
+     * The default time in milliseconds that the circuit stays open for before letting probes through.
+     */
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 30000;
+
+    private final AsyncDataAccess<Data> target;
+    private final int windowSize;
+    private final double failureRateThreshold;
+    private final long openDurationMillis;
+
+    private int minimumCalls;
+    private int halfOpenProbeCount = 1;
+
+    private State state = State.CLOSED;
+    // Incremented on every state change, so results of calls made in an earlier state can be ignored
+    private long stateEpoch;
+    private long stateChangedAtMillis;
+
+    private final boolean[] outcomes;
+    private int outcomeCount;
+    private int nextOutcomeIndex;
+    private int failureCount;
+
+    private int probesStarted;
+    private int probesSucceeded;
+
+    /**
+     * Creates a {@link CircuitBreakerAsyncDataAccess} with the default window size, failure rate threshold and open
+     * duration.
+     *
+     * @param target The {@link AsyncDataAccess} to call through to.
+     */
+    public CircuitBreakerAsyncDataAccess(AsyncDataAccess<Data> target) {
+        this(target, DEFAULT_WINDOW_SIZE, DEFAULT_FAILURE_RATE_THRESHOLD, DEFAULT_OPEN_DURATION_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a {@link CircuitBreakerAsyncDataAccess}.
+     *
+     * @param target               The {@link AsyncDataAccess} to call through to.
+     * @param windowSize           The number of most recent calls to measure the failure rate over.
+     * @param failureRateThreshold The failure rate, greater than 0 and at most 1, at or above which the circuit opens.
+     * @param openDuration         The time the circuit stays open for before letting probes through.
+     * @param unit                 The unit of the given time.
+     */
+    public CircuitBreakerAsyncDataAccess(AsyncDataAccess<Data> target, int windowSize, double failureRateThreshold,
+                                         long openDuration, TimeUnit unit) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target must not be null");
+        }
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new IllegalArgumentException("Failure rate threshold must be greater than 0 and at most 1");
+        }
+
+        this.target = target;
+        this.windowSize = windowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMillis = unit.toMillis(openDuration);
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = windowSize;
+    }
+
+    /**
+     * @return The {@link AsyncDataAccess} being called through to.
+     */
+    public AsyncDataAccess<Data> getTarget() {
+        return target;
+    }
+
+    /**
+     * Sets the number of calls which must have been made before the failure rate is checked, so that a few early
+     * failures don't open the circuit. By default this is the window size.
+     *
+     * @param minimumCalls The minimum number of calls, which is capped at the window size.
+     */
+    public synchronized void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, windowSize));
+    }
+
+    /**
+     * Sets the number of probe calls which are let through while half-open. All of them must succeed for the circuit
+     * to close. The default is 1.
+     *
+     * @param probeCount The number of probe calls.
+     */
+    public synchronized void setHalfOpenProbeCount(int probeCount) {
+        this.halfOpenProbeCount = Math.max(1, probeCount);
+    }
+
+    /**
+     * @return The current state of the circuit. An open circuit whose open duration has passed is reported as
+     * half-open.
+     */
+    public synchronized State getState() {
+        updateOpenState();
+        return state;
+    }
+
+    /**
+     * @return The failure rate over the current window, or 0 if no calls have been tracked.
+     */
+    public synchronized double getFailureRate() {
+        return (outcomeCount == 0) ? 0 : ((double) failureCount / outcomeCount);
+    }
+
+    /**
+     * Closes the circuit and clears the tracked outcomes, such as when the backend is known to have recovered.
+     */
+    public synchronized void reset() {
+        moveTo(State.CLOSED);
+    }
+
+    @Override
+    public void get(final AsyncDataCallback<Data> asyncDataCallback) {
+        final long epoch;
+        synchronized (this) {
+            updateOpenState();
+            if ((state == State.OPEN) ||
+                    ((state == State.HALF_OPEN) && (probesStarted >= halfOpenProbeCount))) {
+                epoch = -1;
+            } else {
+                if (state == State.HALF_OPEN) {
+                    probesStarted++;
+                }
+                epoch = stateEpoch;
+            }
+        }
+
+        if (epoch < 0) {
+            DataHubError error = DataHubError.newLightweight("Circuit is open for Data Access %d",
+                    DataHubError.Types.CIRCUIT_OPEN, null, getTypeId());
+            asyncDataCallback.onResult(DataAccessResult.<Data>fromError(error), this);
+            return;
+        }
+
+        target.get(new AsyncDataCallback<Data>() {
+            @Override
+            public void onResult(DataAccessResult<Data> result, AsyncDataAccess<Data> access) {
+                onCallFinished(epoch, (result == null) || (result.getError() != null));
+                asyncDataCallback.onResult(result, CircuitBreakerAsyncDataAccess.this);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        target.close();
+    }
+
+    @Override
+    public int getTypeId() {
+        return target.getTypeId();
+    }
+
+    @Override
+    public void importData(Data data) {
+        target.importData(data);
+    }
+
+    /**
+     * Called to obtain the current time which the open duration is measured against. By default this uses
+     * {@link System#currentTimeMillis()}.
+     *
+     * @return The current time in milliseconds.
+     */
+    protected long getCurrentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private synchronized void onCallFinished(long epoch, boolean failed) {
+        if (epoch != stateEpoch) {
+            // The call was made before the last state change, so it says nothing about the current state
+            return;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                moveTo(State.OPEN);
+            } else if (++probesSucceeded >= halfOpenProbeCount) {
+                moveTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            recordOutcome(failed);
+            if ((outcomeCount >= minimumCalls) && (getFailureRate() >= failureRateThreshold)) {
+                moveTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Records an outcome in the sliding window. Must be called while holding the lock.
+     */
+    private void recordOutcome(boolean failed) {
+        if (outcomeCount == windowSize) {
+            // Drop the oldest outcome to make room
+            if (outcomes[nextOutcomeIndex]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+
+        outcomes[nextOutcomeIndex] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        nextOutcomeIndex = (nextOutcomeIndex + 1) % windowSize;
+    }
+
+    /**
+     * Moves to half-open if the circuit has been open or waiting on probes for the open duration. Must be called while
+     * holding the lock.
+     */
+    private void updateOpenState() {
+        if ((state != State.CLOSED) && (getCurrentTimeMillis() - stateChangedAtMillis >= openDurationMillis)) {
+            moveTo(State.HALF_OPEN);
+        }
+    }
+
+    /**
+     * Moves to the given state and resets the tracking for it. Must be called while holding the lock.
+     */
+    private void moveTo(State newState) {
+        state = newState;
+        stateEpoch++;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        stateChangedAtMillis = getCurrentTimeMillis();
+
+        if (newState == State.CLOSED) {
+            outcomeCount = 0;
+            nextOutcomeIndex = 0;
+            failureCount = 0;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.raizlabs.datahub.access;
+
+import com.raizlabs.datahub.DataHubError;
+import com.raizlabs.datahub.hub.ordered.CancelableCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link AsyncDataAccess} implementation which wraps another {@link AsyncDataAccess} and folds concurrent requests
+ * for the same request key into a single call to the underlying access. While a request for a key is in flight, any
+ * other {@link CoalescingAsyncDataAccess} in the same {@link Group} that is asked for the same key will wait for that
+ * request instead of starting its own, and the single {@link DataAccessResult} will be delivered to every waiting
+ * callback. Once a request completes, the next call starts a new request.
+ * <p></p>
+ * Request keys must uniquely identify the request being made, and all accesses sharing a key within a group must
+ * return the same type of data. Callbacks which are {@link CancelableCallback}s that have been cancelled by the time
+ * the result arrives are skipped.
+ *
+ * @param <Data> {@inheritDoc}
+ */
+public class CoalescingAsyncDataAccess<Data> implements AsyncDataAccess<Data> {
+
+    /**
+     * A scope within which requests with equal keys are coalesced. Accesses in different groups never share requests.
+     */
+    public static class Group {
+
+        private final ConcurrentMap<Object, InFlightRequest<?>> inFlight = new ConcurrentHashMap<>();
+
+        /**
+         * @return The number of requests which are currently in flight in this group.
+         */
+        public int getInFlightCount() {
+            return inFlight.size();
+        }
+    }
+
+    private static final Group GLOBAL_GROUP = new Group();
+
+    /**
+     * @return The shared global {@link Group} used by accesses which are not given a group.
+     */
+    public static Group getGlobalGroup() {
+        return GLOBAL_GROUP;
+    }
+
+    private final Object requestKey;
+    private final AsyncDataAccess<Data> target;
+    private final Group group;
+
+    /**
+     * Creates a {@link CoalescingAsyncDataAccess} which coalesces requests within the global {@link Group}.
+     *
+     * @param requestKey The key identifying the request made by the target access.
+     * @param target     The {@link AsyncDataAccess} to make requests through.
+     */
+    public CoalescingAsyncDataAccess(Object requestKey, AsyncDataAccess<Data> target) {
+        this(requestKey, target, GLOBAL_GROUP);
+    }
+
+    /**
+     * Creates a {@link CoalescingAsyncDataAccess} which coalesces requests within the given {@link Group}.
+     *
+     * @param requestKey The key identifying the request made by the target access.
+     * @param target     The {@link AsyncDataAccess} to make requests through.
+     * @param group      The {@link Group} to coalesce requests within.
+     */
+    public CoalescingAsyncDataAccess(Object requestKey, AsyncDataAccess<Data> target, Group group) {
+        this.requestKey = requestKey;
+        this.target = target;
+        this.group = group;
+    }
+
+    /**
+     * @return The key identifying the request made by the target access.
+     */
+    public Object getRequestKey() {
+        return requestKey;
+    }
+
+    /**
+     * @return The {@link AsyncDataAccess} that requests are made through.
+     */
+    public AsyncDataAccess<Data> getTarget() {
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void get(AsyncDataCallback<Data> asyncDataCallback) {
+        while (true) {
+            InFlightRequest<Data> existing = (InFlightRequest<Data>) group.inFlight.get(requestKey);
+            if (existing != null) {
+                if (existing.addWaiter(asyncDataCallback, this)) {
+                    return;
+                }
+                // The request completed before we could join it, so clean up and try again
+                group.inFlight.remove(requestKey, existing);
+                continue;
+            }
+
+            InFlightRequest<Data> request = new InFlightRequest<>();
+            request.addWaiter(asyncDataCallback, this);
+            if (group.inFlight.putIfAbsent(requestKey, request) == null) {
+                start(request);
+                return;
+            }
+        }
+    }
+
+    private void start(final InFlightRequest<Data> request) {
+        final AtomicBoolean delivered = new AtomicBoolean(false);
+        try {
+            target.get(new AsyncDataCallback<Data>() {
+                @Override
+                public void onResult(DataAccessResult<Data> result, AsyncDataAccess<Data> access) {
+                    delivered.set(true);
+                    group.inFlight.remove(requestKey, request);
+                    request.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (delivered.get()) {
+                // The request did start, so this came from delivering the result, such as from a waiter's callback
+                throw e;
+            }
+
+            // Don't leave the other waiters hanging on a request that never started
+            group.inFlight.remove(requestKey, request);
+            DataHubError error = DataHubError.newLightweight("Coalesced request failed to start: %s",
+                    DataHubError.Types.DATA_ACCESS, e, e);
+            request.complete(DataAccessResult.<Data>fromError(error));
+        }
+    }
+
+    @Override
+    public void close() {
+        target.close();
+    }
+
+    @Override
+    public int getTypeId() {
+        return target.getTypeId();
+    }
+
+    @Override
+    public void importData(Data data) {
+        target.importData(data);
+    }
+
+    /**
+     * A single request to the underlying access and the callbacks waiting on its result.
+     *
+     * @param <T> The type of data being accessed.
+     */
+    private static class InFlightRequest<T> {
+
+        private List<AsyncDataCallback<T>> callbacks = new ArrayList<>(2);
+        private List<AsyncDataAccess<T>> accesses = new ArrayList<>(2);
+        private boolean completed;
+
+        synchronized boolean addWaiter(AsyncDataCallback<T> callback, AsyncDataAccess<T> access) {
+            if (completed) {
+                return false;
+            }
+            callbacks.add(callback);
+            accesses.add(access);
+            return true;
+        }
+
+        void complete(DataAccessResult<T> result) {
+            final List<AsyncDataCallback<T>> callbacks;
+            final List<AsyncDataAccess<T>> accesses;
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+                callbacks = this.callbacks;
+                accesses = this.accesses;
+                this.callbacks = null;
+                this.accesses = null;
+            }
+
+            for (int i = 0; i < callbacks.size(); i++) {
+                AsyncDataCallback<T> callback = callbacks.get(i);
+                if ((callback instanceof CancelableCallback) && ((CancelableCallback) callback).isCanceled()) {
+                    continue;
+                }
+                callback.onResult(result, accesses.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.raizlabs.datahub.access;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of a {@link KeyedDataManager} that keeps all key/value pairs in memory until they are removed, and
+ * which may be safely read and written from many threads at once. Data is stored in a {@link ConcurrentHashMap} so
+ * reads never block and writes only contend with writes to the same segment.
+ * <p></p>
+ * Null keys and values are not stored. Setting a key to null removes it, and looking up a null key returns nothing.
+ *
+ * @param <K> {@inheritDoc}
+ * @param <V> {@inheritDoc}
+ */
+public class ConcurrentMemoryKeyedDataManager<K, V> extends MemoryKeyedDataManager<K, V> {
+
+    /**
+     * Creates a new empty {@link ConcurrentMemoryKeyedDataManager}.
+     */
+    public ConcurrentMemoryKeyedDataManager() {
+        this(16, 16);
+    }
+
+    /**
+     * Creates a new empty {@link ConcurrentMemoryKeyedDataManager} sized for the given expected load.
+     *
+     * @param initialCapacity  The number of entries to initially size the manager for.
+     * @param concurrencyLevel The estimated number of threads which will write concurrently.
+     */
+    public ConcurrentMemoryKeyedDataManager(int initialCapacity, int concurrencyLevel) {
+        super(new ConcurrentHashMap<K, V>(initialCapacity, 0.75f, concurrencyLevel));
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return (key != null) && super.containsKey(key);
+    }
+
+    @Override
+    public <T> T get(K key) {
+        if (key == null) {
+            return null;
+        }
+        return super.get(key);
+    }
+
+    @Override
+    public void set(K key, V value) {
+        if (key == null) {
+            return;
+        }
+
+        if (value == null) {
+            getMap().remove(key);
+        } else {
+            super.set(key, value);
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        return super.remove(key);
+    }
+
+    @Override
+    public void setAll(Map<? extends K, ? extends V> values) {
+        // Null keys and values need the same handling as set, so this can't go straight to putAll
+        for (Map.Entry<? extends K, ? extends V> entry : values.entrySet()) {
+            set(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -21,6 +21,21 @@ public class DataAccessResult<Data> {
         return new DataAccessResult<>(data);
     }
 
+    /**
+     * Builds a new {@link DataAccessResult} representing that the given data was found as a result, but that it is
+     * stale and should be refreshed from a more up to date source.
+     *
+     * @param data The result data.
+     * @param <T>  The type of data that was being accessed.
+     * @return A {@link DataAccessResult} representing the given stale result data.
+     * @see #isStale()
+     */
+    public static <T> DataAccessResult<T> fromStaleResult(T data) {
+        DataAccessResult<T> result = new DataAccessResult<>(data);
+        result.isStale = true;
+        return result;
+    }
+
     /**
      * Builds a new {@link DataAccessResult} representing that no data was available.
      *
@@ -45,6 +60,7 @@ public class DataAccessResult<Data> {
 
     private DataHubError error;
     private Data data;
+    private boolean isStale;
 
     protected DataAccessResult(DataHubError error) {
         this.error = error;
@@ -74,4 +90,12 @@ public class DataAccessResult<Data> {
     public boolean hasData() {
         return (getError() == null) && (getData() != null);
     }
+
+    /**
+     * @return True if the source reported that the data is out of date and should be refreshed from a more up to
+     * date source. Sources which don't track freshness always return false.
+     */
+    public boolean isStale() {
+        return isStale;
+    }
 }
@@ -1,5 +1,8 @@
 package com.raizlabs.datahub.access;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * A {@link KeyedDataManager} defines a key/value means of storing and accessing data.
  *
@@ -41,6 +44,31 @@ public interface KeyedDataManager<K, V> {
      */
     V remove(K key);
 
+    /**
+     * Returns the values at all of the specified keys, cast to the expected type. The cast is unchecked, so a value of
+     * the wrong type only fails once it is read from the returned map. Implementations should do this in a single pass,
+     * taking any lock they have once rather than once per key.
+     *
+     * @param keys The keys to get the values of.
+     * @param <T>  The type to cast the values to.
+     * @return A map of each key which has a value to that value. Keys without a value are left out.
+     */
+    <T> Map<K, T> getAll(Collection<? extends K> keys);
+
+    /**
+     * Sets each of the keys in the given map to its associated value.
+     *
+     * @param values The keys and values to set.
+     */
+    void setAll(Map<? extends K, ? extends V> values);
+
+    /**
+     * Removes all of the specified keys and their associated values from this manager.
+     *
+     * @param keys The keys to remove.
+     */
+    void removeAll(Collection<? extends K> keys);
+
     /**
      * Removes all keys and values from this manager.
      */
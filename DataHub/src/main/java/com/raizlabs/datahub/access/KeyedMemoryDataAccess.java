@@ -115,11 +115,9 @@ public class KeyedMemoryDataAccess<Data> implements SyncDataAccess<Data> {
         }
 
         public DataAccessResult<V> getResult() {
-            if (manager.containsKey(key)) {
-                return DataAccessResult.fromResult(getValue());
-            } else {
-                return DataAccessResult.fromUnavailable();
-            }
+            // A missing key and a null value are both unavailable, so a single lookup is enough to build the result
+            // and avoids racing with writers between a containsKey and a get.
+            return DataAccessResult.fromResult(getValue());
         }
 
         public V getValue() {
@@ -12,23 +12,42 @@ import java.util.Map;
 public class MemoryKeyedDataManager<K, V> extends BaseKeyedDataManager<K, V> {
 
     //region Statics
-    private static final MemoryKeyedDataManager<Object, Object> GLOBAL_INSTANCE = new MemoryKeyedDataManager<>();
+    private static final MemoryKeyedDataManager<Object, Object> GLOBAL_INSTANCE =
+            new ConcurrentMemoryKeyedDataManager<>();
 
     /**
-     * @return The shared global static instance of a general {@link MemoryKeyedDataManager}.
+     * @return The shared global static instance of a general {@link MemoryKeyedDataManager}. This instance is a
+     * {@link ConcurrentMemoryKeyedDataManager} and may be safely accessed from any thread.
      */
     public static MemoryKeyedDataManager<Object, Object> getGlobalInstance() {
         return GLOBAL_INSTANCE;
     }
     //endregion Statics
 
-    private Map<K, V> map = new HashMap<>();
+    private final Map<K, V> map;
 
     /**
-     * Creates a new empty {@link MemoryKeyedDataManager}.
+     * Creates a new empty {@link MemoryKeyedDataManager}. This instance is not thread safe - see
+     * {@link ConcurrentMemoryKeyedDataManager} for a version which is.
      */
     public MemoryKeyedDataManager() {
+        this(new HashMap<K, V>());
+    }
+
+    /**
+     * Creates a new {@link MemoryKeyedDataManager} which stores its key/value pairs in the given map.
+     *
+     * @param map The map to store data in.
+     */
+    protected MemoryKeyedDataManager(Map<K, V> map) {
+        this.map = map;
+    }
 
+    /**
+     * @return The map which this manager stores its key/value pairs in.
+     */
+    protected Map<K, V> getMap() {
+        return map;
     }
 
     @Override
@@ -58,6 +77,11 @@ public class MemoryKeyedDataManager<K, V> extends BaseKeyedDataManager<K, V> {
         return map.remove(key);
     }
 
+    @Override
+    public void setAll(Map<? extends K, ? extends V> values) {
+        map.putAll(values);
+    }
+
     @Override
     public void clear() {
         map.clear();
@@ -0,0 +1,115 @@
+package com.raizlabs.datahub.access;
+
+import com.raizlabs.datahub.DataHubError;
+
+import java.util.concurrent.Executor;
+
+/**
+ * An {@link AsyncDataAccess} which provides access to the value stored under a particular key in a
+ * {@link PersistentKeyedDataManager}. Values are read and decoded on the manager's executor so that disk access never
+ * happens on the calling thread. Imported data is written through to the manager immediately, as writes only copy
+ * into a mapped segment.
+ * <p></p>
+ * This is intended to sit between memory and web accesses in an
+ * {@link com.raizlabs.datahub.hub.ordered.OrderedDataHub}, so that data from a previous run is available without going
+ * to the network.
+ *
+ * @param <Data> {@inheritDoc}
+ * @see PersistentKeyedDataManager#createAsyncDataAccess(Object)
+ */
+public class PersistentDataAccess<Data> implements AsyncDataAccess<Data> {
+
+    private final Object key;
+    private final int typeId;
+    private final Executor executor;
+    private final ValueAccessHelper<?, Data> valueAccessHelper;
+
+    /**
+     * Creates a {@link PersistentDataAccess} which accesses the given key from the given manager.
+     *
+     * @param key     The key to access the value of.
+     * @param manager The manager to access the data from.
+     * @param typeId  The type ID to return for this access.
+     */
+    public <K> PersistentDataAccess(K key, PersistentKeyedDataManager<K, ? super Data> manager, int typeId) {
+        this.key = key;
+        this.typeId = typeId;
+        this.executor = manager.getExecutor();
+        this.valueAccessHelper = new ValueAccessHelper<>(key, manager);
+    }
+
+    /**
+     * @return The key being used to access the data.
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    @Override
+    public void get(final AsyncDataCallback<Data> asyncDataCallback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                DataAccessResult<Data> result;
+                try {
+                    result = DataAccessResult.fromResult(valueAccessHelper.getValue());
+                } catch (RuntimeException e) {
+                    DataHubError error = DataHubError.newLightweight("Failed to read persistent data: %s",
+                            DataHubError.Types.DATA_ACCESS, e, e);
+                    result = DataAccessResult.fromError(error);
+                }
+                asyncDataCallback.onResult(result, PersistentDataAccess.this);
+            }
+        });
+    }
+
+    @Override
+    public void importData(Data data) {
+        valueAccessHelper.set(data);
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public int getTypeId() {
+        return typeId;
+    }
+
+    /**
+     * Clears the value stored for the key.
+     */
+    public void clear() {
+        valueAccessHelper.clear();
+    }
+
+    /**
+     * Helper class which helps with accessing the manager and consolidates some of the necessary generic constraints.
+     *
+     * @param <K> The type of the key.
+     * @param <V> The type of the value being accessed.
+     */
+    private static class ValueAccessHelper<K, V> {
+        private final K key;
+        private final KeyedDataManager<K, ? super V> manager;
+
+        ValueAccessHelper(K key, KeyedDataManager<K, ? super V> manager) {
+            this.key = key;
+            this.manager = manager;
+        }
+
+        V getValue() {
+            return manager.get(key);
+        }
+
+        void set(V value) {
+            manager.set(key, value);
+        }
+
+        void clear() {
+            manager.remove(key);
+        }
+    }
+}
@@ -0,0 +1,747 @@
+package com.raizlabs.datahub.access;
+
+import android.util.Log;
+
+import com.raizlabs.datahub.codec.Codec;
+import com.raizlabs.datahub.util.ThreadingUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of a {@link KeyedDataManager} which persists key/value pairs to disk so that they survive process
+ * restarts. Values are converted to bytes by a {@link Codec} and appended to segment files in the given directory,
+ * which are read through {@link MappedByteBuffer}s. An index of where the latest value for each key lives is kept in
+ * memory and rebuilt from the segments when the manager is created, so lookups never scan the files.
+ * <p></p>
+ * Segments are append only. Replacing or removing a value leaves the old record behind, and once enough of a segment
+ * is made up of such dead records, the live records are copied forward and the segment is deleted. This compaction
+ * runs in the background on the given {@link Executor}, or may be run directly through {@link #compact()}.
+ * <p></p>
+ * Writes are copies into a mapped segment and are committed to the page cache immediately, so they survive the
+ * process being killed. Call {@link #flush()} to force them to the storage device. A record which was only partially
+ * written when the process died is ignored when the segments are next loaded.
+ * <p></p>
+ * This class is safe to use from multiple threads, and reads never block on writes. Only one manager should be
+ * created for a given directory at a time. Null keys and values are not stored.
+ *
+ * @param <K> {@inheritDoc}
+ * @param <V> {@inheritDoc}
+ * @see #createAsyncDataAccess(Object) to access values off of the calling thread.
+ */
+public class PersistentKeyedDataManager<K, V> extends BaseKeyedDataManager<K, V> {
+
+    /**
+     * The default size of each segment file.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The default fraction of a segment which must be dead before it is compacted.
+     */
+    public static final float DEFAULT_COMPACTION_THRESHOLD = 0.5f;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_REMOVE = 2;
+
+    // Each record is: body length (int), type (byte), key length (int), key bytes, value bytes
+    private static final int LENGTH_SIZE = 4;
+    private static final int BODY_HEADER_SIZE = 1 + 4;
+
+    private final File directory;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final int segmentSize;
+    private final Executor executor;
+
+    private final ConcurrentMap<K, Location> index = new ConcurrentHashMap<>();
+
+    private final Object writeLock = new Object();
+    // Guarded by the write lock
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private Segment activeSegment;
+    private int nextSegmentId;
+    private float compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    private volatile boolean compactionPending;
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean(false);
+
+    /**
+     * Creates a {@link PersistentKeyedDataManager} which stores its data in the given directory, loading any data
+     * already stored there. Compaction and async accesses run on {@link ThreadingUtils#getSharedIoExecutor()}.
+     *
+     * @param directory  The directory to store data in. This is created if it doesn't exist.
+     * @param keyCodec   The {@link Codec} to use to store keys.
+     * @param valueCodec The {@link Codec} to use to store values.
+     * @throws IOException If the directory couldn't be created or the existing data couldn't be read.
+     */
+    public PersistentKeyedDataManager(File directory, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        this(directory, keyCodec, valueCodec, DEFAULT_SEGMENT_SIZE, ThreadingUtils.getSharedIoExecutor());
+    }
+
+    /**
+     * Creates a {@link PersistentKeyedDataManager} which stores its data in the given directory, loading any data
+     * already stored there.
+     *
+     * @param directory   The directory to store data in. This is created if it doesn't exist.
+     * @param keyCodec    The {@link Codec} to use to store keys.
+     * @param valueCodec  The {@link Codec} to use to store values.
+     * @param segmentSize The size of each segment file. Records larger than this get a segment of their own.
+     * @param executor    The {@link Executor} to run compaction and async accesses on.
+     * @throws IOException If the directory couldn't be created or the existing data couldn't be read.
+     */
+    public PersistentKeyedDataManager(File directory, Codec<K> keyCodec, Codec<V> valueCodec, int segmentSize,
+                                      Executor executor) throws IOException {
+        if (segmentSize <= LENGTH_SIZE + BODY_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+        }
+
+        this.directory = directory;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.segmentSize = segmentSize;
+        this.executor = executor;
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create directory " + directory);
+        }
+
+        synchronized (writeLock) {
+            load();
+        }
+        scheduleCompactionIfNeeded();
+    }
+
+    /**
+     * Sets the fraction of a segment which must be made up of replaced or removed records before it is compacted.
+     *
+     * @param threshold The fraction, between 0 and 1.
+     */
+    public void setCompactionThreshold(float threshold) {
+        synchronized (writeLock) {
+            this.compactionThreshold = threshold;
+        }
+    }
+
+    /**
+     * @return The {@link Executor} which compaction and async accesses are run on.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return The number of segment files currently in use.
+     */
+    public int getSegmentCount() {
+        synchronized (writeLock) {
+            return segments.size();
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return (key != null) && index.containsKey(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(K key) {
+        try {
+            return (T) getValue(key);
+        } catch (Exception e) {
+            // If anything goes wrong (bad casts, undecodable data, etc) just return nothing.
+            return null;
+        }
+    }
+
+    @Override
+    public void set(K key, V value) {
+        if (key == null) {
+            return;
+        }
+
+        if (value == null) {
+            remove(key);
+            return;
+        }
+
+        final int keySize = keyCodec.getEncodedSize(key);
+        final int valueSize = valueCodec.getEncodedSize(value);
+        synchronized (writeLock) {
+            try {
+                Location location = append(TYPE_PUT, key, keySize, value, valueSize);
+                applyPut(key, location);
+            } catch (IOException e) {
+                Log.e(getClass().getCanonicalName(), "Failed to write value for " + key, e);
+            }
+        }
+        scheduleCompactionIfNeeded();
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+
+        V existing = get(key);
+
+        final int keySize = keyCodec.getEncodedSize(key);
+        synchronized (writeLock) {
+            if (!index.containsKey(key)) {
+                return existing;
+            }
+
+            try {
+                Location location = append(TYPE_REMOVE, key, keySize, null, 0);
+                applyRemove(key, location);
+            } catch (IOException e) {
+                Log.e(getClass().getCanonicalName(), "Failed to remove value for " + key, e);
+            }
+        }
+        scheduleCompactionIfNeeded();
+
+        return existing;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/><br/>
+     * Values are encoded into the log under a single acquisition of the write lock.
+     */
+    @Override
+    public void setAll(Map<? extends K, ? extends V> values) {
+        // Measure everything before taking the lock, so the lock is only held while copying into the segments
+        final int count = values.size();
+        final List<K> keys = new ArrayList<>(count);
+        final List<V> puts = new ArrayList<>(count);
+        final int[] keySizes = new int[count];
+        final int[] valueSizes = new int[count];
+        int i = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : values.entrySet()) {
+            final K key = entry.getKey();
+            if (key == null) {
+                continue;
+            }
+
+            final V value = entry.getValue();
+            keys.add(key);
+            puts.add(value);
+            keySizes[i] = keyCodec.getEncodedSize(key);
+            valueSizes[i] = (value != null) ? valueCodec.getEncodedSize(value) : 0;
+            i++;
+        }
+
+        synchronized (writeLock) {
+            for (int j = 0; j < i; j++) {
+                final K key = keys.get(j);
+                final V value = puts.get(j);
+                try {
+                    if (value != null) {
+                        applyPut(key, append(TYPE_PUT, key, keySizes[j], value, valueSizes[j]));
+                    } else if (index.containsKey(key)) {
+                        applyRemove(key, append(TYPE_REMOVE, key, keySizes[j], null, 0));
+                    }
+                } catch (IOException e) {
+                    Log.e(getClass().getCanonicalName(), "Failed to write value for " + key, e);
+                }
+            }
+        }
+        scheduleCompactionIfNeeded();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/><br/>
+     * Removals are written to the log under a single acquisition of the write lock.
+     */
+    @Override
+    public void removeAll(Collection<? extends K> keys) {
+        synchronized (writeLock) {
+            for (K key : keys) {
+                if ((key == null) || !index.containsKey(key)) {
+                    continue;
+                }
+
+                try {
+                    applyRemove(key, append(TYPE_REMOVE, key, keyCodec.getEncodedSize(key), null, 0));
+                } catch (IOException e) {
+                    Log.e(getClass().getCanonicalName(), "Failed to remove value for " + key, e);
+                }
+            }
+        }
+        scheduleCompactionIfNeeded();
+    }
+
+    @Override
+    public void clear() {
+        synchronized (writeLock) {
+            index.clear();
+            for (Segment segment : segments.values()) {
+                deleteSegmentFile(segment);
+            }
+            segments.clear();
+            activeSegment = null;
+        }
+    }
+
+    /**
+     * Forces any writes which are only in the page cache to be written to the storage device.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            for (Segment segment : segments.values()) {
+                if (segment.isWritable()) {
+                    segment.buffer.force();
+                }
+            }
+        }
+    }
+
+    /**
+     * Compacts every segment which has reached the compaction threshold, copying its live records forward and
+     * deleting it. Segments are compacted one at a time, so writes are only held up for one segment at a time.
+     */
+    public void compact() {
+        final List<Segment> candidates = new ArrayList<>();
+        synchronized (writeLock) {
+            compactionPending = false;
+            for (Segment segment : segments.values()) {
+                if (isCompactable(segment)) {
+                    candidates.add(segment);
+                }
+            }
+        }
+
+        for (Segment segment : candidates) {
+            synchronized (writeLock) {
+                if (segments.get(segment.id) != segment) {
+                    continue;
+                }
+
+                try {
+                    compactSegment(segment);
+                } catch (IOException e) {
+                    Log.e(getClass().getCanonicalName(), "Failed to compact " + segment.file, e);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public <T extends V> KeyedMemoryDataAccess<T> createDataAccess(K key) {
+        return new KeyedMemoryDataAccess<>(key, this, DataAccess.AccessTypeIds.PERSISTENT_DATA);
+    }
+
+    /**
+     * Creates a {@link PersistentDataAccess} which accesses the value of the given key from this manager off of the
+     * calling thread. This access will use {@link DataAccess.AccessTypeIds#PERSISTENT_DATA} as its type id.
+     *
+     * @param key The key to access.
+     * @param <T> The expected type of the value. See {@link #get(Object)}.
+     * @return The {@link PersistentDataAccess} which accesses the value of the given key.
+     */
+    public <T extends V> PersistentDataAccess<T> createAsyncDataAccess(K key) {
+        return new PersistentDataAccess<>(key, this, DataAccess.AccessTypeIds.PERSISTENT_DATA);
+    }
+
+    /**
+     * Creates a {@link PersistentDataAccess} which accesses the value of the given key from this manager off of the
+     * calling thread.
+     *
+     * @param key    The key to access.
+     * @param typeId The type id that the access should provide.
+     * @param <T>    The expected type of the value. See {@link #get(Object)}.
+     * @return The {@link PersistentDataAccess} which accesses the value of the given key.
+     */
+    public <T extends V> PersistentDataAccess<T> createAsyncDataAccess(K key, int typeId) {
+        return new PersistentDataAccess<>(key, this, typeId);
+    }
+
+    /**
+     * Reads and decodes the value stored for the given key.
+     *
+     * @param key The key to read.
+     * @return The value, or null if there is none.
+     */
+    private V getValue(K key) {
+        if (key == null) {
+            return null;
+        }
+
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+
+        // Records are never modified once written, so this can be read without any locking
+        final int valueOffset = location.getValueOffset();
+        ByteBuffer buffer = location.segment.buffer.duplicate();
+        buffer.limit(valueOffset + location.getValueLength());
+        buffer.position(valueOffset);
+        return valueCodec.decode(buffer.slice());
+    }
+
+    //region Segments
+
+    /**
+     * Loads all existing segments and rebuilds the index from them. Must be called while holding the write lock.
+     */
+    private void load() throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("Could not list " + directory);
+        }
+
+        final List<Integer> ids = new ArrayList<>();
+        for (File file : files) {
+            final int id = parseSegmentId(file.getName());
+            if (id >= 0) {
+                ids.add(id);
+            }
+        }
+
+        final Integer[] sortedIds = ids.toArray(new Integer[ids.size()]);
+        Arrays.sort(sortedIds);
+        for (int id : sortedIds) {
+            Segment segment = openSegment(id);
+            segments.put(id, segment);
+            replay(segment);
+            nextSegmentId = id + 1;
+
+            if (segment.writePosition == 0) {
+                segments.remove(id);
+                deleteSegmentFile(segment);
+            }
+        }
+    }
+
+    /**
+     * Replays the records of the given segment into the index, stopping at the first record which isn't complete.
+     */
+    private void replay(Segment segment) {
+        final ByteBuffer buffer = segment.buffer.duplicate();
+        final int capacity = buffer.capacity();
+        int position = 0;
+
+        while (position + LENGTH_SIZE + BODY_HEADER_SIZE <= capacity) {
+            final int bodyLength = buffer.getInt(position);
+            if ((bodyLength < BODY_HEADER_SIZE) || (bodyLength > capacity - position - LENGTH_SIZE)) {
+                break;
+            }
+
+            final byte type = buffer.get(position + LENGTH_SIZE);
+            final int keyLength = buffer.getInt(position + LENGTH_SIZE + 1);
+            if ((keyLength < 0) || (keyLength > bodyLength - BODY_HEADER_SIZE) ||
+                    ((type != TYPE_PUT) && (type != TYPE_REMOVE))) {
+                break;
+            }
+
+            final K key;
+            try {
+                key = readKey(segment, position, keyLength);
+            } catch (RuntimeException e) {
+                break;
+            }
+
+            final Location location = new Location(segment, position, keyLength, bodyLength);
+            if (type == TYPE_PUT) {
+                applyPut(key, location);
+            } else {
+                applyRemove(key, location);
+            }
+
+            position += location.getRecordSize();
+        }
+
+        segment.writePosition = position;
+    }
+
+    /**
+     * Appends a record to the active segment. Must be called while holding the write lock.
+     */
+    private Location append(byte type, K key, int keySize, V value, int valueSize) throws IOException {
+        final int bodyLength = BODY_HEADER_SIZE + keySize + valueSize;
+        final Segment segment = reserve(LENGTH_SIZE + bodyLength);
+        final int offset = segment.writePosition;
+
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(offset + LENGTH_SIZE);
+        buffer.put(type);
+        buffer.putInt(keySize);
+        keyCodec.encode(key, buffer);
+        if (value != null) {
+            valueCodec.encode(value, buffer);
+        }
+
+        if (buffer.position() != offset + LENGTH_SIZE + bodyLength) {
+            throw new IllegalStateException("Codec did not write the number of bytes it reported");
+        }
+
+        return commit(segment, offset, keySize, bodyLength);
+    }
+
+    /**
+     * Copies the record at the given position of the given segment to the active segment. Must be called while
+     * holding the write lock.
+     */
+    private Location copyRecord(Segment source, Location location) throws IOException {
+        final Segment segment = reserve(location.getRecordSize());
+        final int offset = segment.writePosition;
+
+        ByteBuffer sourceBuffer = source.buffer.duplicate();
+        sourceBuffer.limit(location.offset + location.getRecordSize());
+        sourceBuffer.position(location.offset + LENGTH_SIZE);
+
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(offset + LENGTH_SIZE);
+        buffer.put(sourceBuffer);
+
+        return commit(segment, offset, location.keyLength, location.bodyLength);
+    }
+
+    /**
+     * Commits a record whose body has been written by writing its length and advancing the segment.
+     */
+    private Location commit(Segment segment, int offset, int keyLength, int bodyLength) {
+        // The length is written last so that a partially written record is never seen as complete
+        segment.buffer.putInt(offset, bodyLength);
+
+        final Location location = new Location(segment, offset, keyLength, bodyLength);
+        segment.writePosition += location.getRecordSize();
+        return location;
+    }
+
+    /**
+     * Returns a segment with room for a record of the given size, starting a new one if needed. Must be called while
+     * holding the write lock.
+     */
+    private Segment reserve(int recordSize) throws IOException {
+        if ((activeSegment == null) || (activeSegment.getRemaining() < recordSize)) {
+            final Segment previous = activeSegment;
+            activeSegment = createSegment(Math.max(segmentSize, recordSize));
+            if ((previous != null) && isCompactable(previous)) {
+                compactionPending = true;
+            }
+        }
+        return activeSegment;
+    }
+
+    private Segment createSegment(int size) throws IOException {
+        final int id = nextSegmentId++;
+        final File file = getSegmentFile(id);
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(size);
+            MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            Segment segment = new Segment(id, file, buffer, true);
+            segments.put(id, segment);
+            return segment;
+        } finally {
+            // The mapping stays valid after the file is closed
+            randomAccessFile.close();
+        }
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        final File file = getSegmentFile(id);
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Segment(id, file, buffer, false);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Copies the live records of the given segment forward and deletes it. Must be called while holding the write
+     * lock.
+     */
+    private void compactSegment(Segment segment) throws IOException {
+        // Removals only need to be kept while an older segment could still hold a value they remove
+        final boolean hasOlderSegments = segments.firstKey() < segment.id;
+        final ByteBuffer buffer = segment.buffer.duplicate();
+
+        int position = 0;
+        while (position < segment.writePosition) {
+            final int bodyLength = buffer.getInt(position);
+            final byte type = buffer.get(position + LENGTH_SIZE);
+            final int keyLength = buffer.getInt(position + LENGTH_SIZE + 1);
+            final Location location = new Location(segment, position, keyLength, bodyLength);
+            final K key = readKey(segment, position, keyLength);
+
+            if (type == TYPE_PUT) {
+                Location current = index.get(key);
+                if ((current != null) && (current.segment == segment) && (current.offset == position)) {
+                    index.put(key, copyRecord(segment, location));
+                }
+            } else if (hasOlderSegments && !index.containsKey(key)) {
+                Location copy = copyRecord(segment, location);
+                copy.segment.deadBytes += copy.getRecordSize();
+            }
+
+            position += location.getRecordSize();
+        }
+
+        segments.remove(segment.id);
+        if (activeSegment == segment) {
+            activeSegment = null;
+        }
+        deleteSegmentFile(segment);
+    }
+
+    private void applyPut(K key, Location location) {
+        markDead(index.put(key, location));
+    }
+
+    private void applyRemove(K key, Location location) {
+        markDead(index.remove(key));
+        // The removal record itself holds no data
+        markDead(location);
+    }
+
+    private void markDead(Location location) {
+        if (location != null) {
+            location.segment.deadBytes += location.getRecordSize();
+            if ((location.segment != activeSegment) && isCompactable(location.segment)) {
+                compactionPending = true;
+            }
+        }
+    }
+
+    private boolean isCompactable(Segment segment) {
+        return (segment != activeSegment) && (segment.writePosition > 0) &&
+                (segment.deadBytes >= segment.writePosition * compactionThreshold);
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        if (compactionPending && compactionScheduled.compareAndSet(false, true)) {
+            executor.execute(compactionRunnable);
+        }
+    }
+
+    private K readKey(Segment segment, int recordOffset, int keyLength) {
+        final int keyOffset = recordOffset + LENGTH_SIZE + BODY_HEADER_SIZE;
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.limit(keyOffset + keyLength);
+        buffer.position(keyOffset);
+        return keyCodec.decode(buffer.slice());
+    }
+
+    private File getSegmentFile(int id) {
+        return new File(directory, SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+    }
+
+    private static int parseSegmentId(String name) {
+        if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+            try {
+                return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private void deleteSegmentFile(Segment segment) {
+        // Readers may still be using the mapping, which stays valid after the file is deleted
+        if (!segment.file.delete()) {
+            Log.w(getClass().getCanonicalName(), "Failed to delete " + segment.file);
+        }
+    }
+
+    private final Runnable compactionRunnable = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                compact();
+            } finally {
+                compactionScheduled.set(false);
+            }
+            scheduleCompactionIfNeeded();
+        }
+    };
+
+    /**
+     * A mapped segment file.
+     */
+    private static class Segment {
+        final int id;
+        final File file;
+        final MappedByteBuffer buffer;
+        final boolean writable;
+
+        // Guarded by the write lock
+        int writePosition;
+        int deadBytes;
+
+        Segment(int id, File file, MappedByteBuffer buffer, boolean writable) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+            this.writable = writable;
+        }
+
+        boolean isWritable() {
+            return writable;
+        }
+
+        int getRemaining() {
+            return buffer.capacity() - writePosition;
+        }
+    }
+
+    /**
+     * The location of a record within a segment.
+     */
+    private static class Location {
+        final Segment segment;
+        final int offset;
+        final int keyLength;
+        final int bodyLength;
+
+        Location(Segment segment, int offset, int keyLength, int bodyLength) {
+            this.segment = segment;
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.bodyLength = bodyLength;
+        }
+
+        int getRecordSize() {
+            return LENGTH_SIZE + bodyLength;
+        }
+
+        int getValueOffset() {
+            return offset + LENGTH_SIZE + BODY_HEADER_SIZE + keyLength;
+        }
+
+        int getValueLength() {
+            return bodyLength - BODY_HEADER_SIZE - keyLength;
+        }
+    }
+    //endregion Segments
+}
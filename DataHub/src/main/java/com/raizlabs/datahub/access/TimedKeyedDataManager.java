@@ -0,0 +1,269 @@
+package com.raizlabs.datahub.access;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of a {@link KeyedDataManager} that keeps key/value pairs in memory along with the time they were
+ * written, and reports their freshness. Values younger than the time to live are fresh. Older values are still
+ * returned, but marked as stale (see {@link DataAccessResult#isStale()}) until they exceed the maximum stale age, at
+ * which point they are treated as missing and removed.
+ * <p></p>
+ * Accesses created through {@link #createDataAccess(Object)} report stale values, so that they can be paired with
+ * {@link com.raizlabs.datahub.hub.ordered.FetchStrategies.Serial.Finalizers#newFreshData()} to skip slower accesses
+ * while the data is fresh, and to serve stale data immediately while the slower accesses revalidate it.
+ * <p></p>
+ * This class is safe to use from multiple threads. Null keys and values are not stored.
+ *
+ * @param <K> {@inheritDoc}
+ * @param <V> {@inheritDoc}
+ * @see #getCurrentTimeMillis() - Override to change the clock used for ages.
+ */
+public class TimedKeyedDataManager<K, V> extends BaseKeyedDataManager<K, V> {
+
+    private final ConcurrentMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final long timeToLiveMillis;
+    private final long maxStaleMillis;
+
+    /**
+     * Creates a new {@link TimedKeyedDataManager} whose values are fresh for the given time and are never served
+     * once they become stale.
+     *
+     * @param timeToLive The amount of time values are fresh for after being written.
+     * @param unit       The unit of the given time.
+     */
+    public TimedKeyedDataManager(long timeToLive, TimeUnit unit) {
+        this(timeToLive, 0, unit);
+    }
+
+    /**
+     * Creates a new {@link TimedKeyedDataManager} with the given freshness parameters.
+     *
+     * @param timeToLive The amount of time values are fresh for after being written.
+     * @param maxStale   The additional amount of time stale values may still be served for after they stop being
+     *                   fresh, or {@link Long#MAX_VALUE} to serve stale values until they are replaced.
+     * @param unit       The unit of the given times.
+     */
+    public TimedKeyedDataManager(long timeToLive, long maxStale, TimeUnit unit) {
+        this.timeToLiveMillis = unit.toMillis(timeToLive);
+        this.maxStaleMillis = (maxStale == Long.MAX_VALUE) ? Long.MAX_VALUE : unit.toMillis(maxStale);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return getEntry(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(K key) {
+        Entry<V> entry = getEntry(key);
+        if (entry == null) {
+            return null;
+        }
+
+        try {
+            return (T) entry.value;
+        } catch (Exception e) {
+            // If anything goes wrong (bad casts, nulls, etc) just return nothing.
+            return null;
+        }
+    }
+
+    /**
+     * Returns the value at the specified key as a {@link DataAccessResult} which reports whether the value is stale.
+     *
+     * @param key The key to get the value of.
+     * @param <T> The type to cast the value to.
+     * @return The result for the given key, which will be unavailable if there is no value or it has expired.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> DataAccessResult<T> getResult(K key) {
+        final long now = getCurrentTimeMillis();
+        Entry<V> entry = getEntry(key, now);
+        if (entry == null) {
+            return DataAccessResult.fromUnavailable();
+        } else if (entry.isFresh(now, timeToLiveMillis)) {
+            return DataAccessResult.fromResult((T) entry.value);
+        } else {
+            return DataAccessResult.fromStaleResult((T) entry.value);
+        }
+    }
+
+    /**
+     * Returns whether the value at the given key exists and is fresh.
+     *
+     * @param key The key to check.
+     * @return True if the value exists and is fresh, false if it is missing, expired or stale.
+     */
+    public boolean isFresh(K key) {
+        final long now = getCurrentTimeMillis();
+        Entry<V> entry = getEntry(key, now);
+        return (entry != null) && entry.isFresh(now, timeToLiveMillis);
+    }
+
+    @Override
+    public void set(K key, V value) {
+        if (key == null) {
+            return;
+        }
+
+        if (value == null) {
+            map.remove(key);
+        } else {
+            map.put(key, new Entry<>(value, getCurrentTimeMillis()));
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+
+        Entry<V> entry = map.remove(key);
+        return (entry != null) ? entry.value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Map<K, T> getAll(Collection<? extends K> keys) {
+        // Age every value against the same clock reading
+        final long now = getCurrentTimeMillis();
+        final Map<K, T> values = new HashMap<>(keys.size() * 2);
+        for (K key : keys) {
+            Entry<V> entry = getEntry(key, now);
+            if (entry != null) {
+                values.put(key, (T) entry.value);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void setAll(Map<? extends K, ? extends V> values) {
+        // Every value in the batch is written at the same time
+        final long now = getCurrentTimeMillis();
+        for (Map.Entry<? extends K, ? extends V> mapEntry : values.entrySet()) {
+            final K key = mapEntry.getKey();
+            final V value = mapEntry.getValue();
+            if (key == null) {
+                continue;
+            }
+
+            if (value == null) {
+                map.remove(key);
+            } else {
+                map.put(key, new Entry<V>(value, now));
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    /**
+     * Removes all values which have expired past their maximum stale age. Expired values are also removed lazily when
+     * they are accessed, so this only needs to be called to reclaim memory from values which are no longer read.
+     */
+    public void purgeExpired() {
+        final long now = getCurrentTimeMillis();
+        for (Map.Entry<K, Entry<V>> mapEntry : map.entrySet()) {
+            if (mapEntry.getValue().isExpired(now, timeToLiveMillis, maxStaleMillis)) {
+                map.remove(mapEntry.getKey(), mapEntry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public <T extends V> KeyedMemoryDataAccess<T> createDataAccess(K key) {
+        return new TimedDataAccess<>(key, this, DataAccess.AccessTypeIds.MEMORY_DATA);
+    }
+
+    @Override
+    public <T extends V> KeyedMemoryDataAccess<T> createDataAccess(K key, int typeId) {
+        return new TimedDataAccess<>(key, this, typeId);
+    }
+
+    /**
+     * Called to obtain the current time which value ages are measured against. By default this uses
+     * {@link System#currentTimeMillis()}.
+     *
+     * @return The current time in milliseconds.
+     */
+    protected long getCurrentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private Entry<V> getEntry(K key) {
+        return getEntry(key, getCurrentTimeMillis());
+    }
+
+    private Entry<V> getEntry(K key, long now) {
+        if (key == null) {
+            return null;
+        }
+
+        Entry<V> entry = map.get(key);
+        if ((entry != null) && entry.isExpired(now, timeToLiveMillis, maxStaleMillis)) {
+            map.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * A stored value and the time it was written.
+     *
+     * @param <V> The type of the value.
+     */
+    private static class Entry<V> {
+        final V value;
+        final long writeTimeMillis;
+
+        Entry(V value, long writeTimeMillis) {
+            this.value = value;
+            this.writeTimeMillis = writeTimeMillis;
+        }
+
+        boolean isFresh(long now, long timeToLiveMillis) {
+            return (now - writeTimeMillis) < timeToLiveMillis;
+        }
+
+        boolean isExpired(long now, long timeToLiveMillis, long maxStaleMillis) {
+            if (maxStaleMillis == Long.MAX_VALUE) {
+                return false;
+            }
+            return (now - writeTimeMillis) >= (timeToLiveMillis + maxStaleMillis);
+        }
+    }
+
+    /**
+     * {@link KeyedMemoryDataAccess} which reports the freshness of the values it returns.
+     *
+     * @param <K> The type of the key.
+     * @param <T> The type of data being accessed.
+     */
+    private static class TimedDataAccess<K, T> extends KeyedMemoryDataAccess<T> {
+
+        private final K key;
+        private final TimedKeyedDataManager<K, ? super T> manager;
+
+        TimedDataAccess(K key, TimedKeyedDataManager<K, ? super T> manager, int typeId) {
+            super(key, manager, typeId);
+            this.key = key;
+            this.manager = manager;
+        }
+
+        @Override
+        public DataAccessResult<T> get() {
+            return manager.getResult(key);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.raizlabs.datahub.codec;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A pool of reusable {@link ByteBuffer}s for encoding values with a {@link Codec}, so that encoding doesn't need to
+ * allocate a new buffer every time. Buffers are pooled by capacity in powers of two, and requests larger than the
+ * maximum pooled size are allocated and not pooled.
+ * <p></p>
+ * This class is safe to use from multiple threads. A buffer must not be used after it has been released.
+ */
+public class BufferPool {
+
+    /**
+     * The default largest buffer capacity which will be pooled.
+     */
+    public static final int DEFAULT_MAX_POOLED_SIZE = 64 * 1024;
+
+    /**
+     * The default maximum number of buffers of each capacity which will be kept.
+     */
+    public static final int DEFAULT_MAX_BUFFERS_PER_SIZE = 8;
+
+    private static final int MIN_SIZE_SHIFT = 8;
+
+    private static final BufferPool SHARED = new BufferPool(DEFAULT_MAX_POOLED_SIZE, DEFAULT_MAX_BUFFERS_PER_SIZE);
+
+    /**
+     * @return A shared {@link BufferPool} with the default limits.
+     */
+    public static BufferPool getShared() {
+        return SHARED;
+    }
+
+    private final int maxPooledSize;
+    private final int maxBuffersPerSize;
+    private final ConcurrentLinkedQueue<ByteBuffer>[] buckets;
+    private final AtomicIntegerArray bucketCounts;
+
+    /**
+     * Creates a {@link BufferPool} with the given limits.
+     *
+     * @param maxPooledSize     The largest buffer capacity which will be pooled.
+     * @param maxBuffersPerSize The maximum number of buffers of each capacity which will be kept.
+     */
+    public BufferPool(int maxPooledSize, int maxBuffersPerSize) {
+        this.maxPooledSize = roundUp(maxPooledSize);
+        this.maxBuffersPerSize = maxBuffersPerSize;
+
+        final int bucketCount = getBucket(this.maxPooledSize) + 1;
+        this.buckets = newBuckets(bucketCount);
+        this.bucketCounts = new AtomicIntegerArray(bucketCount);
+    }
+
+    /**
+     * Creates the given number of empty buckets.
+     */
+    private static ConcurrentLinkedQueue<ByteBuffer>[] newBuckets(int count) {
+        // Generic arrays can't be created directly, but every element is set to the right type here
+        @SuppressWarnings("unchecked")
+        final ConcurrentLinkedQueue<ByteBuffer>[] buckets =
+                (ConcurrentLinkedQueue<ByteBuffer>[]) new ConcurrentLinkedQueue<?>[count];
+        for (int i = 0; i < count; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        return buckets;
+    }
+
+    /**
+     * Obtains a cleared buffer with at least the given capacity. The buffer should be given back through
+     * {@link #release(ByteBuffer)} once it is no longer needed.
+     *
+     * @param minCapacity The minimum capacity of the buffer.
+     * @return A buffer with at least the given capacity.
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        final int capacity = roundUp(minCapacity);
+        if (capacity > maxPooledSize) {
+            return ByteBuffer.allocate(minCapacity);
+        }
+
+        final int bucket = getBucket(capacity);
+        ByteBuffer buffer = buckets[bucket].poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(capacity);
+        }
+
+        bucketCounts.decrementAndGet(bucket);
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Gives a buffer obtained from {@link #acquire(int)} back to the pool so that it may be reused.
+     *
+     * @param buffer The buffer to release.
+     */
+    public void release(ByteBuffer buffer) {
+        final int capacity = buffer.capacity();
+        if ((capacity > maxPooledSize) || (capacity != roundUp(capacity)) || buffer.isReadOnly()) {
+            return;
+        }
+
+        final int bucket = getBucket(capacity);
+        if (bucketCounts.incrementAndGet(bucket) <= maxBuffersPerSize) {
+            buckets[bucket].offer(buffer);
+        } else {
+            bucketCounts.decrementAndGet(bucket);
+        }
+    }
+
+    private static int roundUp(int size) {
+        int capacity = 1 << MIN_SIZE_SHIFT;
+        while ((capacity < size) && (capacity > 0)) {
+            capacity <<= 1;
+        }
+        return (capacity > 0) ? capacity : Integer.MAX_VALUE;
+    }
+
+    private static int getBucket(int capacity) {
+        return (31 - Integer.numberOfLeadingZeros(capacity)) - MIN_SIZE_SHIFT;
+    }
+}
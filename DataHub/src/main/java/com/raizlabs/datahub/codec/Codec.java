@@ -0,0 +1,42 @@
+package com.raizlabs.datahub.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Codec} defines how values are converted to and from bytes so that they may be stored outside of memory,
+ * such as on disk. Values are encoded directly into and decoded directly out of {@link ByteBuffer}s, which may be
+ * memory mapped, so that no intermediate copies are needed.
+ * <p></p>
+ * Implementations must be thread safe, and should be stateless where possible.
+ *
+ * @param <T> The type of value being encoded.
+ */
+public interface Codec<T> {
+
+    /**
+     * Returns the exact number of bytes that {@link #encode(Object, ByteBuffer)} will write for the given value.
+     *
+     * @param value The value to measure.
+     * @return The number of bytes the encoded value takes up.
+     */
+    int getEncodedSize(T value);
+
+    /**
+     * Encodes the given value into the buffer at its current position, advancing the position by exactly
+     * {@link #getEncodedSize(Object)} bytes.
+     *
+     * @param value  The value to encode.
+     * @param buffer The buffer to write to, which has at least {@link #getEncodedSize(Object)} bytes remaining.
+     */
+    void encode(T value, ByteBuffer buffer);
+
+    /**
+     * Decodes a value from the buffer at its current position, advancing the position past the encoded value.
+     *
+     * @param buffer The buffer to read from.
+     * @return The decoded value.
+     * @throws RuntimeException If the buffer doesn't contain a valid encoded value, such as a
+     *                          {@link java.nio.BufferUnderflowException}.
+     */
+    T decode(ByteBuffer buffer);
+}
@@ -0,0 +1,620 @@
+package com.raizlabs.datahub.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class of provided {@link Codec} implementations and helpers for using them. Values are written directly with the
+ * {@link ByteBuffer} primitive accessors, without reflection or Java serialization. The primitive array codecs copy
+ * arrays in bulk and never box their elements, so they should be preferred over lists of boxed primitives for large
+ * payloads.
+ */
+public class Codecs {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    //region Helpers
+
+    /**
+     * Encodes the given value into a new array of exactly the needed size.
+     *
+     * @param codec The {@link Codec} to encode with.
+     * @param value The value to encode.
+     * @param <T>   The type of value being encoded.
+     * @return The encoded bytes.
+     */
+    public static <T> byte[] toBytes(Codec<T> codec, T value) {
+        final byte[] bytes = new byte[codec.getEncodedSize(value)];
+        codec.encode(value, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Decodes a value from the given bytes.
+     *
+     * @param codec The {@link Codec} to decode with.
+     * @param bytes The encoded bytes.
+     * @param <T>   The type of value being decoded.
+     * @return The decoded value.
+     */
+    public static <T> T fromBytes(Codec<T> codec, byte[] bytes) {
+        return codec.decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Encodes the given value into a buffer from the given pool. The returned buffer is flipped so that it is ready to
+     * be read or written to a channel, and should be given back to the pool once it has been consumed.
+     *
+     * @param codec The {@link Codec} to encode with.
+     * @param value The value to encode.
+     * @param pool  The pool to obtain the buffer from.
+     * @param <T>   The type of value being encoded.
+     * @return A pooled buffer containing the encoded value.
+     * @see BufferPool#release(ByteBuffer)
+     */
+    public static <T> ByteBuffer encode(Codec<T> codec, T value, BufferPool pool) {
+        final ByteBuffer buffer = pool.acquire(codec.getEncodedSize(value));
+        codec.encode(value, buffer);
+        buffer.flip();
+        return buffer;
+    }
+    //endregion Helpers
+
+    //region Primitives
+
+    private static final Codec<Boolean> BOOLEAN = new Codec<Boolean>() {
+        @Override
+        public int getEncodedSize(Boolean value) {
+            return 1;
+        }
+
+        @Override
+        public void encode(Boolean value, ByteBuffer buffer) {
+            buffer.put(value ? (byte) 1 : (byte) 0);
+        }
+
+        @Override
+        public Boolean decode(ByteBuffer buffer) {
+            return buffer.get() != 0;
+        }
+    };
+
+    private static final Codec<Byte> BYTE = new Codec<Byte>() {
+        @Override
+        public int getEncodedSize(Byte value) {
+            return 1;
+        }
+
+        @Override
+        public void encode(Byte value, ByteBuffer buffer) {
+            buffer.put(value);
+        }
+
+        @Override
+        public Byte decode(ByteBuffer buffer) {
+            return buffer.get();
+        }
+    };
+
+    private static final Codec<Short> SHORT = new Codec<Short>() {
+        @Override
+        public int getEncodedSize(Short value) {
+            return 2;
+        }
+
+        @Override
+        public void encode(Short value, ByteBuffer buffer) {
+            buffer.putShort(value);
+        }
+
+        @Override
+        public Short decode(ByteBuffer buffer) {
+            return buffer.getShort();
+        }
+    };
+
+    private static final Codec<Character> CHARACTER = new Codec<Character>() {
+        @Override
+        public int getEncodedSize(Character value) {
+            return 2;
+        }
+
+        @Override
+        public void encode(Character value, ByteBuffer buffer) {
+            buffer.putChar(value);
+        }
+
+        @Override
+        public Character decode(ByteBuffer buffer) {
+            return buffer.getChar();
+        }
+    };
+
+    private static final Codec<Integer> INTEGER = new Codec<Integer>() {
+        @Override
+        public int getEncodedSize(Integer value) {
+            return 4;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer buffer) {
+            buffer.putInt(value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    private static final Codec<Long> LONG = new Codec<Long>() {
+        @Override
+        public int getEncodedSize(Long value) {
+            return 8;
+        }
+
+        @Override
+        public void encode(Long value, ByteBuffer buffer) {
+            buffer.putLong(value);
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    };
+
+    private static final Codec<Float> FLOAT = new Codec<Float>() {
+        @Override
+        public int getEncodedSize(Float value) {
+            return 4;
+        }
+
+        @Override
+        public void encode(Float value, ByteBuffer buffer) {
+            buffer.putFloat(value);
+        }
+
+        @Override
+        public Float decode(ByteBuffer buffer) {
+            return buffer.getFloat();
+        }
+    };
+
+    private static final Codec<Double> DOUBLE = new Codec<Double>() {
+        @Override
+        public int getEncodedSize(Double value) {
+            return 8;
+        }
+
+        @Override
+        public void encode(Double value, ByteBuffer buffer) {
+            buffer.putDouble(value);
+        }
+
+        @Override
+        public Double decode(ByteBuffer buffer) {
+            return buffer.getDouble();
+        }
+    };
+
+    /**
+     * @return A {@link Codec} which encodes {@link Boolean}s as a single byte.
+     */
+    public static Codec<Boolean> booleans() {
+        return BOOLEAN;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes {@link Byte}s as a single byte.
+     */
+    public static Codec<Byte> bytes() {
+        return BYTE;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes {@link Short}s as two bytes.
+     */
+    public static Codec<Short> shorts() {
+        return SHORT;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes {@link Character}s as two bytes.
+     */
+    public static Codec<Character> characters() {
+        return CHARACTER;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes {@link Integer}s as four bytes.
+     */
+    public static Codec<Integer> integers() {
+        return INTEGER;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes {@link Long}s as eight bytes.
+     */
+    public static Codec<Long> longs() {
+        return LONG;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes {@link Float}s as four bytes.
+     */
+    public static Codec<Float> floats() {
+        return FLOAT;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes {@link Double}s as eight bytes.
+     */
+    public static Codec<Double> doubles() {
+        return DOUBLE;
+    }
+    //endregion Primitives
+
+    //region Arrays
+
+    private static final Codec<byte[]> BYTE_ARRAY = new Codec<byte[]>() {
+        @Override
+        public int getEncodedSize(byte[] value) {
+            return 4 + value.length;
+        }
+
+        @Override
+        public void encode(byte[] value, ByteBuffer buffer) {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+
+        @Override
+        public byte[] decode(ByteBuffer buffer) {
+            final byte[] value = new byte[readLength(buffer, 1)];
+            buffer.get(value);
+            return value;
+        }
+    };
+
+    private static final Codec<int[]> INT_ARRAY = new Codec<int[]>() {
+        @Override
+        public int getEncodedSize(int[] value) {
+            return 4 + value.length * 4;
+        }
+
+        @Override
+        public void encode(int[] value, ByteBuffer buffer) {
+            buffer.putInt(value.length);
+            buffer.asIntBuffer().put(value);
+            buffer.position(buffer.position() + value.length * 4);
+        }
+
+        @Override
+        public int[] decode(ByteBuffer buffer) {
+            final int[] value = new int[readLength(buffer, 4)];
+            buffer.asIntBuffer().get(value);
+            buffer.position(buffer.position() + value.length * 4);
+            return value;
+        }
+    };
+
+    private static final Codec<long[]> LONG_ARRAY = new Codec<long[]>() {
+        @Override
+        public int getEncodedSize(long[] value) {
+            return 4 + value.length * 8;
+        }
+
+        @Override
+        public void encode(long[] value, ByteBuffer buffer) {
+            buffer.putInt(value.length);
+            buffer.asLongBuffer().put(value);
+            buffer.position(buffer.position() + value.length * 8);
+        }
+
+        @Override
+        public long[] decode(ByteBuffer buffer) {
+            final long[] value = new long[readLength(buffer, 8)];
+            buffer.asLongBuffer().get(value);
+            buffer.position(buffer.position() + value.length * 8);
+            return value;
+        }
+    };
+
+    private static final Codec<double[]> DOUBLE_ARRAY = new Codec<double[]>() {
+        @Override
+        public int getEncodedSize(double[] value) {
+            return 4 + value.length * 8;
+        }
+
+        @Override
+        public void encode(double[] value, ByteBuffer buffer) {
+            buffer.putInt(value.length);
+            buffer.asDoubleBuffer().put(value);
+            buffer.position(buffer.position() + value.length * 8);
+        }
+
+        @Override
+        public double[] decode(ByteBuffer buffer) {
+            final double[] value = new double[readLength(buffer, 8)];
+            buffer.asDoubleBuffer().get(value);
+            buffer.position(buffer.position() + value.length * 8);
+            return value;
+        }
+    };
+
+    /**
+     * @return A {@link Codec} which encodes byte arrays as their length followed by their contents.
+     */
+    public static Codec<byte[]> byteArray() {
+        return BYTE_ARRAY;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes int arrays as their length followed by their contents, without boxing.
+     */
+    public static Codec<int[]> intArray() {
+        return INT_ARRAY;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes long arrays as their length followed by their contents, without boxing.
+     */
+    public static Codec<long[]> longArray() {
+        return LONG_ARRAY;
+    }
+
+    /**
+     * @return A {@link Codec} which encodes double arrays as their length followed by their contents, without boxing.
+     */
+    public static Codec<double[]> doubleArray() {
+        return DOUBLE_ARRAY;
+    }
+    //endregion Arrays
+
+    //region Strings
+
+    private static final Codec<String> STRING = new Codec<String>() {
+        @Override
+        public int getEncodedSize(String value) {
+            return 4 + getUtf8Length(value);
+        }
+
+        @Override
+        public void encode(String value, ByteBuffer buffer) {
+            buffer.putInt(getUtf8Length(value));
+            putUtf8(value, buffer);
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            final int length = readLength(buffer, 1);
+
+            final String value;
+            if (buffer.hasArray()) {
+                value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                value = new String(bytes, UTF_8);
+            }
+            return value;
+        }
+    };
+
+    /**
+     * @return A {@link Codec} which encodes {@link String}s as their length followed by their UTF-8 bytes.
+     */
+    public static Codec<String> string() {
+        return STRING;
+    }
+    //endregion Strings
+
+    //region Collections
+
+    /**
+     * Creates a {@link Codec} which encodes lists as their size followed by each element. Lists are decoded as
+     * {@link ArrayList}s.
+     *
+     * @param elementCodec The {@link Codec} to use for each element. Wrap it with {@link #nullable(Codec)} if the
+     *                     list may contain nulls.
+     * @param <E>          The type of the elements.
+     * @return The created {@link Codec}.
+     */
+    public static <E> Codec<List<E>> list(final Codec<E> elementCodec) {
+        return new Codec<List<E>>() {
+            @Override
+            public int getEncodedSize(List<E> value) {
+                int size = 4;
+                for (E element : value) {
+                    size += elementCodec.getEncodedSize(element);
+                }
+                return size;
+            }
+
+            @Override
+            public void encode(List<E> value, ByteBuffer buffer) {
+                buffer.putInt(value.size());
+                for (E element : value) {
+                    elementCodec.encode(element, buffer);
+                }
+            }
+
+            @Override
+            public List<E> decode(ByteBuffer buffer) {
+                final int size = readLength(buffer, 0);
+                final List<E> value = new ArrayList<>(Math.min(size, buffer.remaining()));
+                for (int i = 0; i < size; i++) {
+                    value.add(elementCodec.decode(buffer));
+                }
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link Codec} which encodes maps as their size followed by each key and value. Maps are decoded as
+     * {@link LinkedHashMap}s, so their iteration order is preserved.
+     *
+     * @param keyCodec   The {@link Codec} to use for each key.
+     * @param valueCodec The {@link Codec} to use for each value. Wrap it with {@link #nullable(Codec)} if the map may
+     *                   contain null values.
+     * @param <K>        The type of the keys.
+     * @param <V>        The type of the values.
+     * @return The created {@link Codec}.
+     */
+    public static <K, V> Codec<Map<K, V>> map(final Codec<K> keyCodec, final Codec<V> valueCodec) {
+        return new Codec<Map<K, V>>() {
+            @Override
+            public int getEncodedSize(Map<K, V> value) {
+                int size = 4;
+                for (Map.Entry<K, V> entry : value.entrySet()) {
+                    size += keyCodec.getEncodedSize(entry.getKey());
+                    size += valueCodec.getEncodedSize(entry.getValue());
+                }
+                return size;
+            }
+
+            @Override
+            public void encode(Map<K, V> value, ByteBuffer buffer) {
+                buffer.putInt(value.size());
+                for (Map.Entry<K, V> entry : value.entrySet()) {
+                    keyCodec.encode(entry.getKey(), buffer);
+                    valueCodec.encode(entry.getValue(), buffer);
+                }
+            }
+
+            @Override
+            public Map<K, V> decode(ByteBuffer buffer) {
+                final int size = readLength(buffer, 0);
+                // Size the map so that it never needs to grow while decoding
+                final Map<K, V> value = new LinkedHashMap<>((int) (Math.min(size, buffer.remaining()) / 0.75f) + 1);
+                for (int i = 0; i < size; i++) {
+                    final K key = keyCodec.decode(buffer);
+                    value.put(key, valueCodec.decode(buffer));
+                }
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link Codec} which supports null values by prefixing each value with a single byte flag.
+     *
+     * @param codec The {@link Codec} to use for non null values.
+     * @param <T>   The type of value being encoded.
+     * @return The created {@link Codec}.
+     */
+    public static <T> Codec<T> nullable(final Codec<T> codec) {
+        return new Codec<T>() {
+            @Override
+            public int getEncodedSize(T value) {
+                return (value == null) ? 1 : 1 + codec.getEncodedSize(value);
+            }
+
+            @Override
+            public void encode(T value, ByteBuffer buffer) {
+                if (value == null) {
+                    buffer.put((byte) 0);
+                } else {
+                    buffer.put((byte) 1);
+                    codec.encode(value, buffer);
+                }
+            }
+
+            @Override
+            public T decode(ByteBuffer buffer) {
+                return (buffer.get() == 0) ? null : codec.decode(buffer);
+            }
+        };
+    }
+    //endregion Collections
+
+    /**
+     * Reads a length prefix and validates it against the remaining bytes so that corrupt data can't cause huge
+     * allocations.
+     *
+     * @param buffer      The buffer to read from.
+     * @param elementSize The minimum number of bytes each element takes up.
+     * @return The length.
+     */
+    private static int readLength(ByteBuffer buffer, int elementSize) {
+        final int length = buffer.getInt();
+        if ((length < 0) || ((long) length * elementSize > buffer.remaining())) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+
+    /**
+     * Returns the number of bytes the given string takes up when encoded as UTF-8, without encoding it.
+     *
+     * @param value The string to measure.
+     * @return The length of the UTF-8 encoding of the string.
+     */
+    static int getUtf8Length(String value) {
+        final int length = value.length();
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && (i + 1 < length) &&
+                    Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (isSurrogate(c)) {
+                // Unpaired surrogates are replaced with '?', as String.getBytes does
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the UTF-8 encoding of the given string directly into the buffer.
+     *
+     * @param value  The string to write.
+     * @param buffer The buffer to write to.
+     */
+    static void putUtf8(String value, ByteBuffer buffer) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && (i + 1 < length) &&
+                    Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static boolean isSurrogate(char c) {
+        // Character.isSurrogate isn't available until API 19
+        return (c >= Character.MIN_SURROGATE) && (c <= Character.MAX_SURROGATE);
+    }
+}
@@ -5,10 +5,21 @@ import android.os.Handler;
 import com.raizlabs.datahub.DataHubError;
 import com.raizlabs.datahub.access.DataAccess;
 import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.metrics.DataHubEvents;
+import com.raizlabs.datahub.metrics.FetchEventLog;
+import com.raizlabs.datahub.metrics.FetchMetricsListener;
+import com.raizlabs.datahub.tracing.FetchTracer;
+import com.raizlabs.datahub.tracing.Span;
 import com.raizlabs.datahub.util.Delegate;
 import com.raizlabs.datahub.util.MappableSet;
+import com.raizlabs.datahub.util.MpscQueue;
+import com.raizlabs.datahub.util.SnapshotArraySet;
 import com.raizlabs.datahub.util.ThreadingUtils;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * A {@link DataHub} defines a central point to obtain a single piece of data. An individual hub is possibly backed by
  * a set of distinct {@link DataAccess}es as sources of data. It is the hub's job to query all available sources and
@@ -16,28 +27,106 @@ import com.raizlabs.datahub.util.ThreadingUtils;
  * <p></p>
  * Each {@link DataAccess} contained in a {@link DataHub} must return unique type IDs via
  * {@link DataAccess#getTypeId()}, but these may be shared by a {@link DataAccess}es in different {@link DataHub}s.
+ * <p></p>
+ * Each fetch which is started is given a new, increasing generation which is carried by its results. What happens
+ * when a fetch is requested while another is running is decided by the {@link FetchPolicy}.
+ * <p></p>
+ * The lifecycle state (see {@link DataHubState}) and the current generation are held together in a single atomic
+ * word, so they can be read and advanced without a lock. Results and fetch events are passed through a lock-free
+ * queue and dispatched by whichever thread is draining it, so access callbacks never wait on each other or on
+ * listeners. The state lock is only held while starting fetches, importing and closing, and listeners are never called
+ * while it is held.
+ * <p></p>
+ * The timing and outcome of fetches and their accesses may be observed through
+ * {@link #addFetchMetricsListener(FetchMetricsListener)}, and sampled fetches may be traced through
+ * {@link #setFetchTracer(FetchTracer)}. Fetch starts, finishes and result dispatches are always recorded in the
+ * {@link FetchEventLog#getGlobalInstance()}.
  *
  * @param <Data> The type of data being accessed.
  */
 public abstract class DataHub<Data> {
 
     private static final DataHubError ERROR_CLOSED =
-            new DataHubError("Could not access data because the DataHub is closed", DataHubError.Types.INVALID_STATE);
+            DataHubError.newLightweight("Could not access data because the DataHub is closed",
+                    DataHubError.Types.INVALID_STATE, null);
+
+    // The state word packs the fetch generation above the two state bits
+    private static final int STATE_BITS = 2;
+    private static final long STATE_MASK = (1 << STATE_BITS) - 1;
+    private static final long STATE_IDLE = 0;
+    private static final long STATE_FETCHING = 1;
+    private static final long STATE_CLOSED = 2;
+
+    private static final AtomicLong ID_COUNTER = new AtomicLong();
+    private static final FetchEventLog EVENT_LOG = FetchEventLog.getGlobalInstance();
 
     //region Members
+    private final long id = ID_COUNTER.incrementAndGet();
     private MappableSet<DataHubListener<Data>> listeners = new MappableSet<>();
-    private boolean isClosed;
+    private final AtomicLong stateWord = new AtomicLong(packState(DataHubResult.NO_GENERATION, STATE_IDLE));
+
+    private final MpscQueue<Runnable> events = new MpscQueue<>();
+    private final AtomicInteger eventDrainCount = new AtomicInteger();
+
+    private volatile FetchPolicy fetchPolicy = FetchPolicy.JOIN;
+    private boolean isStartingFetch;
+    private volatile boolean isFetchQueued;
+    private boolean isQueuedFetchLimited;
+    private int queuedFetchLimitId;
 
-    private Handler processingHandler;
+    private volatile Handler processingHandler;
+    private volatile Executor processingExecutor;
+
+    private final SnapshotArraySet<FetchMetricsListener> fetchMetricsListeners = new SnapshotArraySet<>();
+    private volatile long fetchStartNanos;
+    private volatile Object fetchEventToken;
+    private volatile FetchTracer fetchTracer;
     //endregion Members
 
     //region Accessors
 
+    /**
+     * @return An ID which is unique to this {@link DataHub} within the process, for identifying it in metrics and
+     * traces.
+     */
+    public long getId() {
+        return id;
+    }
+
     /**
      * @return True if this {@link DataHub} is closed.
      */
     public boolean isClosed() {
-        return isClosed;
+        return getStateBits(stateWord.get()) == STATE_CLOSED;
+    }
+
+    /**
+     * @return The current lifecycle state of this {@link DataHub}.
+     */
+    public DataHubState getState() {
+        final long state = getStateBits(stateWord.get());
+        if (state == STATE_CLOSED) {
+            return DataHubState.CLOSED;
+        } else if (state == STATE_FETCHING) {
+            return DataHubState.FETCHING;
+        } else {
+            return DataHubState.IDLE;
+        }
+    }
+
+    /**
+     * @return The generation of the most recently started fetch, or {@link DataHubResult#NO_GENERATION} if no fetch
+     * has been started.
+     */
+    public long getFetchGeneration() {
+        return getGeneration(stateWord.get());
+    }
+
+    /**
+     * @return The policy which decides what happens when a fetch is requested while another is running.
+     */
+    public FetchPolicy getFetchPolicy() {
+        return fetchPolicy;
     }
     //endregion Accessors
 
@@ -87,6 +176,17 @@ public abstract class DataHub<Data> {
      * @return True if data is currently being fetched.
      */
     public abstract boolean isFetching();
+
+    /**
+     * Called to cancel the running fetch so that it may be superseded by a new one. Any results which the cancelled
+     * fetch produces afterwards should be discarded. By default this does nothing, in which case a superseding fetch
+     * joins the running fetch instead.
+     *
+     * @see FetchPolicy#SUPERSEDE
+     */
+    protected void doCancelFetch() {
+
+    }
     //endregion Abstract Methods
 
     //region Instance Methods
@@ -109,14 +209,7 @@ public abstract class DataHub<Data> {
      * Starts retrieving an up to date result asynchronously from all sources.
      */
     public void fetch() {
-        synchronized (getStateLock()) {
-            if (isClosed()) {
-                processClosedError();
-            } else if (!isFetching()) {
-                onFetchStarted();
-                doFetch();
-            }
-        }
+        requestFetch(false, 0);
     }
 
     /**
@@ -126,14 +219,7 @@ public abstract class DataHub<Data> {
      * @param limitId The upper limit or bound of sources to query.
      */
     public void fetch(int limitId) {
-        synchronized (getStateLock()) {
-            if (isClosed()) {
-                processClosedError();
-            } else if (!isFetching()) {
-                onFetchStarted();
-                doFetch(limitId);
-            }
-        }
+        requestFetch(true, limitId);
     }
 
     /**
@@ -147,6 +233,7 @@ public abstract class DataHub<Data> {
         synchronized (getStateLock()) {
             doImportData(data);
         }
+        drainEvents();
     }
 
     /**
@@ -154,9 +241,13 @@ public abstract class DataHub<Data> {
      */
     public void close() {
         synchronized (getStateLock()) {
-            this.isClosed = true;
+            if (!moveToClosed()) {
+                return;
+            }
+            this.isFetchQueued = false;
             doClose();
         }
+        drainEvents();
     }
 
     /**
@@ -177,6 +268,61 @@ public abstract class DataHub<Data> {
         listeners.remove(listener);
     }
 
+    /**
+     * Adds a listener to be notified of the timing and outcome of fetches and their accesses. Unlike
+     * {@link DataHubListener}s, these are called inline on whichever thread the event happens on.
+     *
+     * @param listener The listener to add.
+     */
+    public void addFetchMetricsListener(FetchMetricsListener listener) {
+        fetchMetricsListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener from being notified of the timing and outcome of fetches and their accesses.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeFetchMetricsListener(FetchMetricsListener listener) {
+        fetchMetricsListeners.remove(listener);
+    }
+
+    /**
+     * Returns a {@link FetchMetricsListener} which forwards to every listener added through
+     * {@link #addFetchMetricsListener(FetchMetricsListener)}. Implementations report their access events through this,
+     * while fetch start and finish events are reported by this class.
+     *
+     * @return The listener which forwards to all metrics listeners.
+     */
+    public FetchMetricsListener getFetchMetricsDispatcher() {
+        return fetchMetricsDispatcher;
+    }
+
+    /**
+     * Sets the {@link FetchTracer} which records spans for sampled fetches of this {@link DataHub}. The tracer is
+     * added as a metrics listener, replacing any previously set tracer.
+     *
+     * @param tracer The tracer to use, or null to stop tracing.
+     */
+    public void setFetchTracer(FetchTracer tracer) {
+        final FetchTracer previous = this.fetchTracer;
+        if (previous != null) {
+            removeFetchMetricsListener(previous);
+        }
+
+        this.fetchTracer = tracer;
+        if (tracer != null) {
+            addFetchMetricsListener(tracer);
+        }
+    }
+
+    /**
+     * @return The {@link FetchTracer} which records spans for sampled fetches, or null if there is none.
+     */
+    public FetchTracer getFetchTracer() {
+        return fetchTracer;
+    }
+
     /**
      * Sets the {@link Handler} to use to process and dispatch updates when they come in.
      *
@@ -184,13 +330,33 @@ public abstract class DataHub<Data> {
      *                them.
      */
     public void setProcessingHandler(Handler handler) {
-        synchronized (getStateLock()) {
-            this.processingHandler = handler;
-        }
+        this.processingHandler = handler;
     }
 
     /**
-     * @return A lock object which may be synchronized on to prevent state updates.
+     * Sets the {@link Executor} to use to process and dispatch updates when they come in. This takes precedence over
+     * any {@link Handler} set via {@link #setProcessingHandler(Handler)}, and allows processing to happen off of
+     * Android loopers entirely. The executor must run tasks in the order they are submitted; a
+     * {@link com.raizlabs.datahub.util.BatchingExecutor} can be used to deliver bursts of updates in a single hop.
+     *
+     * @param executor The {@link Executor} to use for updates or null to fall back to the processing {@link Handler}.
+     */
+    public void setProcessingExecutor(Executor executor) {
+        this.processingExecutor = executor;
+    }
+
+    /**
+     * Sets the policy which decides what happens when a fetch is requested while another is running.
+     *
+     * @param policy The policy to use.
+     */
+    public void setFetchPolicy(FetchPolicy policy) {
+        this.fetchPolicy = (policy != null) ? policy : FetchPolicy.JOIN;
+    }
+
+    /**
+     * @return A lock object which may be synchronized on to prevent fetches being started, data being imported or
+     * this {@link DataHub} being closed. Results and listener dispatch do not use this lock.
      */
     protected Object getStateLock() {
         return this;
@@ -202,9 +368,7 @@ public abstract class DataHub<Data> {
      * @see #onProcessFetchStarted() to add additional processing logic.
      */
     protected final void onFetchStarted() {
-        synchronized (getStateLock()) {
-            process(fetchStartedRunnable);
-        }
+        dispatch(fetchStartedRunnable);
     }
 
     /**
@@ -223,9 +387,7 @@ public abstract class DataHub<Data> {
      * Called when fetches are completed in order to process the necessary actions.
      */
     protected final void onFetchFinished() {
-        synchronized (getStateLock()) {
-            process(fetchFinishedRunnable);
-        }
+        dispatch(fetchFinishedRunnable);
     }
 
     /**
@@ -241,21 +403,51 @@ public abstract class DataHub<Data> {
     }
 
     /**
-     * Called when results are obtained in order to process the necessary actions.
+     * Called when results are obtained in order to process the necessary actions. This may be called from any thread
+     * without holding any lock.
      *
      * @param dataHubResult The result to process.
      */
     protected final void onResult(final DataHubResult<Data> dataHubResult) {
-        synchronized (getStateLock()) {
-            process(new Runnable() {
-                @Override
-                public void run() {
-                    onProcessResult(dataHubResult);
-                }
-            });
+        // Queue the result before moving to idle, so that it is ahead of the start of any fetch which follows
+        events.offer(new Runnable() {
+            @Override
+            public void run() {
+                processFetchedResult(dataHubResult);
+            }
+        });
+
+        if (!dataHubResult.isFetching()) {
+            long generation = dataHubResult.getGeneration();
+            if (generation == DataHubResult.NO_GENERATION) {
+                generation = getFetchGeneration();
+            }
+            finishFetch(generation);
+        }
+
+        if (isFetchQueued) {
+            synchronized (getStateLock()) {
+                startQueuedFetch();
+            }
+        }
+
+        if (!Thread.holdsLock(getStateLock())) {
+            drainEvents();
         }
     }
 
+    /**
+     * Returns whether a result of the given fetch generation should still be delivered, which is the case if this
+     * {@link DataHub} is not closed and the generation has not been superseded. This does not take any lock.
+     *
+     * @param generation The generation of the fetch which produced the result.
+     * @return True if the result should be delivered.
+     */
+    protected boolean isCurrentGeneration(long generation) {
+        final long state = stateWord.get();
+        return (getStateBits(state) != STATE_CLOSED) && (getGeneration(state) == generation);
+    }
+
     /**
      * Called when results are obtained in order to process the update and notify listeners.
      *
@@ -277,10 +469,300 @@ public abstract class DataHub<Data> {
     }
 
     /**
-     * Called to dispatch an error when this {@link DataHub} is accessed after it has been closed.
+     * Handles a request for a fetch according to the {@link FetchPolicy}.
+     *
+     * @param limited True if the fetch is bounded by the given limit ID.
+     * @param limitId The upper limit or bound of sources to query, if limited.
+     */
+    private void requestFetch(boolean limited, int limitId) {
+        // Joining a running fetch is the common case and doesn't need the lock
+        final long state = getStateBits(stateWord.get());
+        if (state == STATE_FETCHING && fetchPolicy == FetchPolicy.JOIN && isFetching()) {
+            return;
+        }
+
+        synchronized (getStateLock()) {
+            if (isClosed()) {
+                // This only queues the error, which is dispatched once the lock is released
+                processClosedError();
+            } else if (resolveRunningFetch(limited, limitId)) {
+                startFetch(limited, limitId);
+            }
+        }
+        drainEvents();
+    }
+
+    /**
+     * Applies the {@link FetchPolicy} to any running fetch before a new one is started. Must be called while holding
+     * the state lock.
+     *
+     * @param limited True if the requested fetch is bounded by the given limit ID.
+     * @param limitId The upper limit or bound of sources to query, if limited.
+     * @return True if a new fetch should be started, false if the request has been joined or queued.
+     */
+    private boolean resolveRunningFetch(boolean limited, int limitId) {
+        if (!isFetching()) {
+            return true;
+        }
+
+        switch (fetchPolicy) {
+            case SUPERSEDE:
+                doCancelFetch();
+                // If we couldn't cancel, the best we can do is join
+                return !isFetching();
+            case QUEUE:
+                queueFetch(limited, limitId);
+                return false;
+            case JOIN:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Starts a new fetch generation. Must be called while holding the state lock.
+     */
+    private void startFetch(boolean limited, int limitId) {
+        final long generation = moveToFetching();
+        if (generation == DataHubResult.NO_GENERATION) {
+            return;
+        }
+        fetchStartNanos = System.nanoTime();
+        EVENT_LOG.record(FetchEventLog.Kind.FETCH_STARTED, id, generation, DataAccess.AccessTypeIds.NONE);
+        final DataHubEvents.Sink eventSink = DataHubEvents.getSink();
+        fetchEventToken = (eventSink != null) ? eventSink.beginFetch(this, generation) : null;
+        fetchMetricsDispatcher.onFetchStarted(this, generation);
+        onFetchStarted();
+
+        // Results may be produced synchronously while starting, so don't start any queued fetch until we're done
+        isStartingFetch = true;
+        try {
+            if (limited) {
+                doFetch(limitId);
+            } else {
+                doFetch();
+            }
+        } finally {
+            isStartingFetch = false;
+        }
+
+        // Fetches which finish without producing a result never get to move us back to idle
+        if (!isFetching()) {
+            finishFetch(generation);
+        }
+
+        startQueuedFetch();
+    }
+
+    /**
+     * Queues a fetch to start once the running one finishes, coalescing it with any already queued fetch. Must be
+     * called while holding the state lock.
+     */
+    private void queueFetch(boolean limited, int limitId) {
+        if (!isFetchQueued) {
+            isFetchQueued = true;
+            isQueuedFetchLimited = limited;
+        } else {
+            // A fetch of everything covers any limited fetch
+            isQueuedFetchLimited = isQueuedFetchLimited && limited;
+        }
+        queuedFetchLimitId = limitId;
+    }
+
+    /**
+     * Starts the queued fetch if there is one and no fetch is running. Must be called while holding the state lock.
+     */
+    private void startQueuedFetch() {
+        if (isFetchQueued && !isStartingFetch && !isClosed() && !isFetching()) {
+            isFetchQueued = false;
+            startFetch(isQueuedFetchLimited, queuedFetchLimitId);
+        }
+    }
+
+    /**
+     * Moves to the fetching state with a new generation. Must be called while holding the state lock.
+     *
+     * @return The new generation, or {@link DataHubResult#NO_GENERATION} if this {@link DataHub} is closed.
+     */
+    private long moveToFetching() {
+        while (true) {
+            final long state = stateWord.get();
+            if (getStateBits(state) == STATE_CLOSED) {
+                return DataHubResult.NO_GENERATION;
+            }
+
+            final long generation = getGeneration(state) + 1;
+            if (stateWord.compareAndSet(state, packState(generation, STATE_FETCHING))) {
+                if (getStateBits(state) == STATE_FETCHING) {
+                    // The running fetch is being superseded, and won't get to move to idle itself
+                    abandonFetch(getGeneration(state), Span.Outcome.SUPERSEDED);
+                }
+                return generation;
+            }
+        }
+    }
+
+    /**
+     * Moves back to the idle state if the given generation is still the one fetching.
+     *
+     * @param generation The generation which has finished.
+     * @return True if this call moved to idle, false if the generation was not fetching.
+     */
+    private boolean moveToIdle(long generation) {
+        final long fetching = packState(generation, STATE_FETCHING);
+        // Fails if a newer fetch has started or we've been closed, in which case that state wins
+        return stateWord.compareAndSet(fetching, packState(generation, STATE_IDLE));
+    }
+
+    /**
+     * Moves back to the idle state if the given generation is still the one fetching, and if so reports it as finished
+     * to the metrics listeners and event sink. Only the call which moves the generation to idle reports it, so it is
+     * reported exactly once.
+     *
+     * @param generation The generation which has finished.
+     */
+    private void finishFetch(long generation) {
+        // Read these before moving to idle, as a newer fetch may replace them as soon as we have
+        final long startNanos = fetchStartNanos;
+        final Object eventToken = fetchEventToken;
+        if (!moveToIdle(generation)) {
+            return;
+        }
+        EVENT_LOG.record(FetchEventLog.Kind.FETCH_FINISHED, id, generation, DataAccess.AccessTypeIds.NONE);
+
+        final DataHubEvents.Sink eventSink = DataHubEvents.getSink();
+        if (eventSink != null) {
+            eventSink.endFetch(eventToken, this, generation);
+        }
+
+        if (fetchMetricsListeners.size() > 0) {
+            fetchMetricsDispatcher.onFetchFinished(this, generation, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Reports a fetch which ended without producing its final result to the {@link FetchTracer}, if there is one. This
+     * is only called by the state transition which replaced the fetching state, so it is reported exactly once.
+     *
+     * @param generation The generation of the fetch.
+     * @param outcome    How the fetch ended.
+     */
+    private void abandonFetch(long generation, Span.Outcome outcome) {
+        final FetchTracer tracer = fetchTracer;
+        if (tracer != null) {
+            tracer.onFetchAbandoned(this, generation, outcome);
+        }
+    }
+
+    /**
+     * Processes a fetched result, reporting its dispatch to the event sink if there is one.
+     *
+     * @param dataHubResult The result to process.
+     */
+    private void processFetchedResult(DataHubResult<Data> dataHubResult) {
+        EVENT_LOG.record(FetchEventLog.Kind.RESULT_DISPATCHED, id, dataHubResult.getGeneration(),
+                dataHubResult.getAccessTypeId());
+
+        final DataHubEvents.Sink eventSink = DataHubEvents.getSink();
+        if (eventSink == null) {
+            onProcessResult(dataHubResult);
+            return;
+        }
+
+        final Object eventToken = eventSink.beginDispatch(this, dataHubResult);
+        try {
+            onProcessResult(dataHubResult);
+        } finally {
+            eventSink.endDispatch(eventToken, this, dataHubResult);
+        }
+    }
+
+    /**
+     * Moves to the closed state, keeping the current generation.
+     *
+     * @return True if this call closed this {@link DataHub}, false if it was already closed.
+     */
+    private boolean moveToClosed() {
+        while (true) {
+            final long state = stateWord.get();
+            if (getStateBits(state) == STATE_CLOSED) {
+                return false;
+            }
+
+            if (stateWord.compareAndSet(state, packState(getGeneration(state), STATE_CLOSED))) {
+                if (getStateBits(state) == STATE_FETCHING) {
+                    abandonFetch(getGeneration(state), Span.Outcome.CLOSED);
+                }
+                return true;
+            }
+        }
+    }
+
+    private static long packState(long generation, long stateBits) {
+        return (generation << STATE_BITS) | stateBits;
+    }
+
+    private static long getGeneration(long state) {
+        return state >>> STATE_BITS;
+    }
+
+    private static long getStateBits(long state) {
+        return state & STATE_MASK;
+    }
+
+    /**
+     * Queues the given processing {@link Runnable} and drains the queue, unless the calling thread holds the state
+     * lock, in which case the queue is drained once the lock is released.
+     *
+     * @param runnable The runnable containing the logic to execute.
+     */
+    private void dispatch(Runnable runnable) {
+        events.offer(runnable);
+        if (!Thread.holdsLock(getStateLock())) {
+            drainEvents();
+        }
+    }
+
+    /**
+     * Processes every queued event in order. Only one thread drains at a time; any thread which queues an event while
+     * another is draining returns immediately and leaves the event to the draining thread.
+     */
+    private void drainEvents() {
+        if (eventDrainCount.getAndIncrement() != 0) {
+            return;
+        }
+
+        boolean completed = false;
+        try {
+            int missed = 1;
+            do {
+                Runnable runnable;
+                while ((runnable = events.poll()) != null) {
+                    process(runnable);
+                }
+                missed = eventDrainCount.addAndGet(-missed);
+            } while (missed != 0);
+            completed = true;
+        } finally {
+            if (!completed) {
+                // A listener threw, so give up draining and let the next dispatch pick up any remaining events
+                eventDrainCount.set(0);
+            }
+        }
+    }
+
+    /**
+     * Called to dispatch an error when this {@link DataHub} is accessed after it has been closed. The error is queued
+     * like any other event, so if the state lock is held it is only dispatched once it is released.
      */
     private void processClosedError() {
-        onProcessResult(new ClosedErrorResult<Data>(isFetching()));
+        final DataHubResult<Data> result = new ClosedErrorResult<>(isFetching());
+        dispatch(new Runnable() {
+            @Override
+            public void run() {
+                onProcessResult(result);
+            }
+        });
     }
 
     /**
@@ -290,7 +772,9 @@ public abstract class DataHub<Data> {
      * @param runnable The runnable containing the logic to execute.
      */
     private void process(Runnable runnable) {
-        if (processingHandler != null) {
+        if (processingExecutor != null) {
+            processingExecutor.execute(runnable);
+        } else if (processingHandler != null) {
             ThreadingUtils.runOnHandler(processingHandler, runnable);
         } else {
             runnable.run();
@@ -325,6 +809,38 @@ public abstract class DataHub<Data> {
             onProcessFetchFinished();
         }
     };
+
+    private final FetchMetricsListener fetchMetricsDispatcher = new FetchMetricsListener() {
+        @Override
+        public void onFetchStarted(DataHub<?> dataHub, long generation) {
+            for (Object listener : fetchMetricsListeners.getSnapshot()) {
+                ((FetchMetricsListener) listener).onFetchStarted(dataHub, generation);
+            }
+        }
+
+        @Override
+        public void onAccessStarted(DataHub<?> dataHub, long generation, int accessTypeId) {
+            for (Object listener : fetchMetricsListeners.getSnapshot()) {
+                ((FetchMetricsListener) listener).onAccessStarted(dataHub, generation, accessTypeId);
+            }
+        }
+
+        @Override
+        public void onAccessFinished(DataHub<?> dataHub, long generation, int accessTypeId,
+                                     DataAccessResult<?> result, long latencyNanos) {
+            for (Object listener : fetchMetricsListeners.getSnapshot()) {
+                ((FetchMetricsListener) listener).onAccessFinished(dataHub, generation, accessTypeId, result,
+                        latencyNanos);
+            }
+        }
+
+        @Override
+        public void onFetchFinished(DataHub<?> dataHub, long generation, long durationNanos) {
+            for (Object listener : fetchMetricsListeners.getSnapshot()) {
+                ((FetchMetricsListener) listener).onFetchFinished(dataHub, generation, durationNanos);
+            }
+        }
+    };
     //endregion Anonymous Classes
 
     //region Inner Classes
@@ -0,0 +1,333 @@
+package com.raizlabs.datahub.hub;
+
+import android.os.Handler;
+
+import com.raizlabs.datahub.observer.DataObserver;
+import com.raizlabs.datahub.util.ThreadingUtils;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A registry of shared {@link DataHub}s, keyed by the resource they provide. Rather than every screen building its own
+ * hub, and so running its own fetch pipeline, each one acquires the hub for a resource key from the registry. The
+ * first acquisition creates the hub through a {@link Factory}, and later acquisitions share it.
+ * <p></p>
+ * Hubs are reference counted. Each acquisition must be matched by a call to {@link #release(DataHub)}, which happens
+ * automatically when a {@link DataObserver} created through {@link #createObserver(Object, Factory)} is closed. When
+ * the last reference is released, the hub is closed and removed, either immediately or after the linger period. If the
+ * hub is acquired again while lingering, it is kept and reused, which avoids rebuilding hubs across quick screen
+ * transitions such as rotations.
+ * <p></p>
+ * This class is safe to use from multiple threads.
+ */
+public class DataHubRegistry {
+
+    /**
+     * Interface which creates the {@link DataHub} for a resource the first time it is acquired.
+     *
+     * @param <Data> The type of data being accessed.
+     */
+    public interface Factory<Data> {
+        /**
+         * Called to create the {@link DataHub} for a resource. This is called without holding the registry's lock, so
+         * it may be called more than once if the same key is acquired concurrently, in which case the extra hubs are
+         * closed without being used.
+         *
+         * @return The new {@link DataHub}.
+         */
+        DataHub<Data> create();
+    }
+
+    //region Statics
+    private static final DataHubRegistry GLOBAL_INSTANCE = new DataHubRegistry();
+
+    /**
+     * @return The shared global instance of a {@link DataHubRegistry}, which closes hubs as soon as their last
+     * reference is released.
+     */
+    public static DataHubRegistry getGlobalInstance() {
+        return GLOBAL_INSTANCE;
+    }
+    //endregion Statics
+
+    private final Map<Object, Entry> entriesByKey = new HashMap<>();
+    private final Map<DataHub<?>, Entry> entriesByHub = new IdentityHashMap<>();
+
+    private final long lingerNanos;
+    private ScheduledExecutorService scheduler;
+    private Executor closeExecutor;
+
+    /**
+     * Creates a {@link DataHubRegistry} which closes hubs as soon as their last reference is released.
+     */
+    public DataHubRegistry() {
+        this(0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a {@link DataHubRegistry} which keeps hubs open for the given time after their last reference is
+     * released, using the {@link ThreadingUtils#getSharedScheduler()} to close them.
+     *
+     * @param linger The time to keep unreferenced hubs open for, or 0 to close them immediately.
+     * @param unit   The unit of the given time.
+     */
+    public DataHubRegistry(long linger, TimeUnit unit) {
+        this(linger, unit, null);
+    }
+
+    /**
+     * Creates a {@link DataHubRegistry} which keeps hubs open for the given time after their last reference is
+     * released.
+     *
+     * @param linger    The time to keep unreferenced hubs open for, or 0 to close them immediately.
+     * @param unit      The unit of the given time.
+     * @param scheduler The scheduler to time lingering hubs on, or null to use the
+     *                  {@link ThreadingUtils#getSharedScheduler()}.
+     */
+    public DataHubRegistry(long linger, TimeUnit unit, ScheduledExecutorService scheduler) {
+        this(linger, unit, scheduler, null);
+    }
+
+    /**
+     * Creates a {@link DataHubRegistry} which keeps hubs open for the given time after their last reference is
+     * released.
+     *
+     * @param linger        The time to keep unreferenced hubs open for, or 0 to close them immediately.
+     * @param unit          The unit of the given time.
+     * @param scheduler     The scheduler to time lingering hubs on, or null to use the
+     *                      {@link ThreadingUtils#getSharedScheduler()}.
+     * @param closeExecutor The executor to close hubs on once they have finished lingering, or null to use the
+     *                      {@link ThreadingUtils#getSharedIoExecutor()}, as closing may write to disk.
+     */
+    public DataHubRegistry(long linger, TimeUnit unit, ScheduledExecutorService scheduler, Executor closeExecutor) {
+        this.lingerNanos = unit.toNanos(linger);
+        this.scheduler = scheduler;
+        this.closeExecutor = closeExecutor;
+    }
+
+    /**
+     * Acquires a reference to the shared {@link DataHub} for the given key, creating it with the given factory if
+     * there is none or the existing one has been closed. The reference must be released with
+     * {@link #release(DataHub)} once it is no longer used.
+     *
+     * @param key     The key of the resource.
+     * @param factory The factory to create the hub with if needed.
+     * @param <Data>  The type of data being accessed. This must match every other acquisition of the key.
+     * @return The shared {@link DataHub}.
+     */
+    public <Data> DataHub<Data> acquire(Object key, Factory<Data> factory) {
+        DataHub<Data> existing = acquireExisting(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Build the hub without holding the lock, as creating it may be slow
+        final DataHub<Data> created = factory.create();
+        synchronized (this) {
+            existing = acquireExisting(key);
+            if (existing == null) {
+                final Entry entry = new Entry(key, created);
+                entry.referenceCount++;
+                entriesByKey.put(key, entry);
+                entriesByHub.put(created, entry);
+                return created;
+            }
+        }
+
+        // Another acquisition got there first, so share its hub instead
+        created.close();
+        return existing;
+    }
+
+    /**
+     * Releases a reference to the given {@link DataHub} which was obtained from {@link #acquire(Object, Factory)}.
+     * Once all references have been released, the hub is closed, after the linger period if there is one.
+     *
+     * @param dataHub The hub to release a reference to.
+     * @return True if the reference was released, false if the hub is not in this registry.
+     */
+    public boolean release(DataHub<?> dataHub) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entriesByHub.get(dataHub);
+            if ((entry == null) || (entry.referenceCount == 0)) {
+                return false;
+            }
+
+            entry.referenceCount--;
+            if (entry.referenceCount > 0) {
+                return true;
+            }
+
+            if (lingerNanos > 0) {
+                entry.lingerFuture = getScheduler().schedule(new LingerRunnable(entry), lingerNanos,
+                        TimeUnit.NANOSECONDS);
+                return true;
+            }
+
+            remove(entry);
+        }
+
+        // Close outside of the lock, as closing may take a while
+        entry.dataHub.close();
+        return true;
+    }
+
+    /**
+     * Acquires the shared {@link DataHub} for the given key and creates a {@link DataObserver} of it which dispatches
+     * updates on the UI thread. Closing the observer releases its reference to the hub.
+     *
+     * @param key     The key of the resource.
+     * @param factory The factory to create the hub with if needed.
+     * @param <Data>  The type of data being accessed.
+     * @return The new {@link DataObserver}.
+     * @see #acquire(Object, Factory)
+     */
+    public <Data> DataObserver<Data> createObserver(Object key, Factory<Data> factory) {
+        return createObserver(key, factory, ThreadingUtils.getUIHandler());
+    }
+
+    /**
+     * Acquires the shared {@link DataHub} for the given key and creates a {@link DataObserver} of it which dispatches
+     * updates via the given {@link Handler}. Closing the observer releases its reference to the hub.
+     *
+     * @param key             The key of the resource.
+     * @param factory         The factory to create the hub with if needed.
+     * @param callbackHandler The Handler to dispatch callbacks to, or null to dispatch them straight from the threads
+     *                        the {@link DataHub} is calling from.
+     * @param <Data>          The type of data being accessed.
+     * @return The new {@link DataObserver}.
+     * @see #acquire(Object, Factory)
+     */
+    public <Data> DataObserver<Data> createObserver(Object key, Factory<Data> factory, Handler callbackHandler) {
+        final DataObserver<Data> observer = new DataObserver<>(acquire(key, factory), callbackHandler);
+        observer.setHubRegistry(this);
+        return observer;
+    }
+
+    /**
+     * @param key The key of the resource.
+     * @return The number of references held to the hub for the given key, or 0 if there is none. A lingering hub has
+     * no references.
+     */
+    public synchronized int getReferenceCount(Object key) {
+        final Entry entry = entriesByKey.get(key);
+        return (entry != null) ? entry.referenceCount : 0;
+    }
+
+    /**
+     * @param key The key of the resource.
+     * @return True if there is an open hub for the given key, including one which is lingering.
+     */
+    public synchronized boolean contains(Object key) {
+        final Entry entry = entriesByKey.get(key);
+        return (entry != null) && !entry.dataHub.isClosed();
+    }
+
+    /**
+     * Acquires a reference to the open hub for the given key, if there is one.
+     *
+     * @return The hub, or null if there is no open hub for the key.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized <Data> DataHub<Data> acquireExisting(Object key) {
+        final Entry entry = entriesByKey.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.dataHub.isClosed()) {
+            // Closed behind our back, so start over
+            remove(entry);
+            return null;
+        }
+
+        entry.referenceCount++;
+        entry.cancelLinger();
+        return (DataHub<Data>) entry.dataHub;
+    }
+
+    private synchronized Executor getCloseExecutor() {
+        if (closeExecutor == null) {
+            closeExecutor = ThreadingUtils.getSharedIoExecutor();
+        }
+        return closeExecutor;
+    }
+
+    private synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = ThreadingUtils.getSharedScheduler();
+        }
+        return scheduler;
+    }
+
+    /**
+     * Removes the given entry from the maps. Must be called while holding the lock.
+     */
+    private void remove(Entry entry) {
+        entry.cancelLinger();
+        if (entriesByKey.get(entry.key) == entry) {
+            entriesByKey.remove(entry.key);
+        }
+        entriesByHub.remove(entry.dataHub);
+    }
+
+    private void onLingerFinished(final Entry entry) {
+        synchronized (this) {
+            // Only close if nothing acquired it while we were waiting
+            if ((entry.referenceCount > 0) || (entriesByHub.get(entry.dataHub) != entry)) {
+                return;
+            }
+            entry.lingerFuture = null;
+            remove(entry);
+        }
+
+        // This is called on the scheduler, which must not be held up by closing
+        getCloseExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                entry.dataHub.close();
+            }
+        });
+    }
+
+    //region Inner Classes
+    private static class Entry {
+        final Object key;
+        final DataHub<?> dataHub;
+        int referenceCount;
+        ScheduledFuture<?> lingerFuture;
+
+        Entry(Object key, DataHub<?> dataHub) {
+            this.key = key;
+            this.dataHub = dataHub;
+        }
+
+        void cancelLinger() {
+            if (lingerFuture != null) {
+                lingerFuture.cancel(false);
+                lingerFuture = null;
+            }
+        }
+    }
+
+    private class LingerRunnable implements Runnable {
+        private final Entry entry;
+
+        LingerRunnable(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void run() {
+            onLingerFinished(entry);
+        }
+    }
+    //endregion Inner Classes
+}
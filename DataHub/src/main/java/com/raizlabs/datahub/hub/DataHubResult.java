@@ -13,9 +13,15 @@ import com.raizlabs.datahub.access.DataAccessResult;
  */
 public class DataHubResult<Data> implements DataResult<Data>, DataHubErrorInfo {
 
+    /**
+     * The generation of results which were not produced by any fetch.
+     */
+    public static final long NO_GENERATION = 0;
+
     private DataAccessResult<Data> accessResult;
     private int typeId;
     private boolean isFetching;
+    private long generation;
 
     /**
      * Builds a new {@link DataHubResult} representing the result from a given {@link DataAccessResult}.
@@ -25,9 +31,22 @@ public class DataHubResult<Data> implements DataResult<Data>, DataHubErrorInfo {
      * @param isFetching   True if more data is being fetched.
      */
     public DataHubResult(DataAccessResult<Data> accessResult, int typeId, boolean isFetching) {
+        this(accessResult, typeId, isFetching, NO_GENERATION);
+    }
+
+    /**
+     * Builds a new {@link DataHubResult} representing the result from a given {@link DataAccessResult}.
+     *
+     * @param accessResult The {@link DataAccessResult} containing the result data.
+     * @param typeId       The type ID of the access.
+     * @param isFetching   True if more data is being fetched.
+     * @param generation   The generation of the fetch which produced the result.
+     */
+    public DataHubResult(DataAccessResult<Data> accessResult, int typeId, boolean isFetching, long generation) {
         this.accessResult = accessResult;
         this.typeId = typeId;
         this.isFetching = isFetching;
+        this.generation = generation;
     }
 
     @Override
@@ -64,6 +83,23 @@ public class DataHubResult<Data> implements DataResult<Data>, DataHubErrorInfo {
         return accessResult.hasData();
     }
 
+    /**
+     * @return True if the access reported that the data is out of date.
+     * @see DataAccessResult#isStale()
+     */
+    public boolean isStale() {
+        return accessResult.isStale();
+    }
+
+    /**
+     * @return The generation of the fetch which produced this result, or {@link #NO_GENERATION} if it wasn't produced
+     * by a fetch.
+     * @see DataHub#getFetchGeneration()
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
     /**
      * @return The {@link DataAccessResult} containing the result.
      */
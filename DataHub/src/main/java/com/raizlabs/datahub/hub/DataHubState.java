@@ -0,0 +1,23 @@
+package com.raizlabs.datahub.hub;
+
+/**
+ * The lifecycle states of a {@link DataHub}. A hub starts {@link #IDLE}, moves to {@link #FETCHING} when a fetch is
+ * started and back to {@link #IDLE} when the final result of that fetch is produced. Once {@link #CLOSED}, it never
+ * leaves that state.
+ *
+ * @see DataHub#getState()
+ */
+public enum DataHubState {
+    /**
+     * No fetch is running.
+     */
+    IDLE,
+    /**
+     * A fetch has been started and has not produced its final result.
+     */
+    FETCHING,
+    /**
+     * The hub has been closed and will no longer fetch.
+     */
+    CLOSED
+}
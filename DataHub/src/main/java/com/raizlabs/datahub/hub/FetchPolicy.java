@@ -0,0 +1,26 @@
+package com.raizlabs.datahub.hub;
+
+/**
+ * Defines what a {@link DataHub} does when a fetch is requested while another fetch is still running. Every fetch
+ * which is actually started is given a new generation (see {@link DataHub#getFetchGeneration()}) which is carried by
+ * its results (see {@link DataHubResult#getGeneration()}).
+ *
+ * @see DataHub#setFetchPolicy(FetchPolicy)
+ */
+public enum FetchPolicy {
+    /**
+     * The request joins the running fetch and no new fetch is started. The caller receives the results of the running
+     * fetch. This is the default.
+     */
+    JOIN,
+    /**
+     * The running fetch is cancelled and a new fetch is started immediately. Results from the cancelled fetch which
+     * arrive afterwards are discarded.
+     */
+    SUPERSEDE,
+    /**
+     * A new fetch is started as soon as the running fetch finishes. Multiple requests made while a fetch is running
+     * are coalesced into a single queued fetch, which fetches from all sources if any of the requests did.
+     */
+    QUEUE
+}
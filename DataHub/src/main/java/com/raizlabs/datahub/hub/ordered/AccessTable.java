@@ -0,0 +1,160 @@
+package com.raizlabs.datahub.hub.ordered;
+
+import com.raizlabs.datahub.access.AsyncDataAccess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, ordered table of the {@link AsyncDataAccess}es of an {@link OrderedDataHub}. The table is built once
+ * whenever the accesses are set and may then be shared freely, so a {@link FetchStrategy} can take it as the snapshot
+ * for a fetch without copying. Lookups of an index by access type ID or by access are constant time.
+ * <p></p>
+ * If multiple accesses share the same type ID, or the same access appears more than once, lookups return the first
+ * index, matching {@link List#indexOf(Object)}.
+ *
+ * @param <T> The type of data being accessed.
+ */
+public final class AccessTable<T> {
+
+    private static final int EMPTY_KEY = Integer.MIN_VALUE;
+
+    private static final AccessTable<Object> EMPTY = new AccessTable<>(Collections.<AsyncDataAccess<Object>>emptyList());
+
+    /**
+     * @param <T> The type of data being accessed.
+     * @return An {@link AccessTable} which contains no accesses.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> AccessTable<T> empty() {
+        return (AccessTable<T>) EMPTY;
+    }
+
+    private final List<AsyncDataAccess<T>> accesses;
+    private final Map<AsyncDataAccess<T>, Integer> accessIndices;
+
+    // Open addressed type ID -> index table. Type IDs are arbitrary ints, so we can't index them directly.
+    private final int[] typeIds;
+    private final int[] typeIdIndices;
+    private final int typeIdMask;
+    private final boolean hasEmptyKey;
+    private final int emptyKeyIndex;
+
+    /**
+     * Constructs an {@link AccessTable} containing the given accesses in order. Null accesses are skipped.
+     *
+     * @param accesses The accesses to include.
+     */
+    public AccessTable(List<AsyncDataAccess<T>> accesses) {
+        final List<AsyncDataAccess<T>> list = new ArrayList<>(accesses.size());
+        for (AsyncDataAccess<T> access : accesses) {
+            if (access != null) {
+                list.add(access);
+            }
+        }
+        this.accesses = Collections.unmodifiableList(list);
+
+        final int size = list.size();
+        int capacity = 2;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        this.typeIds = new int[capacity];
+        this.typeIdIndices = new int[capacity];
+        this.typeIdMask = capacity - 1;
+        Arrays.fill(typeIds, EMPTY_KEY);
+
+        this.accessIndices = new HashMap<>(capacity);
+
+        boolean hasEmptyKey = false;
+        int emptyKeyIndex = -1;
+        for (int i = 0; i < size; i++) {
+            final AsyncDataAccess<T> access = list.get(i);
+            if (!accessIndices.containsKey(access)) {
+                accessIndices.put(access, i);
+            }
+
+            final int typeId = access.getTypeId();
+            if (typeId == EMPTY_KEY) {
+                if (!hasEmptyKey) {
+                    hasEmptyKey = true;
+                    emptyKeyIndex = i;
+                }
+                continue;
+            }
+
+            int slot = mix(typeId) & typeIdMask;
+            while (typeIds[slot] != EMPTY_KEY && typeIds[slot] != typeId) {
+                slot = (slot + 1) & typeIdMask;
+            }
+            if (typeIds[slot] == EMPTY_KEY) {
+                typeIds[slot] = typeId;
+                typeIdIndices[slot] = i;
+            }
+        }
+        this.hasEmptyKey = hasEmptyKey;
+        this.emptyKeyIndex = emptyKeyIndex;
+    }
+
+    /**
+     * @return The number of accesses in this table.
+     */
+    public int size() {
+        return accesses.size();
+    }
+
+    /**
+     * @param index The index of the access to get.
+     * @return The access at the given index.
+     */
+    public AsyncDataAccess<T> get(int index) {
+        return accesses.get(index);
+    }
+
+    /**
+     * @return An unmodifiable, ordered list of the accesses in this table.
+     */
+    public List<AsyncDataAccess<T>> getAccesses() {
+        return accesses;
+    }
+
+    /**
+     * @param typeId The access type ID to look up.
+     * @return The index of the first access with the given type ID, or -1 if there is none.
+     */
+    public int indexOfTypeId(int typeId) {
+        if (typeId == EMPTY_KEY) {
+            return hasEmptyKey ? emptyKeyIndex : -1;
+        }
+
+        int slot = mix(typeId) & typeIdMask;
+        while (true) {
+            final int key = typeIds[slot];
+            if (key == typeId) {
+                return typeIdIndices[slot];
+            } else if (key == EMPTY_KEY) {
+                return -1;
+            }
+            slot = (slot + 1) & typeIdMask;
+        }
+    }
+
+    /**
+     * @param access The access to look up.
+     * @return The index of the first occurrence of the given access, or -1 if it is not in this table.
+     */
+    public int indexOf(AsyncDataAccess<T> access) {
+        final Integer index = accessIndices.get(access);
+        return (index != null) ? index : -1;
+    }
+
+    private static int mix(int value) {
+        // Spread sequential IDs across the table
+        final int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -7,25 +7,56 @@ import com.raizlabs.datahub.access.AsyncDataAccess;
 import com.raizlabs.datahub.access.DataAccess;
 import com.raizlabs.datahub.access.DataAccessResult;
 import com.raizlabs.datahub.access.SyncDataAccess;
+import com.raizlabs.datahub.hub.DataHub;
+import com.raizlabs.datahub.metrics.DataHubEvents;
+import com.raizlabs.datahub.metrics.FetchEventLog;
+import com.raizlabs.datahub.metrics.FetchMetricsListener;
+import com.raizlabs.datahub.util.ThreadingUtils;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Base class for implementing a {@link FetchStrategy} which does some of the simple housekeeping type work and
  * provides some mechanisms and functionality that may assist in the implementation of the fetching and result
  * processing details.
+ * <p></p>
+ * Fetches may optionally be bounded in time. An access timeout (see {@link #setAccessTimeout(long, TimeUnit)}) treats
+ * any individual {@link AsyncDataAccess} which hasn't responded in time as if it returned a
+ * {@link DataHubError.Types#TIMEOUT} error, so the strategy moves on as it would for any other error. A fetch deadline
+ * (see {@link #setFetchDeadline(long, TimeUnit)}) closes the entire fetch with a timeout error if it hasn't finished in
+ * time. Both are triggered by a shared scheduler rather than a thread per fetch, and the resulting work is handed off
+ * to the timeout executor (see {@link #setTimeoutExecutor(Executor)}) so that it never runs on the scheduler's thread.
+ * <p></p>
+ * Every access started through {@link #createAccessCallback(int)} or read through
+ * {@link #getSyncResult(SyncDataAccess)} is timed and reported to the hub's
+ * {@link DataHub#getFetchMetricsDispatcher()} and the {@link DataHubEvents} sink. Access starts, results and
+ * timeouts are always recorded in the {@link FetchEventLog#getGlobalInstance()}, so hung fetches can be diagnosed
+ * after the fact.
  *
  * @param <T> The type of data being fetched.
  */
-public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultProcessor<T> {
+public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, IndexedResultProcessor<T> {
+
+    private static final FetchEventLog EVENT_LOG = FetchEventLog.getGlobalInstance();
 
     private DataHubDelegate<T> dataHubDelegate;
 
-    private CancelableCallback<T> currentCallback;
+    private volatile CancelableCallback<T> currentCallback;
     private int lastAsyncAccessIndex;
     private int fetchLimitId;
-    private List<AsyncDataAccess<T>> asyncDataAccesses;
+    private volatile long fetchGeneration;
+    private AccessTable<T> accessTable = AccessTable.empty();
+
+    private long accessTimeoutNanos;
+    private long fetchDeadlineNanos;
+    private ScheduledExecutorService scheduler;
+    private Executor timeoutExecutor;
+    private ScheduledFuture<?> deadlineFuture;
 
     /**
      * @return The {@link com.raizlabs.datahub.hub.ordered.FetchStrategy.DataHubDelegate} to use to access the
@@ -61,6 +92,14 @@ public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultPr
         return fetchLimitId;
     }
 
+    /**
+     * @return The generation of the hub's fetch which the current or last fetch of this strategy is serving.
+     * @see com.raizlabs.datahub.hub.DataHub#getFetchGeneration()
+     */
+    protected long getFetchGeneration() {
+        return fetchGeneration;
+    }
+
     /**
      * Returns a list of {@link AsyncDataAccess} which is a snapshot of the hub's {@link AsyncDataAccess}es at the time
      * the last fetch was started. This will only be valid after {@link #fetch()} has been called. This differs from
@@ -70,7 +109,18 @@ public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultPr
      * @return A snapshot list of {@link AsyncDataAccess} at the time of the last fetch.
      */
     protected List<AsyncDataAccess<T>> getAsyncDataAccesses() {
-        return asyncDataAccesses;
+        return accessTable.getAccesses();
+    }
+
+    /**
+     * Returns the {@link AccessTable} which was provided by the hub at the time the last fetch was started. This will
+     * only be valid after {@link #fetch()} has been called.
+     *
+     * @return A snapshot table of {@link AsyncDataAccess} at the time of the last fetch.
+     * @see #getAsyncDataAccesses()
+     */
+    protected AccessTable<T> getAccessTable() {
+        return accessTable;
     }
 
     /**
@@ -84,6 +134,69 @@ public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultPr
         return currentCallback;
     }
 
+    /**
+     * Sets the maximum amount of time to wait for each individual {@link AsyncDataAccess} to respond. If an access
+     * doesn't respond in time, it is treated as having returned a {@link DataHubError.Types#TIMEOUT} error and any
+     * later response from it is ignored. This applies to fetches started after it is set.
+     *
+     * @param timeout The maximum time to wait, or 0 to wait indefinitely.
+     * @param unit    The unit of the given time.
+     */
+    public synchronized void setAccessTimeout(long timeout, TimeUnit unit) {
+        this.accessTimeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Sets the maximum amount of time an entire fetch may take. If the fetch hasn't finished in time, it is closed and
+     * a {@link DataHubError.Types#TIMEOUT} error is processed. This applies to fetches started after it is set.
+     *
+     * @param deadline The maximum time a fetch may take, or 0 to allow it to take indefinitely.
+     * @param unit     The unit of the given time.
+     */
+    public synchronized void setFetchDeadline(long deadline, TimeUnit unit) {
+        this.fetchDeadlineNanos = unit.toNanos(deadline);
+    }
+
+    /**
+     * Sets the scheduler used to run timeouts. By default, {@link ThreadingUtils#getSharedScheduler()} is used.
+     *
+     * @param scheduler The scheduler to use.
+     */
+    public synchronized void setScheduler(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return The scheduler used to run timeouts.
+     */
+    protected synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = ThreadingUtils.getSharedScheduler();
+        }
+        return scheduler;
+    }
+
+    /**
+     * Sets the executor which timeouts are processed on once the scheduler triggers them. This runs the strategy's
+     * handling of the timeout, including starting any further accesses and dispatching the error to the hub. By
+     * default, {@link ThreadingUtils#getSharedTimeoutExecutor()} is used.
+     *
+     * @param executor The executor to use.
+     */
+    public synchronized void setTimeoutExecutor(Executor executor) {
+        this.timeoutExecutor = executor;
+    }
+
+    /**
+     * @return The executor which timeouts are processed on.
+     */
+    protected synchronized Executor getTimeoutExecutor() {
+        if (timeoutExecutor == null) {
+            timeoutExecutor = ThreadingUtils.getSharedTimeoutExecutor();
+        }
+        return timeoutExecutor;
+    }
+
     @Override
     public void setDataHubDelegate(DataHubDelegate<T> delegate) {
         this.dataHubDelegate = delegate;
@@ -92,7 +205,7 @@ public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultPr
     @Override
     public synchronized void fetch() {
         // Fetch up to the last index
-        final List<AsyncDataAccess<T>> accesses = dataHubDelegate.getAsyncAccesses();
+        final AccessTable<T> accesses = dataHubDelegate.getAccessTable();
         int accessId = accesses.size() - 1;
         if(accessId >= 0){
             fetch(accesses.get(accessId).getTypeId());
@@ -103,11 +216,12 @@ public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultPr
 
     @Override
     public synchronized void fetch(int limitId) {
-        // If we're already running, don't start another update.
+        // If we're already running, don't start another update. The hub decides whether to join, supersede or queue.
         if (isFetching()) {
             return;
         }
 
+        fetchGeneration = dataHubDelegate.getDataHub().getFetchGeneration();
         lastAsyncAccessIndex = -1;
         fetchLimitId = limitId;
 
@@ -115,34 +229,33 @@ public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultPr
         close();
 
         currentCallback = new CancelableCallback<>(this);
-        this.asyncDataAccesses = new ArrayList<>(getDataHubDelegate().getAsyncAccesses());
+        // The table is immutable, so it can be kept as this fetch's snapshot without copying
+        this.accessTable = getDataHubDelegate().getAccessTable();
         final SyncDataAccess<T> syncAccess = dataHubDelegate.getSyncAccess();
 
         if (syncAccess == null || syncAccess.getTypeId() != limitId) {
-            boolean limitIdFound = false;
-            for (DataAccess access : this.asyncDataAccesses) {
-                if (access.getTypeId() == limitId) {
-                    limitIdFound = true;
-                    break;
-                }
-            }
-
-            if (!limitIdFound) {
+            if (accessTable.indexOfTypeId(limitId) < 0) {
                 close();
-                String message = "Data Access not found for limit id: " + limitId;
-                DataHubError error = new DataHubError(message, DataHubError.Types.DATA_ACCESS_NOT_FOUND);
+                DataHubError error = DataHubError.newLightweight("Data Access not found for limit id: %d",
+                        DataHubError.Types.DATA_ACCESS_NOT_FOUND, null, limitId);
                 DataAccessResult<T> result = DataAccessResult.fromError(error);
-                dataHubDelegate.processResult(result, null);
+                dataHubDelegate.processResult(result, null, fetchGeneration);
             }
         }
 
         if (isFetching()) {
+            if (fetchDeadlineNanos > 0) {
+                deadlineFuture = getScheduler().schedule(
+                        new HandOffRunnable(getTimeoutExecutor(), new DeadlineRunnable(currentCallback)),
+                        fetchDeadlineNanos, TimeUnit.NANOSECONDS);
+            }
+
             doFetch(limitId);
         }
     }
 
     @Override
-    public synchronized boolean isFetching() {
+    public boolean isFetching() {
         return (currentCallback != null);
     }
 
@@ -152,6 +265,135 @@ public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultPr
             currentCallback.cancel();
             currentCallback = null;
         }
+
+        if (deadlineFuture != null) {
+            deadlineFuture.cancel(false);
+            deadlineFuture = null;
+        }
+    }
+
+    /**
+     * Starts the access at the given index of the {@link #getAccessTable()} as part of the current fetch, passing it
+     * the callback from {@link #createAccessCallback(int)}.
+     *
+     * @param index The index of the access to start.
+     */
+    protected void startAccess(int index) {
+        accessTable.get(index).get(createAccessCallback(index));
+    }
+
+    /**
+     * Reads the given {@link SyncDataAccess} as part of the current fetch, reporting its timing and outcome to the
+     * hub's metrics listeners.
+     *
+     * @param syncAccess The access to read.
+     * @return The result of the access.
+     */
+    protected DataAccessResult<T> getSyncResult(SyncDataAccess<T> syncAccess) {
+        final DataHub<T> dataHub = dataHubDelegate.getDataHub();
+        final FetchMetricsListener metrics = dataHub.getFetchMetricsDispatcher();
+        final long generation = fetchGeneration;
+        final int typeId = syncAccess.getTypeId();
+
+        final DataHubEvents.Sink eventSink = DataHubEvents.getSink();
+        final Object eventToken = (eventSink != null) ? eventSink.beginAccess(dataHub, generation, typeId) : null;
+        metrics.onAccessStarted(dataHub, generation, typeId);
+        EVENT_LOG.record(FetchEventLog.Kind.ACCESS_STARTED, dataHub.getId(), generation, typeId);
+        final long startNanos = System.nanoTime();
+        final DataAccessResult<T> result = syncAccess.get();
+        recordAccessResult(dataHub, generation, typeId, result);
+        metrics.onAccessFinished(dataHub, generation, typeId, result, System.nanoTime() - startNanos);
+        if (eventSink != null) {
+            eventSink.endAccess(eventToken, dataHub, generation, typeId, result);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the callback to pass to the access at the given index when starting it for the current fetch. This
+     * forwards to the {@link #getCurrentCallback()} along with the index, so results are delivered to
+     * {@link #onResult(DataAccessResult, AsyncDataAccess, int)} without looking the index up. It is wrapped to enforce
+     * the access timeout if one is set, and reports the access to the hub's metrics listeners, so it should be created
+     * immediately before starting the access.
+     *
+     * @param index The index of the access being started.
+     * @return The callback to pass to the access, or null if there is no fetch running.
+     */
+    protected AsyncDataAccess.AsyncDataCallback<T> createAccessCallback(int index) {
+        final CancelableCallback<T> callback;
+        final long timeoutNanos;
+        synchronized (this) {
+            callback = currentCallback;
+            timeoutNanos = accessTimeoutNanos;
+        }
+
+        if (callback == null) {
+            return null;
+        }
+
+        final DataHub<T> dataHub = dataHubDelegate.getDataHub();
+        final long generation = fetchGeneration;
+        final int typeId = accessTable.get(index).getTypeId();
+        final DataHubEvents.Sink eventSink = DataHubEvents.getSink();
+        final Object eventToken = (eventSink != null) ? eventSink.beginAccess(dataHub, generation, typeId) : null;
+        final IndexedAccessCallback<T> indexedCallback = new IndexedAccessCallback<>(callback, index, dataHub,
+                generation, typeId, eventSink, eventToken);
+        dataHub.getFetchMetricsDispatcher().onAccessStarted(dataHub, generation, typeId);
+        EVENT_LOG.record(FetchEventLog.Kind.ACCESS_STARTED, dataHub.getId(), generation, typeId);
+        if (timeoutNanos <= 0) {
+            return indexedCallback;
+        }
+
+        TimedAccessCallback<T> timedCallback = new TimedAccessCallback<>(indexedCallback);
+        timedCallback.schedule(accessTable.get(index), getScheduler(), getTimeoutExecutor(), timeoutNanos);
+        return timedCallback;
+    }
+
+    /**
+     * Called when the access at a known index of the {@link #getAccessTable()} returns a result. By default this looks
+     * no further and calls {@link #onResult(DataAccessResult, AsyncDataAccess)}, but implementations should override it
+     * to use the given index instead of {@link #getAccessIndex(AsyncDataAccess)}.
+     *
+     * @param result      The result.
+     * @param access      The access which provided the result.
+     * @param accessIndex The index of the access which provided the result.
+     */
+    @Override
+    public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access, int accessIndex) {
+        onResult(result, access);
+    }
+
+    /**
+     * Called when the fetch deadline passes for the fetch which was using the given callback.
+     *
+     * @param fetchCallback The callback of the fetch whose deadline passed.
+     */
+    private void onDeadline(CancelableCallback<T> fetchCallback) {
+        final long generation;
+        synchronized (this) {
+            // Only time out if the same fetch is still running
+            if (currentCallback != fetchCallback) {
+                return;
+            }
+            generation = fetchGeneration;
+            close();
+        }
+        EVENT_LOG.record(FetchEventLog.Kind.FETCH_TIMED_OUT, dataHubDelegate.getDataHub().getId(), generation,
+                DataAccess.AccessTypeIds.NONE);
+
+        DataHubError error = DataHubError.newLightweight("Fetch did not finish within %d ms",
+                DataHubError.Types.TIMEOUT, null, TimeUnit.NANOSECONDS.toMillis(fetchDeadlineNanos));
+        dataHubDelegate.processResult(DataAccessResult.<T>fromError(error), null, generation);
+    }
+
+    /**
+     * Records the outcome of an access in the {@link FetchEventLog#getGlobalInstance()}.
+     */
+    private static void recordAccessResult(DataHub<?> dataHub, long generation, int typeId,
+                                           DataAccessResult<?> result) {
+        final boolean failed = (result == null) || (result.getError() != null);
+        EVENT_LOG.record(failed ? FetchEventLog.Kind.ACCESS_FAILED : FetchEventLog.Kind.ACCESS_FINISHED,
+                dataHub.getId(), generation, typeId);
     }
 
     /**
@@ -162,18 +404,19 @@ public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultPr
      * @return The index of the given access, or -1 if it was not found.
      */
     protected int getAccessIndex(AsyncDataAccess<T> access) {
-        return asyncDataAccesses.indexOf(access);
+        return accessTable.indexOf(access);
     }
 
     /**
      * Called when a result has been obtained and should be processed. This forwards the result along to the
-     * {@link OrderedDataHub}.
+     * {@link OrderedDataHub}, tagged with the generation of the fetch, so that the hub can discard it if the fetch has
+     * been superseded.
      *
      * @param result The result to process.
      * @param access The access that provided the result.
      */
     protected void processResult(DataAccessResult<T> result, AsyncDataAccess<T> access) {
-        getDataHubDelegate().processResult(result, access);
+        getDataHubDelegate().processResult(result, access, fetchGeneration);
     }
 
     /**
@@ -183,4 +426,121 @@ public abstract class BaseFetchStrategy<T> implements FetchStrategy<T>, ResultPr
      *                passed.
      */
     protected abstract void doFetch(int limitId);
+
+    /**
+     * Runnable for the scheduler which only hands the given work off to an executor, so that the scheduler's thread is
+     * never held up by it.
+     */
+    static class HandOffRunnable implements Runnable {
+        private final Executor executor;
+        private final Runnable work;
+
+        HandOffRunnable(Executor executor, Runnable work) {
+            this.executor = executor;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            executor.execute(work);
+        }
+    }
+
+    private class DeadlineRunnable implements Runnable {
+        private final CancelableCallback<T> fetchCallback;
+
+        DeadlineRunnable(CancelableCallback<T> fetchCallback) {
+            this.fetchCallback = fetchCallback;
+        }
+
+        @Override
+        public void run() {
+            onDeadline(fetchCallback);
+        }
+    }
+
+    /**
+     * Callback for a single access of a fetch which forwards results to the fetch's callback along with the index of
+     * the access, and reports the time the access took to the hub's metrics listeners.
+     *
+     * @param <T> The type of data being fetched.
+     */
+    private static class IndexedAccessCallback<T> implements AsyncDataAccess.AsyncDataCallback<T> {
+
+        private final CancelableCallback<T> fetchCallback;
+        private final int accessIndex;
+        private final DataHub<T> dataHub;
+        private final long generation;
+        private final int typeId;
+        private final long startNanos;
+        private final DataHubEvents.Sink eventSink;
+        private final Object eventToken;
+
+        IndexedAccessCallback(CancelableCallback<T> fetchCallback, int accessIndex, DataHub<T> dataHub,
+                              long generation, int typeId, DataHubEvents.Sink eventSink, Object eventToken) {
+            this.fetchCallback = fetchCallback;
+            this.accessIndex = accessIndex;
+            this.dataHub = dataHub;
+            this.generation = generation;
+            this.typeId = typeId;
+            this.startNanos = System.nanoTime();
+            this.eventSink = eventSink;
+            this.eventToken = eventToken;
+        }
+
+        @Override
+        public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access) {
+            if (eventSink != null) {
+                eventSink.endAccess(eventToken, dataHub, generation, typeId, result);
+            }
+            recordAccessResult(dataHub, generation, typeId, result);
+            dataHub.getFetchMetricsDispatcher().onAccessFinished(dataHub, generation, typeId, result,
+                    System.nanoTime() - startNanos);
+            fetchCallback.onResult(result, access, accessIndex);
+        }
+    }
+
+    /**
+     * Callback which forwards the first of either the access's result or a timeout error to the fetch's callback.
+     *
+     * @param <T> The type of data being fetched.
+     */
+    private static class TimedAccessCallback<T> implements AsyncDataAccess.AsyncDataCallback<T> {
+
+        private final IndexedAccessCallback<T> fetchCallback;
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        private volatile ScheduledFuture<?> timeoutFuture;
+
+        TimedAccessCallback(IndexedAccessCallback<T> fetchCallback) {
+            this.fetchCallback = fetchCallback;
+        }
+
+        void schedule(final AsyncDataAccess<T> access, ScheduledExecutorService scheduler, Executor executor,
+                      final long timeoutNanos) {
+            timeoutFuture = scheduler.schedule(new HandOffRunnable(executor, new Runnable() {
+                @Override
+                public void run() {
+                    if (completed.compareAndSet(false, true)) {
+                        EVENT_LOG.record(FetchEventLog.Kind.ACCESS_TIMED_OUT, fetchCallback.dataHub.getId(),
+                                fetchCallback.generation, fetchCallback.typeId);
+                        DataHubError error = DataHubError.newLightweight("Data Access %d did not respond within %d ms",
+                                DataHubError.Types.TIMEOUT, null, access.getTypeId(),
+                                TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+                        fetchCallback.onResult(DataAccessResult.<T>fromError(error), access);
+                    }
+                }
+            }), timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access) {
+            if (completed.compareAndSet(false, true)) {
+                ScheduledFuture<?> future = timeoutFuture;
+                if (future != null) {
+                    future.cancel(false);
+                }
+                fetchCallback.onResult(result, access);
+            }
+        }
+    }
 }
@@ -14,7 +14,7 @@ import java.lang.ref.WeakReference;
  */
 public class CancelableCallback<T> implements AsyncDataAccess.AsyncDataCallback<T> {
 
-    private WeakReference<ResultProcessor<T>> processorReference;
+    private volatile WeakReference<ResultProcessor<T>> processorReference;
 
     public CancelableCallback(ResultProcessor<T> processor) {
         this.processorReference = new WeakReference<>(processor);
@@ -24,7 +24,16 @@ public class CancelableCallback<T> implements AsyncDataAccess.AsyncDataCallback<
         this.processorReference = null;
     }
 
+    /**
+     * @return True if this callback has been cancelled or its {@link ResultProcessor} has been garbage collected, in
+     * which case any future results will be ignored.
+     */
+    public boolean isCanceled() {
+        return getProcessor() == null;
+    }
+
     protected ResultProcessor<T> getProcessor() {
+        WeakReference<ResultProcessor<T>> processorReference = this.processorReference;
         if (processorReference != null) {
             return processorReference.get();
         } else {
@@ -39,4 +48,21 @@ public class CancelableCallback<T> implements AsyncDataAccess.AsyncDataCallback<
             processor.onResult(result, access);
         }
     }
+
+    /**
+     * Called when the access at a known index returns a result. If the {@link ResultProcessor} is an
+     * {@link IndexedResultProcessor}, the index is passed along with the result.
+     *
+     * @param result      The result.
+     * @param access      The access which provided the result.
+     * @param accessIndex The index of the access which provided the result.
+     */
+    public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access, int accessIndex) {
+        ResultProcessor<T> processor = getProcessor();
+        if (processor instanceof IndexedResultProcessor) {
+            ((IndexedResultProcessor<T>) processor).onResult(result, access, accessIndex);
+        } else if (processor != null) {
+            processor.onResult(result, access);
+        }
+    }
 }
@@ -4,6 +4,17 @@ import com.raizlabs.datahub.access.AsyncDataAccess;
 import com.raizlabs.datahub.access.DataAccess;
 import com.raizlabs.datahub.access.DataAccessResult;
 import com.raizlabs.datahub.access.SyncDataAccess;
+import com.raizlabs.datahub.util.ThreadingUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class which contains some predefined {@link FetchStrategy} implementations for common uses.
@@ -30,7 +41,7 @@ public class FetchStrategies {
         protected void doFetch(int limitId) {
             SyncDataAccess<T> syncAccess = getDataHubDelegate().getSyncAccess();
             if (syncAccess != null && isFetching()) {
-                DataAccessResult<T> syncResult = syncAccess.get();
+                DataAccessResult<T> syncResult = getSyncResult(syncAccess);
                 // If the id matches the limit, we're done
                 if (syncAccess.getTypeId() == limitId) {
                     close();
@@ -43,27 +54,32 @@ public class FetchStrategies {
 
             // Don't continue if we're already done from any above logic
             if (isFetching()) {
-                // Start each access
-                for (AsyncDataAccess<T> access : getAsyncDataAccesses()) {
-                    access.get(getCurrentCallback());
-
-                    if (access.getTypeId() == limitId) {
-                        break;
-                    }
+                // Start each access up to the limit
+                final AccessTable<T> accesses = getAccessTable();
+                int lastIndex = accesses.indexOfTypeId(limitId);
+                if (lastIndex < 0) {
+                    lastIndex = accesses.size() - 1;
+                }
+                for (int i = 0; i <= lastIndex; i++) {
+                    startAccess(i);
                 }
             }
         }
 
         @Override
         public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access) {
+            onResult(result, access, getAccessIndex(access));
+        }
+
+        @Override
+        public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access, int index) {
             if (isFetching()) {
-                final int index = getAccessIndex(access);
                 // Only process the result if the index increased
                 if (index > getLastAsyncAccessIndex()) {
                     setLastAsyncAccessIndex(index);
                     // If this was the last one, finish everything
                     if ((access.getTypeId() == getFetchLimitId()) ||
-                            (index >= getAsyncDataAccesses().size() - 1)) {
+                            (index >= getAccessTable().size() - 1)) {
                         close();
                     }
 
@@ -73,6 +89,272 @@ public class FetchStrategies {
         }
     }
 
+    /**
+     * {@link Parallel} implementation which hedges slow accesses. Each access is started once as normal, but if it
+     * hasn't responded after a delay, the same access is started a second time. Whichever request responds first is
+     * used, and the other is cancelled through its {@link CancelableCallback}. This cuts tail latency at the cost of
+     * some duplicate requests.
+     * <p></p>
+     * The hedging delay for each access is the configured percentile of that access's recently observed latencies,
+     * so only the slowest requests are hedged. Until enough latencies have been observed, the default delay is used.
+     * <p></p>
+     * The hedging timers only hand the hedge off to the hedge executor (see {@link #setHedgeExecutor(Executor)}), so
+     * the hedge request is never started on the scheduler's thread.
+     *
+     * @param <T> {@inheritDoc}
+     */
+    public static class Hedged<T> extends Parallel<T> {
+
+        private static final int LATENCY_SAMPLES = 64;
+        private static final int MIN_LATENCY_SAMPLES = 8;
+
+        private final double percentile;
+        private final long defaultDelayNanos;
+        private final ScheduledExecutorService scheduler;
+        private Executor hedgeExecutor;
+
+        private final Map<AsyncDataAccess<T>, LatencyHistory> latencies = new HashMap<>();
+        private final List<HedgedRequest> activeRequests = new LinkedList<>();
+
+        /**
+         * Creates a new {@link Hedged} which runs its timers on the shared scheduler.
+         *
+         * @param percentile   The percentile of observed latencies after which to hedge a request, between 0 and 1.
+         *                     For example, 0.95 hedges requests which take longer than 95% of recent requests.
+         * @param defaultDelay The delay after which to hedge a request until enough latencies have been observed.
+         * @param unit         The unit of the default delay.
+         * @see ThreadingUtils#getSharedScheduler()
+         */
+        public Hedged(double percentile, long defaultDelay, TimeUnit unit) {
+            this(percentile, defaultDelay, unit, ThreadingUtils.getSharedScheduler());
+        }
+
+        /**
+         * Creates a new {@link Hedged} which runs its timers on the given scheduler.
+         *
+         * @param percentile   The percentile of observed latencies after which to hedge a request, between 0 and 1.
+         * @param defaultDelay The delay after which to hedge a request until enough latencies have been observed.
+         * @param unit         The unit of the default delay.
+         * @param scheduler    The scheduler to run hedging timers on.
+         */
+        public Hedged(double percentile, long defaultDelay, TimeUnit unit, ScheduledExecutorService scheduler) {
+            if (percentile <= 0 || percentile > 1) {
+                throw new IllegalArgumentException("Percentile must be greater than 0 and at most 1");
+            }
+            this.percentile = percentile;
+            this.defaultDelayNanos = unit.toNanos(defaultDelay);
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        protected void startAccess(int index) {
+            final AsyncDataAccess<T> access = getAccessTable().get(index);
+            final AsyncDataAccess.AsyncDataCallback<T> callback = createAccessCallback(index);
+            if (callback == null) {
+                // No fetch is running anymore, so there is nothing to start
+                return;
+            }
+
+            final HedgedRequest request = new HedgedRequest(access, callback);
+            synchronized (this) {
+                activeRequests.add(request);
+            }
+            request.start(getHedgeDelayNanos(access));
+        }
+
+        @Override
+        public synchronized void close() {
+            super.close();
+
+            for (HedgedRequest request : activeRequests) {
+                request.cancel();
+            }
+            activeRequests.clear();
+        }
+
+        /**
+         * Sets the executor which hedge requests are started on once their timer fires. By default, the timeout
+         * executor is used (see {@link #setTimeoutExecutor(Executor)}).
+         *
+         * @param executor The executor to use.
+         */
+        public synchronized void setHedgeExecutor(Executor executor) {
+            this.hedgeExecutor = executor;
+        }
+
+        /**
+         * @return The executor which hedge requests are started on.
+         */
+        protected synchronized Executor getHedgeExecutor() {
+            return (hedgeExecutor != null) ? hedgeExecutor : getTimeoutExecutor();
+        }
+
+        /**
+         * Returns the delay after which the given access should be hedged.
+         *
+         * @param access The access being started.
+         * @return The delay in nanoseconds.
+         */
+        protected long getHedgeDelayNanos(AsyncDataAccess<T> access) {
+            LatencyHistory history;
+            synchronized (latencies) {
+                history = latencies.get(access);
+            }
+            if (history == null) {
+                return defaultDelayNanos;
+            }
+
+            final long delay = history.getPercentile(percentile);
+            return (delay >= 0) ? delay : defaultDelayNanos;
+        }
+
+        private void recordLatency(AsyncDataAccess<T> access, long latencyNanos) {
+            LatencyHistory history;
+            synchronized (latencies) {
+                history = latencies.get(access);
+                if (history == null) {
+                    history = new LatencyHistory();
+                    latencies.put(access, history);
+                }
+            }
+            history.add(latencyNanos);
+        }
+
+        private synchronized void onRequestFinished(HedgedRequest request) {
+            activeRequests.remove(request);
+        }
+
+        /**
+         * A single access request for the current fetch, which may be made up of a primary and a hedge attempt.
+         */
+        private class HedgedRequest {
+
+            private final AsyncDataAccess<T> access;
+            private final AsyncDataAccess.AsyncDataCallback<T> fetchCallback;
+
+            private Attempt primary;
+            private Attempt hedge;
+            private ScheduledFuture<?> hedgeFuture;
+            private boolean finished;
+
+            HedgedRequest(AsyncDataAccess<T> access, AsyncDataAccess.AsyncDataCallback<T> fetchCallback) {
+                this.access = access;
+                this.fetchCallback = fetchCallback;
+            }
+
+            void start(long hedgeDelayNanos) {
+                final Executor executor = getHedgeExecutor();
+                final Attempt attempt;
+                synchronized (this) {
+                    primary = new Attempt();
+                    attempt = primary;
+                    hedgeFuture = scheduler.schedule(new HandOffRunnable(executor, new Runnable() {
+                        @Override
+                        public void run() {
+                            startHedge();
+                        }
+                    }), hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                }
+                attempt.start();
+            }
+
+            private void startHedge() {
+                final Attempt attempt;
+                synchronized (this) {
+                    if (finished) {
+                        return;
+                    }
+                    hedge = new Attempt();
+                    attempt = hedge;
+                }
+                attempt.start();
+            }
+
+            void cancel() {
+                synchronized (this) {
+                    finished = true;
+                    cancelAttempts();
+                }
+            }
+
+            private void cancelAttempts() {
+                if (hedgeFuture != null) {
+                    hedgeFuture.cancel(false);
+                }
+                if (primary != null) {
+                    primary.callback.cancel();
+                }
+                if (hedge != null) {
+                    hedge.callback.cancel();
+                }
+            }
+
+            private void onResult(DataAccessResult<T> result, Attempt attempt) {
+                final long latency;
+                synchronized (this) {
+                    if (finished) {
+                        return;
+                    }
+                    finished = true;
+                    // Measure the attempt which won, so the history reflects what the access actually delivers
+                    latency = System.nanoTime() - attempt.startNanos;
+                    cancelAttempts();
+                }
+
+                recordLatency(access, latency);
+                onRequestFinished(this);
+                fetchCallback.onResult(result, access);
+            }
+
+            /**
+             * A single call to the access, timed from when it was started.
+             */
+            private class Attempt implements ResultProcessor<T> {
+                // The request holds the attempt strongly, as the callback only holds a weak reference to it
+                private final CancelableCallback<T> callback = new CancelableCallback<>(this);
+                private long startNanos;
+
+                void start() {
+                    startNanos = System.nanoTime();
+                    access.get(callback);
+                }
+
+                @Override
+                public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access) {
+                    HedgedRequest.this.onResult(result, this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fixed size history of latencies which can report percentiles.
+     */
+    private static class LatencyHistory {
+        private final long[] samples = new long[Hedged.LATENCY_SAMPLES];
+        private int count;
+        private int next;
+
+        synchronized void add(long latency) {
+            samples[next] = latency;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+        }
+
+        synchronized long getPercentile(double percentile) {
+            if (count < Hedged.MIN_LATENCY_SAMPLES) {
+                return -1;
+            }
+
+            final long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            final int index = Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+            return sorted[Math.max(0, index)];
+        }
+    }
+
     /**
      * {@link FetchStrategy} implementation which queries each access in order until one of the responses is deemed
      * "final" or the last access is queried. This will send updates from each access as they are individually queried.
@@ -126,7 +408,7 @@ public class FetchStrategies {
 
             // Process the synchronous access
             if (syncAccess != null) {
-                DataAccessResult<T> syncResult = syncAccess.get();
+                DataAccessResult<T> syncResult = getSyncResult(syncAccess);
 
                 // If the id matches the limit, or the validator marks it as final, we're done
                 if ((syncAccess.getTypeId() == limitId) || dataFinalizer.isFinal(syncResult, syncAccess)) {
@@ -144,11 +426,14 @@ public class FetchStrategies {
 
         @Override
         public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access) {
-            if (isFetching()) {
-                final int index = getAccessIndex(access);
+            onResult(result, access, getAccessIndex(access));
+        }
 
+        @Override
+        public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access, int index) {
+            if (isFetching()) {
                 // If this is the last access, last access allowed by the limit, or the validator says it's done, terminate
-                if ((index >= getAsyncDataAccesses().size() - 1) ||
+                if ((index >= getAccessTable().size() - 1) ||
                         (access.getTypeId() == getFetchLimitId()) ||
                         dataFinalizer.isFinal(result, access)) {
                     close();
@@ -171,12 +456,12 @@ public class FetchStrategies {
             final int nextIndex = getLastAsyncAccessIndex() + 1;
 
             // Ran off the end? Shouldn't get here...close!
-            if (nextIndex >= getAsyncDataAccesses().size()) {
+            if (nextIndex >= getAccessTable().size()) {
                 close();
+                return;
             }
 
-            AsyncDataAccess<T> access = getAsyncDataAccesses().get(nextIndex);
-            access.get(getCurrentCallback());
+            startAccess(nextIndex);
         }
 
         /**
@@ -230,6 +515,26 @@ public class FetchStrategies {
                 };
             }
 
+            /**
+             * Creates a {@link DataFinalizer} which indicates that a result is final if it has data as determined by
+             * {@link DataAccessResult#hasData()} and the data is not stale as determined by
+             * {@link DataAccessResult#isStale()}. When used with a
+             * {@link com.raizlabs.datahub.access.TimedKeyedDataManager}, fresh cached data will stop later accesses
+             * from being queried, while stale cached data will be dispatched immediately and then revalidated by the
+             * later accesses.
+             *
+             * @param <T> The type of data being assessed.
+             * @return The created {@link DataFinalizer}.
+             */
+            public static <T> DataFinalizer<T> newFreshData() {
+                return new DataFinalizer<T>() {
+                    @Override
+                    public boolean isFinal(DataAccessResult<T> result, DataAccess access) {
+                        return result.hasData() && !result.isStale();
+                    }
+                };
+            }
+
             /**
              * Creates a {@link DataFinalizer} which indicates that a result is final if the data or the error are
              * non-null.
@@ -36,6 +36,12 @@ public interface FetchStrategy<T> {
          */
         List<AsyncDataAccess<U>> getAsyncAccesses();
 
+        /**
+         * @return The immutable {@link AccessTable} of all {@link AsyncDataAccess} that the hub is using. A new table
+         * is provided whenever the accesses change, so the returned table may be kept as a snapshot.
+         */
+        AccessTable<U> getAccessTable();
+
         /**
          * Called to notify the {@link OrderedDataHub} that a result has been retrieved.
          *
@@ -43,6 +49,17 @@ public interface FetchStrategy<T> {
          * @param access The access that produced the result.
          */
         void processResult(DataAccessResult<U> data, DataAccess access);
+
+        /**
+         * Called to notify the {@link OrderedDataHub} that a result has been retrieved by the fetch of the given
+         * generation. The result is discarded if the hub has since started a newer fetch.
+         *
+         * @param data       The result.
+         * @param access     The access that produced the result.
+         * @param generation The generation of the fetch which produced the result.
+         * @see com.raizlabs.datahub.hub.DataHub#getFetchGeneration()
+         */
+        void processResult(DataAccessResult<U> data, DataAccess access, long generation);
     }
 
     /**
@@ -0,0 +1,21 @@
+package com.raizlabs.datahub.hub.ordered;
+
+import com.raizlabs.datahub.access.AsyncDataAccess;
+import com.raizlabs.datahub.access.DataAccessResult;
+
+/**
+ * A {@link ResultProcessor} which can also be told the index of the access which provided a result, saving it from
+ * having to look the index up.
+ *
+ * @param <T> The type of data being processed.
+ */
+public interface IndexedResultProcessor<T> extends ResultProcessor<T> {
+    /**
+     * Called to process a result from the access at a known index.
+     *
+     * @param result      The result.
+     * @param access      The access which provided the result.
+     * @param accessIndex The index of the access in the {@link AccessTable} of the fetch it was started for.
+     */
+    void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access, int accessIndex);
+}
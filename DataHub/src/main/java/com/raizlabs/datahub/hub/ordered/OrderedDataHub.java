@@ -1,16 +1,26 @@
 package com.raizlabs.datahub.hub.ordered;
 
+import android.util.Log;
+
 import com.raizlabs.datahub.access.AsyncDataAccess;
 import com.raizlabs.datahub.access.DataAccess;
 import com.raizlabs.datahub.access.DataAccessResult;
 import com.raizlabs.datahub.access.SyncDataAccess;
 import com.raizlabs.datahub.hub.DataHub;
 import com.raizlabs.datahub.hub.DataHubResult;
+import com.raizlabs.datahub.hub.FetchPolicy;
+import com.raizlabs.datahub.metrics.DataHubEvents;
+import com.raizlabs.datahub.tracing.FetchTracer;
+import com.raizlabs.datahub.tracing.Span;
 
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A {@link DataHub} which contains a single {@link SyncDataAccess} and a set of ordered {@link AsyncDataAccess}. What
@@ -64,10 +74,26 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
             return new Builder<T>().setStrategy(new FetchStrategies.Serial<>(finalizer));
         }
 
+        /**
+         * Convenience method which constructs a new builder which leverages the
+         * {@link com.raizlabs.datahub.hub.ordered.FetchStrategies.Hedged} strategy.
+         *
+         * @param percentile   The percentile of observed latencies after which to hedge a request, between 0 and 1.
+         * @param defaultDelay The delay after which to hedge a request until enough latencies have been observed.
+         * @param unit         The unit of the default delay.
+         * @param <T>          The type of data being accessed.
+         * @return A builder to continue setting up the {@link OrderedDataHub}.
+         */
+        public static <T> Builder<T> newHedged(double percentile, long defaultDelay, TimeUnit unit) {
+            return new Builder<T>().setStrategy(new FetchStrategies.Hedged<T>(percentile, defaultDelay, unit));
+        }
+
         private FetchStrategy<T> strategy;
         private SyncDataAccess<T> synchronous;
         private List<AsyncDataAccess<T>> asynchronous;
         private boolean shouldBackport = true;
+        private Executor backportExecutor;
+        private FetchPolicy fetchPolicy = FetchPolicy.JOIN;
 
         /**
          * Sets the strategy that the {@link OrderedDataHub} will use to fetch and process data.
@@ -130,6 +156,30 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
             return this;
         }
 
+        /**
+         * Sets the {@link Executor} the {@link OrderedDataHub} should use to write backported data behind.
+         *
+         * @param backportExecutor The {@link Executor} to use, or null to backport immediately.
+         * @return This builder for chaining method calls.
+         * @see OrderedDataHub#setBackportExecutor(Executor)
+         */
+        public Builder<T> setBackportExecutor(Executor backportExecutor) {
+            this.backportExecutor = backportExecutor;
+            return this;
+        }
+
+        /**
+         * Sets what the {@link OrderedDataHub} does when a fetch is requested while another is running.
+         *
+         * @param fetchPolicy The policy to use.
+         * @return This builder for chaining method calls.
+         * @see OrderedDataHub#setFetchPolicy(FetchPolicy)
+         */
+        public Builder<T> setFetchPolicy(FetchPolicy fetchPolicy) {
+            this.fetchPolicy = fetchPolicy;
+            return this;
+        }
+
         /**
          * Builds and returns an {@link OrderedDataHub} according to the current configuration.
          *
@@ -141,15 +191,24 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
                 throw new IllegalStateException("Cannot build " + OrderedDataHub.class.getSimpleName() + " with no " + FetchStrategy.class.getSimpleName());
             }
 
-            return new OrderedDataHub<>(strategy, synchronous, asynchronous, shouldBackport);
+            OrderedDataHub<T> dataHub = new OrderedDataHub<>(strategy, synchronous, asynchronous, shouldBackport);
+            dataHub.setFetchPolicy(fetchPolicy);
+            dataHub.setBackportExecutor(backportExecutor);
+            return dataHub;
         }
     }
 
     private boolean shouldBackport;
 
+    private volatile Executor backportExecutor;
+    private final Object backportLock = new Object();
+    private final Object backportFlushLock = new Object();
+    private Map<AsyncDataAccess<Data>, Data> pendingBackports = new LinkedHashMap<>();
+    private boolean isBackportFlushScheduled;
+    private long pendingBackportGeneration = DataHubResult.NO_GENERATION;
+
     private SyncDataAccess<Data> syncDataAccess;
-    private List<AsyncDataAccess<Data>> asyncDataAccesses;
-    private List<AsyncDataAccess<Data>> publicDataAccesses;
+    private volatile AccessTable<Data> accessTable = AccessTable.empty();
     private FetchStrategy<Data> fetchStrategy;
 
     /**
@@ -202,6 +261,51 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
         this.shouldBackport = backport;
     }
 
+    /**
+     * Sets the {@link Executor} to write backported data to {@link AsyncDataAccess}es on. When set, backported data
+     * is queued instead of being imported on the processing thread, so slow accesses such as persistent storage don't
+     * hold up delivery of results to listeners. Queued data is coalesced per access, so only the latest value is
+     * written, and is flushed in a single batch on the executor. Any queued data is flushed when this hub is closed, and
+     * immediately if the executor rejects the flush.
+     * <p></p>
+     * The {@link SyncDataAccess} is always written immediately, so that {@link #getCurrent()} reflects the latest
+     * result.
+     *
+     * @param executor The {@link Executor} to write on, or null to write backported data immediately.
+     * @see #flushBackports()
+     */
+    public void setBackportExecutor(Executor executor) {
+        this.backportExecutor = executor;
+    }
+
+    /**
+     * Immediately writes any backported data which has been queued but not yet written, on the calling thread.
+     *
+     * @see #setBackportExecutor(Executor)
+     */
+    public void flushBackports() {
+        synchronized (backportFlushLock) {
+            final Map<AsyncDataAccess<Data>, Data> batch;
+            final long generation;
+            synchronized (backportLock) {
+                batch = pendingBackports;
+                pendingBackports = new LinkedHashMap<>();
+                isBackportFlushScheduled = false;
+                generation = pendingBackportGeneration;
+            }
+
+            final FetchTracer tracer = getSampledTracer(generation);
+            for (Map.Entry<AsyncDataAccess<Data>, Data> entry : batch.entrySet()) {
+                try {
+                    backport(entry.getKey(), entry.getValue(), tracer, generation);
+                } catch (RuntimeException e) {
+                    // Don't let one failing access stop the rest of the batch
+                    Log.e(getClass().getCanonicalName(), "Failed to backport data", e);
+                }
+            }
+        }
+    }
+
     /**
      * @return True if backporting is enabled, false if it is disabled.
      * @see #setShouldBackport(boolean)
@@ -230,7 +334,14 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
      * @return The list of {@link AsyncDataAccess} used for asynchronous access.
      */
     protected List<AsyncDataAccess<Data>> getAsyncDataAccesses() {
-        return publicDataAccesses;
+        return accessTable.getAccesses();
+    }
+
+    /**
+     * @return The immutable {@link AccessTable} of the {@link AsyncDataAccess} used for asynchronous access.
+     */
+    protected AccessTable<Data> getAccessTable() {
+        return accessTable;
     }
 
     /**
@@ -239,15 +350,10 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
      */
     protected void setAsyncDataAccesses(List<AsyncDataAccess<Data>> asynchronous) {
         if (asynchronous == null) {
-            asynchronous = new ArrayList<>(0);
+            this.accessTable = AccessTable.empty();
+        } else {
+            this.accessTable = new AccessTable<>(asynchronous);
         }
-        this.asyncDataAccesses = new LinkedList<>();
-        for (AsyncDataAccess<Data> access : asynchronous) {
-            if (access != null) {
-                this.asyncDataAccesses.add(access);
-            }
-        }
-        this.publicDataAccesses = new ArrayList<>(this.asyncDataAccesses);
     }
 
     @Override
@@ -276,19 +382,31 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
             syncDataAccess.importData(data);
         }
 
-        for (AsyncDataAccess<Data> access : asyncDataAccesses) {
-            access.importData(data);
+        // Queued backports are older than this data, so make sure they don't overwrite it
+        synchronized (backportFlushLock) {
+            synchronized (backportLock) {
+                pendingBackports.clear();
+            }
+
+            final AccessTable<Data> accesses = accessTable;
+            for (int i = 0; i < accesses.size(); i++) {
+                accesses.get(i).importData(data);
+            }
         }
     }
 
     @Override
     public void doClose() {
+        // Write out anything still queued before the accesses are closed
+        flushBackports();
+
         if (syncDataAccess != null) {
             syncDataAccess.close();
         }
 
-        for (AsyncDataAccess<Data> access : asyncDataAccesses) {
-            access.close();
+        final AccessTable<Data> accesses = accessTable;
+        for (int i = 0; i < accesses.size(); i++) {
+            accesses.get(i).close();
         }
 
         fetchStrategy.close();
@@ -299,27 +417,101 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
         return fetchStrategy.isFetching();
     }
 
+    @Override
+    protected void doCancelFetch() {
+        // Closing the strategy stops the current fetch, leaving it able to start another
+        fetchStrategy.close();
+    }
+
     @Override
     protected void onResultFetched(DataHubResult<Data> dataResult) {
         super.onResultFetched(dataResult);
 
         if (shouldBackport() && shouldBackportResult(dataResult)) {
             Data data = dataResult.getData();
+            final long generation = dataResult.getGeneration();
+            final FetchTracer tracer = getSampledTracer(generation);
 
             if (syncDataAccess != null) {
-                syncDataAccess.importData(data);
+                backport(syncDataAccess, data, tracer, generation);
+            }
+
+            // Stop when we hit the same access type
+            final AccessTable<Data> accesses = accessTable;
+            int end = accesses.indexOfTypeId(dataResult.getAccessTypeId());
+            if (end < 0) {
+                end = accesses.size();
             }
 
-            for (AsyncDataAccess<Data> access : asyncDataAccesses) {
-                // Stop when we hit the same access type
-                if (access.getTypeId() == dataResult.getAccessTypeId()) {
-                    break;
+            final Executor executor = backportExecutor;
+            if (executor == null) {
+                for (int i = 0; i < end; i++) {
+                    backport(accesses.get(i), data, tracer, generation);
+                }
+            } else if (end > 0) {
+                boolean shouldSchedule;
+                synchronized (backportLock) {
+                    for (int i = 0; i < end; i++) {
+                        pendingBackports.put(accesses.get(i), data);
+                    }
+                    pendingBackportGeneration = generation;
+                    shouldSchedule = !isBackportFlushScheduled;
+                    isBackportFlushScheduled = true;
+                }
+
+                if (shouldSchedule) {
+                    try {
+                        executor.execute(backportFlushRunnable);
+                    } catch (RejectedExecutionException e) {
+                        // Such as if the executor has been shut down. Write on this thread instead, which also clears
+                        // the scheduled flag so that later backports aren't left queued forever.
+                        flushBackports();
+                    }
                 }
-                access.importData(data);
             }
         }
     }
 
+    /**
+     * Imports the given data into the given access as a backport, recording a span if the fetch is being traced and
+     * reporting it to the {@link DataHubEvents} sink if there is one.
+     *
+     * @param access     The access to import into.
+     * @param data       The data to import.
+     * @param tracer     The tracer to record a span with, or null if the fetch isn't being traced.
+     * @param generation The generation of the fetch which produced the data.
+     */
+    private void backport(DataAccess<Data> access, Data data, FetchTracer tracer, long generation) {
+        final DataHubEvents.Sink eventSink = DataHubEvents.getSink();
+        if ((tracer == null) && (eventSink == null)) {
+            access.importData(data);
+            return;
+        }
+
+        final int typeId = access.getTypeId();
+        final Object eventToken = (eventSink != null) ? eventSink.beginBackport(this, generation, typeId) : null;
+        final long startNanos = System.nanoTime();
+        try {
+            access.importData(data);
+        } finally {
+            if (eventSink != null) {
+                eventSink.endBackport(eventToken, this, generation, typeId);
+            }
+            if (tracer != null) {
+                tracer.recordSpan(this, generation, Span.Kind.BACKPORT, typeId, startNanos, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * @param generation The generation of a fetch.
+     * @return The {@link FetchTracer} if the given fetch is being traced, or null if it isn't.
+     */
+    private FetchTracer getSampledTracer(long generation) {
+        final FetchTracer tracer = getFetchTracer();
+        return ((tracer != null) && tracer.isSampled(this, generation)) ? tracer : null;
+    }
+
     /**
      * Called to check if this specific result should be backported. Only called if {@link #shouldBackport()} is true.
      *
@@ -339,15 +531,33 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
      * @param access The access that produced the result.
      */
     protected void processResult(DataAccessResult<Data> data, DataAccess access) {
-        synchronized (getStateLock()) {
-            if (!isClosed()) {
-                int accessId = (access != null) ? access.getTypeId() : DataAccess.AccessTypeIds.NONE;
-                DataHubResult<Data> result = new DataHubResult<>(data, accessId, isFetching());
-                onResult(result);
-            }
+        processResult(data, access, getFetchGeneration());
+    }
+
+    /**
+     * Notifies this {@link OrderedDataHub} that a result has come back from the fetch of the given generation and
+     * should be processed and sent to listeners. Results from fetches which have since been superseded are discarded.
+     * This does not take the state lock, so accesses may call back from any number of threads without contending.
+     *
+     * @param data       The result.
+     * @param access     The access that produced the result.
+     * @param generation The generation of the fetch which produced the result.
+     */
+    protected void processResult(DataAccessResult<Data> data, DataAccess access, long generation) {
+        if (isCurrentGeneration(generation)) {
+            int accessId = (access != null) ? access.getTypeId() : DataAccess.AccessTypeIds.NONE;
+            DataHubResult<Data> result = new DataHubResult<>(data, accessId, isFetching(), generation);
+            onResult(result);
         }
     }
 
+    private final Runnable backportFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushBackports();
+        }
+    };
+
     private final FetchStrategy.DataHubDelegate<Data> fetchStrategyDelegate = new FetchStrategy.DataHubDelegate<Data>() {
         @Override
         public OrderedDataHub<Data> getDataHub() {
@@ -364,9 +574,19 @@ public class OrderedDataHub<Data> extends DataHub<Data> {
             return getAsyncDataAccesses();
         }
 
+        @Override
+        public AccessTable<Data> getAccessTable() {
+            return OrderedDataHub.this.getAccessTable();
+        }
+
         @Override
         public void processResult(DataAccessResult<Data> data, DataAccess access) {
             OrderedDataHub.this.processResult(data, access);
         }
+
+        @Override
+        public void processResult(DataAccessResult<Data> data, DataAccess access, long generation) {
+            OrderedDataHub.this.processResult(data, access, generation);
+        }
     };
 }
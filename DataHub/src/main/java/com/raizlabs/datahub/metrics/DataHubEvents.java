@@ -0,0 +1,140 @@
+package com.raizlabs.datahub.metrics;
+
+import com.raizlabs.datahub.DataHubError;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.DataHub;
+import com.raizlabs.datahub.hub.DataHubResult;
+
+/**
+ * A process wide hook for low level events from every {@link DataHub}, intended for feeding an event based profiler
+ * such as Java Flight Recorder, so that hub activity can be lined up with GC, lock and I/O events in the same
+ * timeline. No {@link Sink} is installed by default, in which case each event site costs a single read and null
+ * check.
+ * <p></p>
+ * Timed events are reported as a begin and end pair. The object returned from a begin call is passed back to the
+ * matching end call, so a sink can return an event it has started and commit it at the end. For example, with JFR a
+ * sink can return a started {@code jdk.jfr.Event} subclass from {@link Sink#beginAccess(DataHub, long, int)} and set
+ * its fields and call {@code commit()} in {@link Sink#endAccess(Object, DataHub, long, int, DataAccessResult)}. End
+ * calls are made on whichever thread the operation finished on, which may differ from the one it began on.
+ * <p></p>
+ * Fetches which are superseded or closed before producing their final result are begun but never ended.
+ */
+public final class DataHubEvents {
+
+    /**
+     * Interface which receives the events of every {@link DataHub}. Methods are called inline on hot paths, so they
+     * must be thread safe and return quickly.
+     */
+    public interface Sink {
+        /**
+         * Called when a fetch is started.
+         *
+         * @param dataHub    The hub which is fetching.
+         * @param generation The generation of the fetch.
+         * @return An object to pass to {@link #endFetch(Object, DataHub, long)}, which may be null.
+         */
+        Object beginFetch(DataHub<?> dataHub, long generation);
+
+        /**
+         * Called when a fetch produces its final result.
+         *
+         * @param token      The object returned from {@link #beginFetch(DataHub, long)}.
+         * @param dataHub    The hub which was fetching.
+         * @param generation The generation of the fetch.
+         */
+        void endFetch(Object token, DataHub<?> dataHub, long generation);
+
+        /**
+         * Called when an access is started as part of a fetch.
+         *
+         * @param dataHub      The hub which is fetching.
+         * @param generation   The generation of the fetch.
+         * @param accessTypeId The type ID of the access.
+         * @return An object to pass to {@link #endAccess(Object, DataHub, long, int, DataAccessResult)}, which may be
+         * null.
+         */
+        Object beginAccess(DataHub<?> dataHub, long generation, int accessTypeId);
+
+        /**
+         * Called when an access returns a result or times out.
+         *
+         * @param token        The object returned from {@link #beginAccess(DataHub, long, int)}.
+         * @param dataHub      The hub which is fetching.
+         * @param generation   The generation of the fetch.
+         * @param accessTypeId The type ID of the access.
+         * @param result       The result which was returned.
+         */
+        void endAccess(Object token, DataHub<?> dataHub, long generation, int accessTypeId,
+                       DataAccessResult<?> result);
+
+        /**
+         * Called when a result starts being dispatched to the hub's listeners.
+         *
+         * @param dataHub The hub which is dispatching.
+         * @param result  The result being dispatched.
+         * @return An object to pass to {@link #endDispatch(Object, DataHub, DataHubResult)}, which may be null.
+         */
+        Object beginDispatch(DataHub<?> dataHub, DataHubResult<?> result);
+
+        /**
+         * Called when a result has been dispatched to all of the hub's listeners.
+         *
+         * @param token   The object returned from {@link #beginDispatch(DataHub, DataHubResult)}.
+         * @param dataHub The hub which dispatched.
+         * @param result  The result which was dispatched.
+         */
+        void endDispatch(Object token, DataHub<?> dataHub, DataHubResult<?> result);
+
+        /**
+         * Called when a fetched result starts being imported into an access as a backport.
+         *
+         * @param dataHub      The hub which fetched the result.
+         * @param generation   The generation of the fetch which produced the result.
+         * @param accessTypeId The type ID of the access being imported into.
+         * @return An object to pass to {@link #endBackport(Object, DataHub, long, int)}, which may be null.
+         */
+        Object beginBackport(DataHub<?> dataHub, long generation, int accessTypeId);
+
+        /**
+         * Called when a backport import has finished, whether or not it succeeded.
+         *
+         * @param token        The object returned from {@link #beginBackport(DataHub, long, int)}.
+         * @param dataHub      The hub which fetched the result.
+         * @param generation   The generation of the fetch which produced the result.
+         * @param accessTypeId The type ID of the access which was imported into.
+         */
+        void endBackport(Object token, DataHub<?> dataHub, long generation, int accessTypeId);
+
+        /**
+         * Called when a {@link DataHubError} is created, once it has been fully constructed. Shared errors are only
+         * reported the first time they are created. Subclasses of {@link DataHubError} are reported when they call
+         * its reportCreated() method.
+         *
+         * @param error The error which was created.
+         */
+        void onErrorCreated(DataHubError error);
+    }
+
+    private static volatile Sink sink;
+
+    private DataHubEvents() {
+
+    }
+
+    /**
+     * Installs the sink to receive events from every {@link DataHub}.
+     *
+     * @param eventSink The sink to install, or null to disable events.
+     */
+    public static void setSink(Sink eventSink) {
+        sink = eventSink;
+    }
+
+    /**
+     * @return The installed sink, or null if events are disabled. Event sites read this once and skip all event work
+     * if it is null.
+     */
+    public static Sink getSink() {
+        return sink;
+    }
+}
@@ -0,0 +1,272 @@
+package com.raizlabs.datahub.metrics;
+
+import com.raizlabs.datahub.access.DataAccess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, lock-free ring buffer of compact fetch events, kept for post-mortem diagnostics of hung or slow
+ * fetches. The library records into the {@link #getGlobalInstance()} from the fetch strategies and hub dispatch paths
+ * at all times, and the buffer can be decoded on demand through {@link #getEntries()} or {@link #dump()}, such as
+ * from a crash or bug report handler.
+ * <p></p>
+ * Each event is five longs in a preallocated {@link AtomicLongArray}, so recording never allocates or blocks and is
+ * cheap enough to leave enabled under full load. Once full, the oldest events are overwritten. Each slot carries the
+ * sequence number of the event in it, which readers check before and after reading the slot, so events which are
+ * overwritten mid-read are skipped. This is best effort: an event which is overwritten by a writer that laps the buffer
+ * while it is still being written may be decoded with mixed fields.
+ */
+public class FetchEventLog {
+
+    /**
+     * The kinds of events which are recorded.
+     */
+    public enum Kind {
+        /**
+         * A fetch was started.
+         */
+        FETCH_STARTED,
+        /**
+         * A fetch produced its final result.
+         */
+        FETCH_FINISHED,
+        /**
+         * A fetch did not finish before its deadline and was closed.
+         */
+        FETCH_TIMED_OUT,
+        /**
+         * An access was started as part of a fetch.
+         */
+        ACCESS_STARTED,
+        /**
+         * An access returned a result without an error.
+         */
+        ACCESS_FINISHED,
+        /**
+         * An access returned an error, including a timeout.
+         */
+        ACCESS_FAILED,
+        /**
+         * An access did not respond before its timeout.
+         */
+        ACCESS_TIMED_OUT,
+        /**
+         * A result was dispatched to the hub's listeners.
+         */
+        RESULT_DISPATCHED
+    }
+
+    /**
+     * The default number of events kept by the {@link #getGlobalInstance()}.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final FetchEventLog GLOBAL_INSTANCE = new FetchEventLog(DEFAULT_CAPACITY);
+    private static final Kind[] KINDS = Kind.values();
+
+    // Each slot is the sequence stamp followed by the hub ID, generation, type ID and kind, and time
+    private static final int SLOT_WIDTH = 5;
+    private static final int OFFSET_HUB_ID = 1;
+    private static final int OFFSET_GENERATION = 2;
+    private static final int OFFSET_TYPE_AND_KIND = 3;
+    private static final int OFFSET_NANO_TIME = 4;
+    private static final long STAMP_WRITING = 0;
+
+    /**
+     * @return The shared log which the library records into.
+     */
+    public static FetchEventLog getGlobalInstance() {
+        return GLOBAL_INSTANCE;
+    }
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * Creates a {@link FetchEventLog} which keeps at least the given number of most recent events.
+     *
+     * @param capacity The minimum number of events to keep. This is rounded up to a power of two.
+     */
+    public FetchEventLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicLongArray(size * SLOT_WIDTH);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return The number of most recent events which are kept.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Records an event. This never allocates or blocks.
+     *
+     * @param kind         The kind of event.
+     * @param dataHubId    The {@link com.raizlabs.datahub.hub.DataHub#getId()} of the hub the event is for.
+     * @param generation   The generation of the fetch the event is for.
+     * @param accessTypeId The type ID of the access the event is for, or {@link DataAccess.AccessTypeIds#NONE}.
+     */
+    public void record(Kind kind, long dataHubId, long generation, int accessTypeId) {
+        final long nanoTime = System.nanoTime();
+        final long sequence = cursor.getAndIncrement();
+        final int base = (int) (sequence & mask) * SLOT_WIDTH;
+
+        // Mark the slot as being written so readers skip it until it is complete
+        slots.set(base, STAMP_WRITING);
+        slots.lazySet(base + OFFSET_HUB_ID, dataHubId);
+        slots.lazySet(base + OFFSET_GENERATION, generation);
+        slots.lazySet(base + OFFSET_TYPE_AND_KIND, ((long) accessTypeId << 32) | kind.ordinal());
+        slots.lazySet(base + OFFSET_NANO_TIME, nanoTime);
+        slots.set(base, sequence + 1);
+    }
+
+    /**
+     * Decodes the events currently in the log. Events recorded while decoding may or may not be included.
+     *
+     * @return The events, oldest first.
+     */
+    public List<Entry> getEntries() {
+        final long end = cursor.get();
+        final long start = Math.max(0, end - getCapacity());
+
+        final List<Entry> entries = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            final int base = (int) (sequence & mask) * SLOT_WIDTH;
+            final long stamp = slots.get(base);
+            if (stamp != sequence + 1) {
+                // Still being written, or already overwritten
+                continue;
+            }
+
+            final long dataHubId = slots.get(base + OFFSET_HUB_ID);
+            final long generation = slots.get(base + OFFSET_GENERATION);
+            final long typeAndKind = slots.get(base + OFFSET_TYPE_AND_KIND);
+            final long nanoTime = slots.get(base + OFFSET_NANO_TIME);
+            if (slots.get(base) != stamp) {
+                continue;
+            }
+
+            final int kindIndex = (int) typeAndKind;
+            if ((kindIndex >= 0) && (kindIndex < KINDS.length)) {
+                entries.add(new Entry(sequence, KINDS[kindIndex], dataHubId, generation, (int) (typeAndKind >> 32),
+                        nanoTime));
+            }
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Decodes the events currently in the log of the given hub.
+     *
+     * @param dataHubId The {@link com.raizlabs.datahub.hub.DataHub#getId()} of the hub.
+     * @return The hub's events, oldest first.
+     */
+    public List<Entry> getEntries(long dataHubId) {
+        final List<Entry> entries = new ArrayList<>();
+        for (Entry entry : getEntries()) {
+            if (entry.getDataHubId() == dataHubId) {
+                entries.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Decodes the events currently in the log into a human readable form, one event per line, with times relative to
+     * the newest event.
+     *
+     * @return The decoded events, oldest first.
+     */
+    public String dump() {
+        final List<Entry> entries = getEntries();
+        if (entries.isEmpty()) {
+            return "";
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        final long newestNanos = entries.get(entries.size() - 1).getNanoTime();
+        for (Entry entry : entries) {
+            builder.append(String.format("#%d %+.3fms hub=%d gen=%d %s access=%d%n", entry.getSequence(),
+                    (entry.getNanoTime() - newestNanos) / 1e6, entry.getDataHubId(), entry.getGeneration(),
+                    entry.getKind(), entry.getAccessTypeId()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A single decoded event.
+     */
+    public static class Entry {
+        private final long sequence;
+        private final Kind kind;
+        private final long dataHubId;
+        private final long generation;
+        private final int accessTypeId;
+        private final long nanoTime;
+
+        Entry(long sequence, Kind kind, long dataHubId, long generation, int accessTypeId, long nanoTime) {
+            this.sequence = sequence;
+            this.kind = kind;
+            this.dataHubId = dataHubId;
+            this.generation = generation;
+            this.accessTypeId = accessTypeId;
+            this.nanoTime = nanoTime;
+        }
+
+        /**
+         * @return The position of the event among all events recorded into the log.
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * @return The kind of event.
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return The ID of the hub the event is for.
+         */
+        public long getDataHubId() {
+            return dataHubId;
+        }
+
+        /**
+         * @return The generation of the fetch the event is for.
+         */
+        public long getGeneration() {
+            return generation;
+        }
+
+        /**
+         * @return The type ID of the access the event is for, or {@link DataAccess.AccessTypeIds#NONE}.
+         */
+        public int getAccessTypeId() {
+            return accessTypeId;
+        }
+
+        /**
+         * @return The time the event was recorded, from {@link System#nanoTime()}.
+         */
+        public long getNanoTime() {
+            return nanoTime;
+        }
+    }
+}
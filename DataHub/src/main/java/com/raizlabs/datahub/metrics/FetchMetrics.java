@@ -0,0 +1,293 @@
+package com.raizlabs.datahub.metrics;
+
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.DataHub;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link FetchMetricsListener} which aggregates fetch and access metrics in fixed memory without locking. For each
+ * access type ID it counts hits (results with data), misses (results without data or error) and errors, and records
+ * latencies in a {@link LatencyHistogram}. It also records the start to finish duration of fetches. The same instance
+ * may be added to any number of hubs to aggregate across them.
+ * <p></p>
+ * Type IDs are tracked in a fixed size table. Once it is full, any further type IDs are aggregated together under
+ * {@link #OVERFLOW_TYPE_ID}. Metrics are read through {@link #snapshot()}. Each counter and bucket is read atomically,
+ * but not all of them at once, so a snapshot taken while fetches are running is not a point in time view. For example,
+ * an access's hit count may already include a result whose latency isn't in its histogram yet.
+ */
+public class FetchMetrics implements FetchMetricsListener {
+
+    /**
+     * The default number of distinct access type IDs which are tracked individually.
+     */
+    public static final int DEFAULT_MAX_ACCESS_TYPES = 16;
+
+    /**
+     * The type ID under which accesses are aggregated once {@link #DEFAULT_MAX_ACCESS_TYPES}, or the maximum given to
+     * the constructor, distinct type IDs are being tracked. This is chosen so as not to collide with any of the
+     * {@link com.raizlabs.datahub.access.DataAccess.AccessTypeIds}.
+     */
+    public static final int OVERFLOW_TYPE_ID = Integer.MIN_VALUE;
+
+    private final AtomicReferenceArray<AccessMetrics> accessMetrics;
+    private final int accessMask;
+    private final int maxAccessTypes;
+    private final AtomicInteger accessTypeCount = new AtomicInteger();
+    private final AccessMetrics overflowMetrics = new AccessMetrics(OVERFLOW_TYPE_ID);
+
+    private final AtomicLong fetchStartedCount = new AtomicLong();
+    private final LatencyHistogram fetchDurations = new LatencyHistogram();
+
+    /**
+     * Creates a {@link FetchMetrics} which tracks up to {@link #DEFAULT_MAX_ACCESS_TYPES} access type IDs.
+     */
+    public FetchMetrics() {
+        this(DEFAULT_MAX_ACCESS_TYPES);
+    }
+
+    /**
+     * Creates a {@link FetchMetrics} which tracks up to the given number of access type IDs.
+     *
+     * @param maxAccessTypes The maximum number of distinct access type IDs to track individually.
+     */
+    public FetchMetrics(int maxAccessTypes) {
+        if (maxAccessTypes <= 0) {
+            throw new IllegalArgumentException("Must track at least one access type");
+        }
+
+        int capacity = 2;
+        while (capacity < maxAccessTypes * 2) {
+            capacity <<= 1;
+        }
+        this.accessMetrics = new AtomicReferenceArray<>(capacity);
+        this.accessMask = capacity - 1;
+        this.maxAccessTypes = maxAccessTypes;
+    }
+
+    //region FetchMetricsListener
+
+    @Override
+    public void onFetchStarted(DataHub<?> dataHub, long generation) {
+        fetchStartedCount.incrementAndGet();
+    }
+
+    @Override
+    public void onAccessStarted(DataHub<?> dataHub, long generation, int accessTypeId) {
+
+    }
+
+    @Override
+    public void onAccessFinished(DataHub<?> dataHub, long generation, int accessTypeId, DataAccessResult<?> result,
+                                 long latencyNanos) {
+        getAccessMetrics(accessTypeId).record(result, latencyNanos);
+    }
+
+    @Override
+    public void onFetchFinished(DataHub<?> dataHub, long generation, long durationNanos) {
+        fetchDurations.record(durationNanos);
+    }
+    //endregion FetchMetricsListener
+
+    /**
+     * @return A snapshot of all metrics recorded so far.
+     */
+    public Snapshot snapshot() {
+        final Map<Integer, AccessSnapshot> accesses = new LinkedHashMap<>();
+        for (int i = 0; i < accessMetrics.length(); i++) {
+            final AccessMetrics metrics = accessMetrics.get(i);
+            if (metrics != null) {
+                accesses.put(metrics.typeId, metrics.snapshot());
+            }
+        }
+
+        final AccessSnapshot overflow = overflowMetrics.snapshot();
+        if (overflow.getCount() > 0 && !accesses.containsKey(OVERFLOW_TYPE_ID)) {
+            accesses.put(OVERFLOW_TYPE_ID, overflow);
+        }
+
+        return new Snapshot(fetchStartedCount.get(), fetchDurations.snapshot(),
+                Collections.unmodifiableMap(accesses));
+    }
+
+    private AccessMetrics getAccessMetrics(int typeId) {
+        int slot = mix(typeId) & accessMask;
+        // The table is at most half full, so there is always an empty slot to end the probe
+        while (true) {
+            AccessMetrics metrics = accessMetrics.get(slot);
+            if (metrics == null) {
+                if (accessTypeCount.incrementAndGet() > maxAccessTypes) {
+                    accessTypeCount.decrementAndGet();
+                    return overflowMetrics;
+                }
+
+                // Only allocates the first time a type ID is seen
+                final AccessMetrics created = new AccessMetrics(typeId);
+                if (accessMetrics.compareAndSet(slot, null, created)) {
+                    return created;
+                }
+                accessTypeCount.decrementAndGet();
+                metrics = accessMetrics.get(slot);
+            }
+
+            if (metrics.typeId == typeId) {
+                return metrics;
+            }
+            slot = (slot + 1) & accessMask;
+        }
+    }
+
+    private static int mix(int value) {
+        final int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    //region Inner Classes
+    private static class AccessMetrics {
+        final int typeId;
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final LatencyHistogram latencies = new LatencyHistogram();
+
+        AccessMetrics(int typeId) {
+            this.typeId = typeId;
+        }
+
+        void record(DataAccessResult<?> result, long latencyNanos) {
+            if ((result == null) || (result.getError() != null)) {
+                errors.incrementAndGet();
+            } else if (result.hasData()) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+            }
+            latencies.record(latencyNanos);
+        }
+
+        AccessSnapshot snapshot() {
+            return new AccessSnapshot(typeId, hits.get(), misses.get(), errors.get(), latencies.snapshot());
+        }
+    }
+
+    /**
+     * An immutable snapshot of the metrics of a single access type ID.
+     */
+    public static class AccessSnapshot {
+        private final int typeId;
+        private final long hitCount;
+        private final long missCount;
+        private final long errorCount;
+        private final LatencyHistogram.Snapshot latencies;
+
+        AccessSnapshot(int typeId, long hitCount, long missCount, long errorCount,
+                       LatencyHistogram.Snapshot latencies) {
+            this.typeId = typeId;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.errorCount = errorCount;
+            this.latencies = latencies;
+        }
+
+        /**
+         * @return The access type ID these metrics are for.
+         */
+        public int getTypeId() {
+            return typeId;
+        }
+
+        /**
+         * @return The number of results which had data.
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * @return The number of results which had neither data nor an error.
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * @return The number of results which had an error, including timeouts.
+         */
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * @return The total number of results.
+         */
+        public long getCount() {
+            return hitCount + missCount + errorCount;
+        }
+
+        /**
+         * @return The ratio of results which had data, or 0 if there have been no results.
+         */
+        public double getHitRate() {
+            final long count = getCount();
+            return (count == 0) ? 0 : ((double) hitCount / count);
+        }
+
+        /**
+         * @return The latencies of the access, in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot getLatencies() {
+            return latencies;
+        }
+    }
+
+    /**
+     * An immutable snapshot of a {@link FetchMetrics}.
+     */
+    public static class Snapshot {
+        private final long fetchStartedCount;
+        private final LatencyHistogram.Snapshot fetchDurations;
+        private final Map<Integer, AccessSnapshot> accesses;
+
+        Snapshot(long fetchStartedCount, LatencyHistogram.Snapshot fetchDurations,
+                 Map<Integer, AccessSnapshot> accesses) {
+            this.fetchStartedCount = fetchStartedCount;
+            this.fetchDurations = fetchDurations;
+            this.accesses = accesses;
+        }
+
+        /**
+         * @return The number of fetches which were started.
+         */
+        public long getFetchStartedCount() {
+            return fetchStartedCount;
+        }
+
+        /**
+         * @return The start to finish durations of fetches which finished, in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot getFetchDurations() {
+            return fetchDurations;
+        }
+
+        /**
+         * @return The metrics of every access type ID which has returned a result, keyed by type ID.
+         */
+        public Map<Integer, AccessSnapshot> getAccesses() {
+            return accesses;
+        }
+
+        /**
+         * @param typeId The access type ID to get the metrics of.
+         * @return The metrics of the given access type ID, or null if it hasn't returned any results.
+         */
+        public AccessSnapshot getAccess(int typeId) {
+            return accesses.get(typeId);
+        }
+    }
+    //endregion Inner Classes
+}
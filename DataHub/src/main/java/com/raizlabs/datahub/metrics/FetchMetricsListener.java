@@ -0,0 +1,54 @@
+package com.raizlabs.datahub.metrics;
+
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.DataHub;
+
+/**
+ * Listener interface which is notified of the timing and outcome of fetches and of the individual accesses which make
+ * them up. Listeners are added to a hub through {@link DataHub#addFetchMetricsListener(FetchMetricsListener)}.
+ * <p></p>
+ * Callbacks are made inline on whichever thread the event happens on, including access callback threads, so
+ * implementations must be thread safe and should return quickly. See {@link FetchMetrics} for a lock-free
+ * implementation which aggregates latencies and outcomes.
+ */
+public interface FetchMetricsListener {
+    /**
+     * Called when a fetch is started.
+     *
+     * @param dataHub    The hub which is fetching.
+     * @param generation The generation of the fetch.
+     */
+    void onFetchStarted(DataHub<?> dataHub, long generation);
+
+    /**
+     * Called when an access is started as part of a fetch.
+     *
+     * @param dataHub      The hub which is fetching.
+     * @param generation   The generation of the fetch.
+     * @param accessTypeId The type ID of the access.
+     */
+    void onAccessStarted(DataHub<?> dataHub, long generation, int accessTypeId);
+
+    /**
+     * Called when an access which was started as part of a fetch returns a result, whether or not the result ends up
+     * being used. Accesses which time out report their timeout error.
+     *
+     * @param dataHub      The hub which is fetching.
+     * @param generation   The generation of the fetch.
+     * @param accessTypeId The type ID of the access.
+     * @param result       The result which was returned.
+     * @param latencyNanos The time between starting the access and it returning, in nanoseconds.
+     */
+    void onAccessFinished(DataHub<?> dataHub, long generation, int accessTypeId, DataAccessResult<?> result,
+                          long latencyNanos);
+
+    /**
+     * Called when a fetch produces its final result. Fetches which are superseded or closed before finishing are not
+     * reported.
+     *
+     * @param dataHub       The hub which was fetching.
+     * @param generation    The generation of the fetch.
+     * @param durationNanos The time between starting the fetch and its final result, in nanoseconds.
+     */
+    void onFetchFinished(DataHub<?> dataHub, long generation, long durationNanos);
+}
@@ -0,0 +1,159 @@
+package com.raizlabs.datahub.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-memory, lock-free histogram of non-negative values such as latencies in nanoseconds. Values are counted in
+ * logarithmic buckets: each power of two is split into {@value #SUB_BUCKET_COUNT} linear sub-buckets, so any recorded
+ * value is reported with a relative error of at most 25%, across the full range of a long, in about 2KB.
+ * <p></p>
+ * Recording is a handful of atomic increments and never allocates or blocks, so it is safe to do on hot paths from
+ * many threads. Recorded values are read through {@link #snapshot()}, which copies each bucket atomically but not all
+ * of them at once, so values recorded while a snapshot is being taken may or may not be included.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+    static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single value. Negative values are recorded as 0.
+     *
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        counts.incrementAndGet(getBucketIndex(value));
+        sum.addAndGet(value);
+
+        long currentMax;
+        while (value > (currentMax = max.get())) {
+            if (max.compareAndSet(currentMax, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return A snapshot of the values recorded so far. Values recorded while the snapshot is being taken may or may
+     * not be included.
+     */
+    public Snapshot snapshot() {
+        final long[] bucketCounts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = counts.get(i);
+            total += bucketCounts[i];
+        }
+        return new Snapshot(bucketCounts, total, sum.get(), max.get());
+    }
+
+    /**
+     * Resets all counts to zero. Values recorded concurrently may be partially lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        sum.set(0);
+        max.set(0);
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & SUB_BUCKET_MASK;
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    static long getBucketLowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        final long subBucket = index & SUB_BUCKET_MASK;
+        return (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long getBucketUpperBound(int index) {
+        if (index + 1 >= BUCKET_COUNT) {
+            return Long.MAX_VALUE;
+        }
+        return getBucketLowerBound(index + 1) - 1;
+    }
+
+    /**
+     * An immutable snapshot of a {@link LatencyHistogram}.
+     */
+    public static class Snapshot {
+        private final long[] bucketCounts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] bucketCounts, long count, long sum, long max) {
+            this.bucketCounts = bucketCounts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * @return The number of values recorded.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return The largest value recorded, or 0 if none have been.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return The mean of the values recorded, or 0 if none have been.
+         */
+        public double getMean() {
+            return (count == 0) ? 0 : ((double) sum / count);
+        }
+
+        /**
+         * Returns an estimate of the given percentile of the recorded values. The estimate is the upper bound of the
+         * bucket containing the percentile, capped at the maximum recorded value, so it never under reports.
+         *
+         * @param percentile The percentile to estimate, between 0 and 1.
+         * @return The estimated value, or 0 if no values have been recorded.
+         */
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            final long rank = Math.max(1, (long) Math.ceil(percentile * count));
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank) {
+                    return Math.min(getBucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
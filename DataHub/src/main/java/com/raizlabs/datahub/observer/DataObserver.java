@@ -2,15 +2,21 @@ package com.raizlabs.datahub.observer;
 
 import android.os.Handler;
 
+import com.raizlabs.datahub.access.DataAccess;
 import com.raizlabs.datahub.hub.DataHub;
 import com.raizlabs.datahub.hub.DataHubListener;
+import com.raizlabs.datahub.hub.DataHubRegistry;
 import com.raizlabs.datahub.hub.DataHubResult;
+import com.raizlabs.datahub.tracing.FetchTracer;
+import com.raizlabs.datahub.tracing.Span;
 import com.raizlabs.datahub.util.Delegate;
 import com.raizlabs.datahub.util.MappableSet;
 import com.raizlabs.datahub.util.ThreadingUtils;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A {@link DataObserver} acts as a single view into a {@link DataHub}. This provides a way for any number of listeners
@@ -29,17 +35,41 @@ import java.util.List;
  * A {@link DataObserver} also provides the ability to dispatch all listener updates on a specific {@link Handler}.
  * Since this class is usually used at the view level to populate views, the default is to dispatch all updates on the
  * UI thread, though this may be changed via an overloaded constructor (see {@link #DataObserver(DataHub, Handler)}).
+ * Updates may instead be dispatched through an {@link Executor} (see {@link #setListenerExecutor(Executor)}).
+ * <p></p>
+ * By default every update is dispatched individually. In conflating mode (see {@link #setConflating(boolean)}) a
+ * burst of updates is instead delivered by a single dispatch carrying only the latest result, which cuts the work done
+ * on the UI thread when many results arrive at once.
  *
  * @param <Data> The type of data being accessed.
  */
 public class DataObserver<Data> {
 
     private DataHub<Data> dataHub;
+    private DataHubRegistry hubRegistry;
 
     private MappableSet<DataObserverListener<Data>> listeners;
     private List<ResultFilter<? super Data>> dispatchResultFilters;
 
     private Handler listenerHandler;
+    private Executor listenerExecutor;
+    private volatile FetchTracer fetchTracer;
+
+    private static final int TRANSITION_NONE = 0;
+    private static final int TRANSITION_STARTED = 1;
+    private static final int TRANSITION_FINISHED = 2;
+
+    private volatile boolean isConflating;
+    private final AtomicBoolean isConflatedDrainScheduled = new AtomicBoolean(false);
+    // Pending conflated updates, guarded by pendingLock
+    private final Object pendingLock = new Object();
+    private DataHubResult<Data> pendingResult;
+    private boolean hasPendingResult;
+    private boolean hasPendingStart;
+    private boolean hasPendingFinishBeforeStart;
+    private int lastPendingTransition = TRANSITION_NONE;
+    // Whether listeners have last been told a fetch is running, guarded by the state lock
+    private boolean isDeliveredFetching;
 
     /**
      * Constructs a {@link DataObserver} which accesses data from the given {@link DataHub}. All update callbacks will be
@@ -68,6 +98,69 @@ public class DataObserver<Data> {
         this.dataHub.addListener(dataHubListener);
     }
 
+    /**
+     * Sets an {@link Executor} to dispatch all future listener callbacks through, instead of the {@link Handler} given
+     * at construction. The executor must run tasks in the order they are submitted. Using a
+     * {@link com.raizlabs.datahub.util.BatchingExecutor} over
+     * {@link ThreadingUtils#newHandlerExecutor(Handler)} delivers bursts of updates to the UI thread in a single
+     * message.
+     *
+     * @param executor The {@link Executor} to dispatch callbacks through, or null to go back to using the
+     *                 {@link Handler}.
+     */
+    public void setListenerExecutor(Executor executor) {
+        synchronized (getStateLock()) {
+            this.listenerExecutor = executor;
+        }
+    }
+
+    /**
+     * Sets whether updates are conflated. When conflating, this {@link DataObserver} keeps a single pending slot for
+     * results which is overwritten by newer ones, and schedules at most one dispatch at a time. That dispatch delivers
+     * the fetch started and finished transitions which happened since the last one, along with only the latest
+     * result. Fetches which start and finish within a single dispatch may be merged into one.
+     * <p></p>
+     * This is useful when many results may arrive in a burst, such as from a parallel fetch across many accesses or
+     * repeated calls to {@link #dispatchCurrent()}, and listeners only care about the latest data.
+     *
+     * @param conflating True to conflate updates, false to dispatch every update.
+     */
+    public void setConflating(boolean conflating) {
+        this.isConflating = conflating;
+    }
+
+    /**
+     * @return True if updates are conflated.
+     * @see #setConflating(boolean)
+     */
+    public boolean isConflating() {
+        return isConflating;
+    }
+
+    /**
+     * Sets the {@link DataHubRegistry} which the {@link DataHub} was acquired from. Closing this observer then releases
+     * its reference to the hub through the registry, instead of closing the hub, as other observers may share it.
+     *
+     * @param registry The registry the hub was acquired from, or null if it wasn't.
+     * @see DataHubRegistry#createObserver(Object, DataHubRegistry.Factory)
+     */
+    public void setHubRegistry(DataHubRegistry registry) {
+        synchronized (getStateLock()) {
+            this.hubRegistry = registry;
+        }
+    }
+
+    /**
+     * Sets the {@link FetchTracer} which records how long listener dispatches for sampled fetches spend queued and
+     * running. Dispatches are attributed to the most recent fetch of the {@link DataHub} at the time they are queued.
+     *
+     * @param tracer The tracer to use, or null to stop tracing dispatches.
+     * @see DataHub#setFetchTracer(FetchTracer)
+     */
+    public void setFetchTracer(FetchTracer tracer) {
+        this.fetchTracer = tracer;
+    }
+
     /**
      * @return A lock object which may be synchronized on to prevent state updates.
      */
@@ -157,7 +250,9 @@ public class DataObserver<Data> {
      * it.
      *
      * @param completeShutdown True to also close the associated {@link DataHub}, false to leave it as is but still
-     *                         disconnect this {@link DataObserver} and all listeners from it.
+     *                         disconnect this {@link DataObserver} and all listeners from it. If the hub was acquired
+     *                         from a {@link DataHubRegistry} (see {@link #setHubRegistry(DataHubRegistry)}), its
+     *                         reference is released either way and the registry decides when to close it.
      */
     public void close(boolean completeShutdown) {
 
@@ -166,7 +261,15 @@ public class DataObserver<Data> {
         if (dataHub != null) {
             dataHub.removeListener(dataHubListener);
 
-            if (completeShutdown) {
+            final DataHubRegistry registry;
+            synchronized (getStateLock()) {
+                registry = hubRegistry;
+                hubRegistry = null;
+            }
+
+            if (registry != null) {
+                registry.release(dataHub);
+            } else if (completeShutdown) {
                 dataHub.close();
             }
 
@@ -215,6 +318,18 @@ public class DataObserver<Data> {
      * Called to dispatch fetching start indication via the listener.
      */
     protected void onDataFetchStarted() {
+        if (isConflating) {
+            synchronized (pendingLock) {
+                if (!hasPendingStart && lastPendingTransition == TRANSITION_FINISHED) {
+                    hasPendingFinishBeforeStart = true;
+                }
+                hasPendingStart = true;
+                lastPendingTransition = TRANSITION_STARTED;
+            }
+            scheduleConflatedDrain();
+            return;
+        }
+
         dispatchListenerLogic(new Runnable() {
             @Override
             public void run() {
@@ -234,6 +349,14 @@ public class DataObserver<Data> {
      * Called to dispatch fetching finished indication via the listener.
      */
     protected void onDataFetchFinished() {
+        if (isConflating) {
+            synchronized (pendingLock) {
+                lastPendingTransition = TRANSITION_FINISHED;
+            }
+            scheduleConflatedDrain();
+            return;
+        }
+
         dispatchListenerLogic(new Runnable() {
             @Override
             public void run() {
@@ -254,6 +377,15 @@ public class DataObserver<Data> {
      */
     protected void onResultReceived(final DataHubResult<Data> dataResult) {
         if (shouldDispatchResult(dataResult)) {
+            if (isConflating) {
+                synchronized (pendingLock) {
+                    pendingResult = dataResult;
+                    hasPendingResult = true;
+                }
+                scheduleConflatedDrain();
+                return;
+            }
+
             dispatchListenerLogic(new Runnable() {
                 @Override
                 public void run() {
@@ -303,8 +435,19 @@ public class DataObserver<Data> {
      * @param runnable The runnable to execute.
      */
     protected void dispatchListenerLogic(Runnable runnable) {
+        final FetchTracer tracer = fetchTracer;
+        final DataHub<Data> hub = dataHub;
+        if ((tracer != null) && (hub != null)) {
+            final long generation = hub.getFetchGeneration();
+            if (tracer.isSampled(hub, generation)) {
+                runnable = new TracedRunnable(runnable, tracer, hub, generation);
+            }
+        }
+
         synchronized (getStateLock()) {
-            if (listenerHandler != null) {
+            if (listenerExecutor != null) {
+                listenerExecutor.execute(runnable);
+            } else if (listenerHandler != null) {
                 listenerHandler.post(runnable);
             } else {
                 runnable.run();
@@ -312,6 +455,90 @@ public class DataObserver<Data> {
         }
     }
 
+    private void scheduleConflatedDrain() {
+        if (isConflatedDrainScheduled.compareAndSet(false, true)) {
+            dispatchListenerLogic(conflatedDrainRunnable);
+        }
+    }
+
+    /**
+     * Delivers everything which has been conflated since the last drain. Transitions are delivered in an order which
+     * is consistent with what listeners have already been told: a finish of the fetch they know about, the start of a
+     * newer fetch, the latest result, and then a finish if the latest transition was one.
+     */
+    private void drainConflated() {
+        synchronized (getStateLock()) {
+            // Clear this first so anything arriving from here on schedules another drain
+            isConflatedDrainScheduled.set(false);
+
+            final DataHubResult<Data> result;
+            final boolean hasResult;
+            final boolean hasStart;
+            final boolean hasFinishBeforeStart;
+            final int lastTransition;
+            synchronized (pendingLock) {
+                result = pendingResult;
+                hasResult = hasPendingResult;
+                hasStart = hasPendingStart;
+                hasFinishBeforeStart = hasPendingFinishBeforeStart;
+                lastTransition = lastPendingTransition;
+
+                pendingResult = null;
+                hasPendingResult = false;
+                hasPendingStart = false;
+                hasPendingFinishBeforeStart = false;
+                lastPendingTransition = TRANSITION_NONE;
+            }
+
+            if (hasStart && hasFinishBeforeStart) {
+                isDeliveredFetching = false;
+                listeners.map(fetchFinishedDelegate);
+            }
+
+            if (hasStart && !isDeliveredFetching) {
+                isDeliveredFetching = true;
+                listeners.map(fetchStartedDelegate);
+            }
+
+            if (hasResult) {
+                listeners.map(new Delegate<DataObserverListener<Data>>() {
+                    @Override
+                    public void execute(DataObserverListener<Data> listener) {
+                        listener.onResultReceived(result);
+                    }
+                });
+            }
+
+            if (lastTransition == TRANSITION_FINISHED && (isDeliveredFetching || !hasStart)) {
+                isDeliveredFetching = false;
+                listeners.map(fetchFinishedDelegate);
+            }
+        }
+    }
+
+    private final Runnable conflatedDrainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            drainConflated();
+        }
+    };
+
+    private final Delegate<DataObserverListener<Data>> fetchStartedDelegate =
+            new Delegate<DataObserverListener<Data>>() {
+                @Override
+                public void execute(DataObserverListener<Data> listener) {
+                    listener.onDataFetchStarted();
+                }
+            };
+
+    private final Delegate<DataObserverListener<Data>> fetchFinishedDelegate =
+            new Delegate<DataObserverListener<Data>>() {
+                @Override
+                public void execute(DataObserverListener<Data> listener) {
+                    listener.onDataFetchFinished();
+                }
+            };
+
     private DataHubListener<Data> dataHubListener = new DataHubListener<Data>() {
         @Override
         public void onDataFetchStarted() {
@@ -328,4 +555,36 @@ public class DataObserver<Data> {
             DataObserver.this.onResultReceived(result);
         }
     };
+
+    /**
+     * Runnable which records the time it spent queued and running as spans of a traced fetch.
+     */
+    private static class TracedRunnable implements Runnable {
+        private final Runnable runnable;
+        private final FetchTracer tracer;
+        private final DataHub<?> dataHub;
+        private final long generation;
+        private final long queuedNanos;
+
+        TracedRunnable(Runnable runnable, FetchTracer tracer, DataHub<?> dataHub, long generation) {
+            this.runnable = runnable;
+            this.tracer = tracer;
+            this.dataHub = dataHub;
+            this.generation = generation;
+            this.queuedNanos = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            final long startNanos = System.nanoTime();
+            tracer.recordSpan(dataHub, generation, Span.Kind.DISPATCH_WAIT, DataAccess.AccessTypeIds.NONE,
+                    queuedNanos, startNanos);
+            try {
+                runnable.run();
+            } finally {
+                tracer.recordSpan(dataHub, generation, Span.Kind.DISPATCH, DataAccess.AccessTypeIds.NONE,
+                        startNanos, System.nanoTime());
+            }
+        }
+    }
 }
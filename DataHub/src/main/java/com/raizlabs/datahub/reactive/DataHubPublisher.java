@@ -0,0 +1,277 @@
+package com.raizlabs.datahub.reactive;
+
+import com.raizlabs.datahub.hub.DataHub;
+import com.raizlabs.datahub.hub.DataHubListener;
+import com.raizlabs.datahub.hub.DataHubResult;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Publisher} of the results of a {@link DataHub}, which lets consumers take results at their own pace. Each
+ * {@link Subscriber} gets its own listener on the hub, and results are only delivered as they are requested. Results
+ * which arrive while the subscriber has no outstanding demand are handled according to the {@link OverflowStrategy},
+ * so a slow subscriber never causes an unbounded queue to build up.
+ * <p></p>
+ * Results are delivered on the thread which made them available: either the thread dispatching the hub's results
+ * or the thread calling {@link Subscription#request(long)}. Subscribing does not start a fetch, and the publisher
+ * never completes; subscribers should cancel their subscription when they are done.
+ *
+ * @param <Data> The type of data being accessed.
+ */
+public class DataHubPublisher<Data> implements Publisher<DataHubResult<Data>> {
+
+    /**
+     * The default number of results buffered by {@link OverflowStrategy#BUFFER}.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 16;
+
+    private final DataHub<Data> dataHub;
+    private final OverflowStrategy overflowStrategy;
+    private final int bufferSize;
+
+    /**
+     * Constructs a {@link DataHubPublisher} which only keeps the latest undelivered result.
+     *
+     * @param dataHub The {@link DataHub} to publish the results of.
+     */
+    public DataHubPublisher(DataHub<Data> dataHub) {
+        this(dataHub, OverflowStrategy.LATEST);
+    }
+
+    /**
+     * Constructs a {@link DataHubPublisher} which handles undelivered results with the given strategy, buffering up to
+     * {@link #DEFAULT_BUFFER_SIZE} results if it is {@link OverflowStrategy#BUFFER}.
+     *
+     * @param dataHub          The {@link DataHub} to publish the results of.
+     * @param overflowStrategy The strategy for handling results which haven't been requested yet.
+     */
+    public DataHubPublisher(DataHub<Data> dataHub, OverflowStrategy overflowStrategy) {
+        this(dataHub, overflowStrategy, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a {@link DataHubPublisher} which handles undelivered results with the given strategy.
+     *
+     * @param dataHub          The {@link DataHub} to publish the results of.
+     * @param overflowStrategy The strategy for handling results which haven't been requested yet.
+     * @param bufferSize       The maximum number of results to buffer if the strategy is
+     *                         {@link OverflowStrategy#BUFFER}.
+     */
+    public DataHubPublisher(DataHub<Data> dataHub, OverflowStrategy overflowStrategy, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.dataHub = dataHub;
+        this.overflowStrategy = (overflowStrategy != null) ? overflowStrategy : OverflowStrategy.LATEST;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * @return The strategy for handling results which haven't been requested yet.
+     */
+    public OverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super DataHubResult<Data>> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException();
+        }
+
+        final HubSubscription<Data> subscription = new HubSubscription<>(dataHub, subscriber, overflowStrategy,
+                bufferSize);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    /**
+     * The {@link Subscription} for a single {@link Subscriber}, which listens to the hub and delivers results as they
+     * are requested.
+     */
+    private static class HubSubscription<Data> implements Subscription, DataHubListener<Data> {
+
+        private final DataHub<Data> dataHub;
+        private final Subscriber<? super DataHubResult<Data>> subscriber;
+        private final OverflowStrategy overflowStrategy;
+        private final int bufferSize;
+
+        // Guarded by itself
+        private final ArrayDeque<DataHubResult<Data>> pending = new ArrayDeque<>();
+
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger drainCount = new AtomicInteger();
+        private final AtomicBoolean isCancelled = new AtomicBoolean(false);
+        // The error to end the subscription with, which is delivered by the drain like any other signal
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        HubSubscription(DataHub<Data> dataHub, Subscriber<? super DataHubResult<Data>> subscriber,
+                        OverflowStrategy overflowStrategy, int bufferSize) {
+            this.dataHub = dataHub;
+            this.subscriber = subscriber;
+            this.overflowStrategy = overflowStrategy;
+            this.bufferSize = bufferSize;
+        }
+
+        void start() {
+            // Only start listening once onSubscribe has returned, so nothing can be delivered before it
+            if (!isCancelled.get()) {
+                dataHub.addListener(this);
+                // We may have been cancelled concurrently and missed the removal
+                if (isCancelled.get()) {
+                    dataHub.removeListener(this);
+                }
+            }
+        }
+
+        //region Subscription
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Requested a non-positive number of results: " + n));
+                drain();
+                return;
+            }
+
+            while (true) {
+                final long current = requested.get();
+                if (current == Long.MAX_VALUE) {
+                    break;
+                }
+                long updated = current + n;
+                if (updated < 0) {
+                    updated = Long.MAX_VALUE;
+                }
+                if (requested.compareAndSet(current, updated)) {
+                    break;
+                }
+            }
+
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (isCancelled.compareAndSet(false, true)) {
+                dataHub.removeListener(this);
+                synchronized (pending) {
+                    pending.clear();
+                }
+            }
+        }
+        //endregion Subscription
+
+        //region DataHubListener
+
+        @Override
+        public void onDataFetchStarted() {
+
+        }
+
+        @Override
+        public void onDataFetchFinished() {
+
+        }
+
+        @Override
+        public void onResultReceived(DataHubResult<Data> result) {
+            if (isCancelled.get()) {
+                return;
+            }
+
+            synchronized (pending) {
+                switch (overflowStrategy) {
+                    case BUFFER:
+                        if (pending.size() >= bufferSize) {
+                            pending.pollFirst();
+                        }
+                        pending.addLast(result);
+                        break;
+                    case DROP:
+                        // Results already waiting to go out count against the demand
+                        if (pending.size() < requested.get()) {
+                            pending.addLast(result);
+                        }
+                        break;
+                    case LATEST:
+                    default:
+                        pending.clear();
+                        pending.addLast(result);
+                        break;
+                }
+            }
+
+            drain();
+        }
+        //endregion DataHubListener
+
+        /**
+         * Delivers as many pending results as have been requested, or the error if the subscription has failed. Only
+         * one thread delivers at a time, so the subscriber is never called concurrently.
+         */
+        private void drain() {
+            if (drainCount.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                final long demand = requested.get();
+                long emitted = 0;
+
+                while (emitted != demand) {
+                    if (isCancelled.get()) {
+                        break;
+                    }
+
+                    final DataHubResult<Data> result;
+                    synchronized (pending) {
+                        result = pending.pollFirst();
+                    }
+                    if (result == null) {
+                        break;
+                    }
+
+                    try {
+                        subscriber.onNext(result);
+                    } catch (RuntimeException e) {
+                        fail(e);
+                        break;
+                    }
+                    emitted++;
+                }
+
+                // Once cancelled, the drain count is never released, so nothing is delivered after this
+                if (isCancelled.get()) {
+                    final Throwable throwable = error.get();
+                    if (throwable != null) {
+                        subscriber.onError(throwable);
+                    }
+                    return;
+                }
+
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+
+                missed = drainCount.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Ends the subscription with the given error, unless it has already ended. The error is delivered by the next
+         * {@link #drain()}.
+         */
+        private void fail(Throwable throwable) {
+            if (!isCancelled.get()) {
+                error.compareAndSet(null, throwable);
+            }
+            cancel();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.raizlabs.datahub.reactive;
+
+/**
+ * Defines what a {@link DataHubPublisher} does with results which arrive faster than a {@link Subscriber} requests
+ * them.
+ */
+public enum OverflowStrategy {
+    /**
+     * Only the most recent undelivered result is kept, replacing any older one. The subscriber always gets the latest
+     * data when it next requests, which is usually what a view wants. This is the default.
+     */
+    LATEST,
+    /**
+     * Undelivered results are kept in order in a bounded buffer. If the buffer is full, the oldest result is discarded
+     * to make room.
+     */
+    BUFFER,
+    /**
+     * Results which arrive when the subscriber has no outstanding demand are discarded.
+     */
+    DROP
+}
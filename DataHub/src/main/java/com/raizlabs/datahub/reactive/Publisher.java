@@ -0,0 +1,20 @@
+package com.raizlabs.datahub.reactive;
+
+/**
+ * A provider of a potentially unbounded number of items, which are published to {@link Subscriber}s according to the
+ * demand they signal through their {@link Subscription}.
+ * <p></p>
+ * This mirrors {@code org.reactivestreams.Publisher} and {@code java.util.concurrent.Flow.Publisher}, which are not
+ * available on all supported platforms, so that adapting to either takes only a thin wrapper.
+ *
+ * @param <T> The type of items published.
+ */
+public interface Publisher<T> {
+    /**
+     * Requests that the {@link Publisher} start publishing items to the given {@link Subscriber}. The subscriber will
+     * be passed its {@link Subscription} via {@link Subscriber#onSubscribe(Subscription)} before anything else.
+     *
+     * @param subscriber The {@link Subscriber} to publish items to.
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+}
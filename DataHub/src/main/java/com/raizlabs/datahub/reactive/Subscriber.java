@@ -0,0 +1,37 @@
+package com.raizlabs.datahub.reactive;
+
+/**
+ * A receiver of items from a {@link Publisher}. No items are delivered until they are requested through the
+ * {@link Subscription}, and callbacks for a single subscription are never called concurrently.
+ * <p></p>
+ * This mirrors {@code org.reactivestreams.Subscriber} and {@code java.util.concurrent.Flow.Subscriber}.
+ *
+ * @param <T> The type of items received.
+ */
+public interface Subscriber<T> {
+    /**
+     * Called once, before any other callback, with the {@link Subscription} to request items through.
+     *
+     * @param subscription The new subscription.
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Called with the next item, once for each item which has been requested.
+     *
+     * @param item The item.
+     */
+    void onNext(T item);
+
+    /**
+     * Called when the subscription fails. No further callbacks will be made.
+     *
+     * @param throwable The cause of the failure.
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Called when no more items will be published. No further callbacks will be made.
+     */
+    void onComplete();
+}
@@ -0,0 +1,21 @@
+package com.raizlabs.datahub.reactive;
+
+/**
+ * Links a {@link Subscriber} to a {@link Publisher}, allowing the subscriber to signal demand or stop receiving items.
+ * <p></p>
+ * This mirrors {@code org.reactivestreams.Subscription} and {@code java.util.concurrent.Flow.Subscription}.
+ */
+public interface Subscription {
+    /**
+     * Adds the given number of items to the outstanding demand. Demand is capped at {@link Long#MAX_VALUE}, which
+     * is treated as unbounded.
+     *
+     * @param n The number of additional items to deliver. Must be positive.
+     */
+    void request(long n);
+
+    /**
+     * Stops the delivery of items. Some items may still be delivered if they were already being delivered.
+     */
+    void cancel();
+}
@@ -0,0 +1,185 @@
+package com.raizlabs.datahub.tracing;
+
+import com.raizlabs.datahub.access.DataAccess;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.DataHub;
+import com.raizlabs.datahub.metrics.FetchMetricsListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records a timeline of {@link Span}s for sampled fetches and passes them to a {@link SpanSink}. A tracer is attached
+ * to a hub through {@link DataHub#setFetchTracer(FetchTracer)}, which records the fetch itself, each access round trip
+ * and each backport import. Attaching it to a {@link com.raizlabs.datahub.observer.DataObserver} as well records how
+ * long listener dispatches wait and run.
+ * <p></p>
+ * Whether a fetch is sampled is decided from a hash of its hub and generation, so every part of the fetch makes the
+ * same decision without any shared state, and fetches which aren't sampled cost no more than that check. The trace ID
+ * is derived the same way, which lets spans be reported independently as soon as they finish, even after their
+ * fetch has.
+ * <p></p>
+ * The root {@link Span.Kind#FETCH} span of a sampled fetch is opened when the fetch starts, and is reported when the
+ * fetch finishes, is superseded by a newer fetch or its hub is closed, as given by its {@link Span#getOutcome()}. A
+ * hub which is discarded mid-fetch without being closed leaves its root open, so hubs should be closed when done with.
+ */
+public class FetchTracer implements FetchMetricsListener {
+
+    private final SpanSink sink;
+    private final double sampleRate;
+    private final AtomicLong spanIdCounter = new AtomicLong();
+    // Start times of the roots of sampled fetches which haven't ended yet, keyed by trace ID
+    private final ConcurrentMap<Long, Long> openFetches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a {@link FetchTracer} which records every fetch.
+     *
+     * @param sink The sink to pass finished spans to.
+     */
+    public FetchTracer(SpanSink sink) {
+        this(sink, 1);
+    }
+
+    /**
+     * Creates a {@link FetchTracer} which records the given proportion of fetches.
+     *
+     * @param sink       The sink to pass finished spans to.
+     * @param sampleRate The proportion of fetches to record, between 0 and 1.
+     */
+    public FetchTracer(SpanSink sink, double sampleRate) {
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink must not be null");
+        }
+        this.sink = sink;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @return The proportion of fetches which are recorded.
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Returns whether the given fetch is being recorded. This is cheap, so callers should check it before doing any
+     * timing work for a span.
+     *
+     * @param dataHub    The hub which is fetching.
+     * @param generation The generation of the fetch.
+     * @return True if spans of the fetch are recorded.
+     */
+    public boolean isSampled(DataHub<?> dataHub, long generation) {
+        if (sampleRate >= 1) {
+            return true;
+        } else if (sampleRate <= 0) {
+            return false;
+        }
+
+        // Use the top 53 bits of the trace ID as a uniform value in [0, 1)
+        return ((getTraceId(dataHub, generation) >>> 11) * 0x1.0p-53) < sampleRate;
+    }
+
+    /**
+     * Records a child span of the given fetch, if it is sampled.
+     *
+     * @param dataHub      The hub which is fetching.
+     * @param generation   The generation of the fetch.
+     * @param kind         The kind of operation.
+     * @param accessTypeId The type ID of the access involved, or {@link DataAccess.AccessTypeIds#NONE}.
+     * @param startNanos   The time the operation started, from {@link System#nanoTime()}.
+     * @param endNanos     The time the operation ended, from {@link System#nanoTime()}.
+     */
+    public void recordSpan(DataHub<?> dataHub, long generation, Span.Kind kind, int accessTypeId, long startNanos,
+                           long endNanos) {
+        if (!isSampled(dataHub, generation)) {
+            return;
+        }
+
+        final long traceId = getTraceId(dataHub, generation);
+        long spanId;
+        do {
+            spanId = spanIdCounter.incrementAndGet();
+        } while ((spanId == 0) || (spanId == traceId));
+
+        sink.onSpanFinished(new Span(traceId, spanId, traceId, kind, dataHub.getId(), generation, accessTypeId,
+                startNanos, endNanos, Span.Outcome.FINISHED));
+    }
+
+    /**
+     * Called by the hub when a fetch ends without producing its final result, to end the root span of the fetch if it
+     * is sampled.
+     *
+     * @param dataHub    The hub which was fetching.
+     * @param generation The generation of the fetch.
+     * @param outcome    How the fetch ended.
+     */
+    public void onFetchAbandoned(DataHub<?> dataHub, long generation, Span.Outcome outcome) {
+        endFetch(dataHub, generation, outcome, -1);
+    }
+
+    //region FetchMetricsListener
+
+    @Override
+    public void onFetchStarted(DataHub<?> dataHub, long generation) {
+        if (isSampled(dataHub, generation)) {
+            openFetches.put(getTraceId(dataHub, generation), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onAccessStarted(DataHub<?> dataHub, long generation, int accessTypeId) {
+
+    }
+
+    @Override
+    public void onAccessFinished(DataHub<?> dataHub, long generation, int accessTypeId, DataAccessResult<?> result,
+                                 long latencyNanos) {
+        final long now = System.nanoTime();
+        recordSpan(dataHub, generation, Span.Kind.ACCESS, accessTypeId, now - latencyNanos, now);
+    }
+
+    @Override
+    public void onFetchFinished(DataHub<?> dataHub, long generation, long durationNanos) {
+        endFetch(dataHub, generation, Span.Outcome.FINISHED, durationNanos);
+    }
+    //endregion FetchMetricsListener
+
+    /**
+     * Ends and reports the root span of the given fetch if it is sampled and still open.
+     *
+     * @param durationNanos The duration of the fetch if it is known, which is used if the root was never opened because
+     *                      the tracer was attached mid-fetch, or -1 if it isn't.
+     */
+    private void endFetch(DataHub<?> dataHub, long generation, Span.Outcome outcome, long durationNanos) {
+        if (!isSampled(dataHub, generation)) {
+            return;
+        }
+
+        final long traceId = getTraceId(dataHub, generation);
+        final long now = System.nanoTime();
+        final Long openedAt = openFetches.remove(traceId);
+        final long startNanos;
+        if (openedAt != null) {
+            startNanos = openedAt;
+        } else if (durationNanos >= 0) {
+            startNanos = now - durationNanos;
+        } else {
+            return;
+        }
+
+        // The root span uses the trace ID as its own ID, so children can refer to it without looking it up
+        sink.onSpanFinished(new Span(traceId, traceId, 0, Span.Kind.FETCH, dataHub.getId(), generation,
+                DataAccess.AccessTypeIds.NONE, startNanos, now, outcome));
+    }
+
+    private static long getTraceId(DataHub<?> dataHub, long generation) {
+        // SplitMix64 finalizer over the hub and generation
+        long hash = (dataHub.getId() * 0x9E3779B97F4A7C15L) + generation;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        hash = hash ^ (hash >>> 31);
+        return (hash != 0) ? hash : 1;
+    }
+}
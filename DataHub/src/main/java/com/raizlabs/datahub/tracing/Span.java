@@ -0,0 +1,167 @@
+package com.raizlabs.datahub.tracing;
+
+import com.raizlabs.datahub.access.DataAccess;
+
+/**
+ * An immutable record of a single timed operation within a fetch. Every fetch which is sampled by a
+ * {@link FetchTracer} forms a trace, identified by {@link #getTraceId()}, made up of a root {@link Kind#FETCH} span
+ * and child spans for the work done on its behalf. Times are from {@link System#nanoTime()}.
+ * <p></p>
+ * Spans are reported as soon as they finish, so children are usually reported before their root, and some, such as
+ * the dispatch of the final result, finish after it.
+ */
+public class Span {
+
+    /**
+     * The kinds of operation which are recorded.
+     */
+    public enum Kind {
+        /**
+         * A fetch from when it is started until it produces its final result. This is the root of each trace.
+         */
+        FETCH,
+        /**
+         * A round trip to an access, from starting it until it returns a result or times out.
+         */
+        ACCESS,
+        /**
+         * The import of a fetched result into an access as a backport.
+         */
+        BACKPORT,
+        /**
+         * The time a listener dispatch spent queued before it started to run.
+         */
+        DISPATCH_WAIT,
+        /**
+         * The time a listener dispatch spent running.
+         */
+        DISPATCH
+    }
+
+    /**
+     * The ways in which a recorded operation can end.
+     */
+    public enum Outcome {
+        /**
+         * The operation ran to completion. Every span other than {@link Kind#FETCH} ends this way.
+         */
+        FINISHED,
+        /**
+         * The fetch was superseded by a newer fetch of the same hub before producing its final result.
+         */
+        SUPERSEDED,
+        /**
+         * The hub was closed before the fetch produced its final result.
+         */
+        CLOSED
+    }
+
+    private final long traceId;
+    private final long spanId;
+    private final long parentSpanId;
+    private final Kind kind;
+    private final long dataHubId;
+    private final long generation;
+    private final int accessTypeId;
+    private final long startNanos;
+    private final long endNanos;
+    private final Outcome outcome;
+
+    Span(long traceId, long spanId, long parentSpanId, Kind kind, long dataHubId, long generation, int accessTypeId,
+         long startNanos, long endNanos, Outcome outcome) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.kind = kind;
+        this.dataHubId = dataHubId;
+        this.generation = generation;
+        this.accessTypeId = accessTypeId;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.outcome = outcome;
+    }
+
+    /**
+     * @return The ID of the trace of the fetch this span belongs to.
+     */
+    public long getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * @return The ID of this span, which is unique within its trace.
+     */
+    public long getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * @return The ID of the parent span, or 0 if this is the root of its trace.
+     */
+    public long getParentSpanId() {
+        return parentSpanId;
+    }
+
+    /**
+     * @return The kind of operation this span recorded.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return The {@link com.raizlabs.datahub.hub.DataHub#getId()} of the hub which was fetching.
+     */
+    public long getDataHubId() {
+        return dataHubId;
+    }
+
+    /**
+     * @return The generation of the fetch this span belongs to.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return The type ID of the access this span recorded, or {@link DataAccess.AccessTypeIds#NONE} if it did not
+     * involve a single access.
+     */
+    public int getAccessTypeId() {
+        return accessTypeId;
+    }
+
+    /**
+     * @return The time this span started, in nanoseconds.
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return The time this span ended, in nanoseconds.
+     */
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    /**
+     * @return How the operation this span recorded ended.
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return The duration of this span, in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Span{%s trace=%x span=%x parent=%x hub=%d gen=%d access=%d %dns %s}", kind, traceId,
+                spanId, parentSpanId, dataHubId, generation, accessTypeId, getDurationNanos(), outcome);
+    }
+}
@@ -0,0 +1,15 @@
+package com.raizlabs.datahub.tracing;
+
+/**
+ * Interface which receives the {@link Span}s recorded by a {@link FetchTracer}, such as to export them to a tracing
+ * backend or log.
+ */
+public interface SpanSink {
+    /**
+     * Called when a span has finished. This is called inline on whichever thread the span finished on, so
+     * implementations must be thread safe and should hand the span off rather than doing any slow work.
+     *
+     * @param span The finished span.
+     */
+    void onSpanFinished(Span span);
+}
@@ -0,0 +1,140 @@
+package com.raizlabs.datahub.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link Executor} which queues tasks in a bounded queue and runs them in batches on a target {@link Executor}.
+ * Rather than handing every task to the target individually, a single drain task is scheduled which runs every queued
+ * task in order, up to a maximum batch size, before yielding back to the target. A burst of tasks therefore costs one
+ * hop onto the target (for example, one message on a {@link android.os.Handler}) instead of one per task.
+ * <p></p>
+ * Tasks always run on the target, in the order they were submitted, one at a time. If the bounded queue is full, tasks
+ * are added to an unbounded overflow list instead, which the same drain runs once the queue has emptied. Every task
+ * submitted while the overflow list is in use goes to it as well, so ordering is kept. Unlike the bounded queue, the
+ * overflow list allocates for each task, so the capacity should be large enough that it is only used in exceptional
+ * cases.
+ */
+public class BatchingExecutor implements Executor {
+
+    /**
+     * The default maximum number of queued tasks.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * The default maximum number of tasks to run in a single drain before yielding back to the target.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    private final Executor target;
+    private final BlockingQueue<Runnable> queue;
+    private final int maxBatchSize;
+
+    private final ConcurrentLinkedQueue<Runnable> overflow = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger overflowCount = new AtomicInteger();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    /**
+     * Creates a {@link BatchingExecutor} which runs batches on the given target with the default capacity and batch
+     * size.
+     *
+     * @param target The {@link Executor} to run batches on.
+     */
+    public BatchingExecutor(Executor target) {
+        this(target, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a {@link BatchingExecutor} which runs batches on the given target.
+     *
+     * @param target       The {@link Executor} to run batches on.
+     * @param capacity     The maximum number of tasks that may be queued before overflowing.
+     * @param maxBatchSize The maximum number of tasks to run in a single batch before yielding back to the target.
+     */
+    public BatchingExecutor(Executor target, int capacity, int maxBatchSize) {
+        if (capacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @return The number of tasks currently waiting to run.
+     */
+    public int getPendingCount() {
+        return queue.size() + Math.max(0, overflowCount.get());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+
+        // Once anything has overflowed, later tasks must overflow too so they don't run ahead of it
+        if ((overflowCount.get() > 0) || !queue.offer(command)) {
+            overflow.offer(command);
+            overflowCount.incrementAndGet();
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                target.execute(drainRunnable);
+            } catch (RuntimeException e) {
+                // No drain is coming, so let a later task try again. Pending tasks stay queued until then.
+                drainScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int count = 0;
+            while ((count < maxBatchSize) && ((task = pollNext()) != null)) {
+                count++;
+                task.run();
+            }
+        } finally {
+            drainScheduled.set(false);
+            // Anything added after our last poll, or beyond the batch limit, needs another drain
+            if (!queue.isEmpty() || !overflow.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    /**
+     * @return The next task to run, which is taken from the bounded queue until it is empty and then from the overflow
+     * list, or null if there are none.
+     */
+    private Runnable pollNext() {
+        // Nothing is added to the queue while the overflow list is in use, so everything in it was submitted first
+        Runnable task = queue.poll();
+        if (task == null) {
+            task = overflow.poll();
+            if (task != null) {
+                overflowCount.decrementAndGet();
+            }
+        }
+        return task;
+    }
+
+    private final Runnable drainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+}
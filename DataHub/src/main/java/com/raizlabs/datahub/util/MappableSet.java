@@ -2,13 +2,15 @@ package com.raizlabs.datahub.util;
 
 /**
  * A class which contains a set of items and can perform an actions across all
- * items in the set.
+ * items in the set. The set is backed by a lock-free {@link SnapshotArraySet},
+ * so mapping over the items never takes a lock or allocates, and items may be
+ * added or removed from any thread, including from within {@link #map(Delegate)}.
  *
  * @param <T> The type of item stored in the set.
  */
 public class MappableSet<T> {
 
-    private TransactionalHashSet<T> members;
+    private final SnapshotArraySet<T> members;
 
     protected Iterable<T> getMembers() {
         return members;
@@ -18,7 +20,7 @@ public class MappableSet<T> {
      * Creates a new empty {@link MappableSet}.
      */
     public MappableSet() {
-        members = new TransactionalHashSet<T>();
+        members = new SnapshotArraySet<>();
     }
 
     /**
@@ -67,24 +69,38 @@ public class MappableSet<T> {
 
     /**
      * Calls the given {@link Delegate} on all items in the set. Items may be
-     * added or removed during this call, but changes may not be reflected
+     * added or removed during this call, but changes will not be reflected
      * until this completes.
      *
      * @param function The {@link Delegate} to call for each item.
      */
+    @SuppressWarnings("unchecked")
     public void map(Delegate<T> function) {
-        beginTransaction();
-        for (T member : members) {
-            function.execute(member);
+        final Object[] snapshot = members.getSnapshot();
+        for (Object member : snapshot) {
+            function.execute((T) member);
         }
-        endTransaction();
     }
 
+    /**
+     * No longer required, as {@link #map(Delegate)} always iterates over an
+     * immutable snapshot of the set.
+     *
+     * @deprecated Modifications during {@link #map(Delegate)} are always safe.
+     */
+    @Deprecated
     public void beginTransaction() {
-        members.beginTransaction();
+
     }
 
+    /**
+     * No longer required, as {@link #map(Delegate)} always iterates over an
+     * immutable snapshot of the set.
+     *
+     * @deprecated Modifications during {@link #map(Delegate)} are always safe.
+     */
+    @Deprecated
     public void endTransaction() {
-        members.endTransaction();
+
     }
 }
@@ -0,0 +1,84 @@
+package com.raizlabs.datahub.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An unbounded, lock-free, multiple-producer single-consumer queue. Any number of threads may {@link #offer(Object)}
+ * concurrently, each with a single atomic swap and no retry loop, but only one thread at a time may
+ * {@link #poll()}. Callers are responsible for ensuring there is a single consumer, for example by only polling from
+ * a drain loop guarded by a work-in-progress counter.
+ * <p></p>
+ * Items are returned in the order their offers were linked, which is FIFO for any single producer.
+ *
+ * @param <T> The type of items in the queue.
+ */
+public class MpscQueue<T> {
+
+    private final AtomicReference<Node<T>> tail;
+    // Only touched by the consumer
+    private Node<T> head;
+
+    public MpscQueue() {
+        Node<T> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * Adds the given item to the end of the queue. This may be called from any thread.
+     *
+     * @param item The item to add. May not be null.
+     */
+    public void offer(T item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+
+        final Node<T> node = new Node<>(item);
+        final Node<T> previous = tail.getAndSet(node);
+        // Between the swap and this link, the consumer may briefly see the queue as not yet containing the node
+        previous.next = node;
+    }
+
+    /**
+     * Removes and returns the item at the head of the queue. This may only be called by the single consumer.
+     *
+     * @return The item at the head of the queue, or null if the queue is empty.
+     */
+    public T poll() {
+        Node<T> next = head.next;
+        if (next == null) {
+            if (head == tail.get()) {
+                return null;
+            }
+
+            // A producer has swapped in a node but not linked it yet, which it is about to do
+            while ((next = head.next) == null) {
+                Thread.yield();
+            }
+        }
+
+        final T item = next.item;
+        next.item = null;
+        head = next;
+        return item;
+    }
+
+    /**
+     * May only be called by the single consumer.
+     *
+     * @return True if the queue currently has no items. This is only a snapshot while producers are active.
+     */
+    public boolean isEmpty() {
+        return head == tail.get();
+    }
+
+    private static class Node<T> {
+        T item;
+        volatile Node<T> next;
+
+        Node(T item) {
+            this.item = item;
+        }
+    }
+}
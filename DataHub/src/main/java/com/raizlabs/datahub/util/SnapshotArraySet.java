@@ -0,0 +1,145 @@
+package com.raizlabs.datahub.util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free, copy-on-write set backed by an immutable snapshot array. Every modification atomically swaps in a new
+ * array, so readers never take a lock and may iterate a snapshot while other threads (or the iterating thread itself)
+ * add and remove items. Changes made during an iteration are not reflected in that iteration, but are visible to the
+ * next call to {@link #getSnapshot()}.
+ * <br/><br/>
+ * This is intended for small, read-mostly sets such as listener registries, where iteration happens far more often
+ * than modification. Modifications are O(n) as they copy the array.
+ *
+ * @param <T> The type of items in the set.
+ */
+public class SnapshotArraySet<T> implements Iterable<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final AtomicReference<Object[]> snapshot = new AtomicReference<>(EMPTY);
+
+    /**
+     * Adds the given item to the set if it is not already present.
+     *
+     * @param item The item to add.
+     * @return True if the item was added, false if it was already in the set.
+     */
+    public boolean add(T item) {
+        while (true) {
+            Object[] current = snapshot.get();
+            if (indexOf(current, item) >= 0) {
+                return false;
+            }
+
+            Object[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = item;
+            if (snapshot.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the given item from the set.
+     *
+     * @param item The item to remove.
+     * @return True if the item was removed, false if it wasn't found in the set.
+     */
+    public boolean remove(Object item) {
+        while (true) {
+            Object[] current = snapshot.get();
+            int index = indexOf(current, item);
+            if (index < 0) {
+                return false;
+            }
+
+            Object[] updated;
+            if (current.length == 1) {
+                updated = EMPTY;
+            } else {
+                updated = new Object[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            }
+
+            if (snapshot.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes all items from this set.
+     */
+    public void clear() {
+        snapshot.set(EMPTY);
+    }
+
+    /**
+     * Returns true if the given item is found in the set.
+     *
+     * @param item The item to look for.
+     * @return True if the item was found, false if it is not.
+     */
+    public boolean contains(Object item) {
+        return indexOf(snapshot.get(), item) >= 0;
+    }
+
+    /**
+     * @return The number of items in this set.
+     */
+    public int size() {
+        return snapshot.get().length;
+    }
+
+    /**
+     * Returns the current contents of the set as an array. The returned array is shared and must not be modified,
+     * but it will never change, so it may be iterated without any locking or allocation.
+     *
+     * @return The current snapshot of the set.
+     */
+    public Object[] getSnapshot() {
+        return snapshot.get();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        final Object[] items = snapshot.get();
+        return new Iterator<T>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < items.length;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public T next() {
+                if (index >= items.length) {
+                    throw new NoSuchElementException();
+                }
+                return (T) items[index++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static int indexOf(Object[] items, Object item) {
+        for (int i = 0; i < items.length; i++) {
+            Object current = items[i];
+            if ((current == item) || ((item != null) && item.equals(current))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
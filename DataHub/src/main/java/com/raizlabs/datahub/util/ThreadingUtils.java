@@ -1,11 +1,27 @@
 package com.raizlabs.datahub.util;
 
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ThreadingUtils {
 
     private static Handler uiHandler;
+    private static ScheduledExecutorService sharedScheduler;
+    private static Executor sharedIoExecutor;
+    private static Executor sharedTimeoutExecutor;
+
+    private static final int IO_THREAD_COUNT = 2;
+    private static final int TIMEOUT_THREAD_COUNT = 2;
 
     /**
      * @return A {@link Handler} that is bound to the UI thread.
@@ -15,6 +31,77 @@ public class ThreadingUtils {
         return uiHandler;
     }
 
+    /**
+     * Returns a shared {@link ScheduledExecutorService} backed by a single daemon thread, used to drive timers such as
+     * fetch timeouts and hedged requests without a thread per fetch. Tasks run on this scheduler must be short and
+     * must not block. Where supported, cancelled tasks are removed from the queue straight away rather than being kept
+     * until their delay passes.
+     *
+     * @return The shared scheduler.
+     */
+    public static synchronized ScheduledExecutorService getSharedScheduler() {
+        if (sharedScheduler == null) {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "DataHub-Scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            // Build.VERSION_CODES.LOLLIPOP, which isn't in every SDK this is compiled against
+            if (Build.VERSION.SDK_INT >= 21) {
+                scheduler.setRemoveOnCancelPolicy(true);
+            }
+            sharedScheduler = scheduler;
+        }
+        return sharedScheduler;
+    }
+
+    /**
+     * Returns a shared {@link Executor} backed by a small pool of daemon threads, used for blocking work such as disk
+     * reads and writes so that it doesn't hold up callers or the {@link #getSharedScheduler()}. Idle threads are
+     * released.
+     *
+     * @return The shared IO executor.
+     */
+    public static synchronized Executor getSharedIoExecutor() {
+        if (sharedIoExecutor == null) {
+            sharedIoExecutor = newDaemonPool(IO_THREAD_COUNT, "DataHub-IO-");
+        }
+        return sharedIoExecutor;
+    }
+
+    /**
+     * Returns a shared {@link Executor} backed by a small pool of daemon threads, used to process timeouts and hedged
+     * requests once the {@link #getSharedScheduler()} triggers them. This is kept apart from the
+     * {@link #getSharedIoExecutor()} so that slow disk work can't delay timeouts. Idle threads are released.
+     *
+     * @return The shared timeout executor.
+     */
+    public static synchronized Executor getSharedTimeoutExecutor() {
+        if (sharedTimeoutExecutor == null) {
+            sharedTimeoutExecutor = newDaemonPool(TIMEOUT_THREAD_COUNT, "DataHub-Timeout-");
+        }
+        return sharedTimeoutExecutor;
+    }
+
+    private static Executor newDaemonPool(int threadCount, final String namePrefix) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Returns true if this function was called on the thread the given
      * {@link Handler} is bound to.
@@ -51,4 +138,20 @@ public class ThreadingUtils {
             return false;
         }
     }
+
+    /**
+     * Creates an {@link Executor} which posts every task to the given {@link Handler}. Wrap the result in a
+     * {@link BatchingExecutor} to post bursts of tasks as a single message.
+     *
+     * @param handler The {@link Handler} to post tasks to.
+     * @return The created {@link Executor}.
+     */
+    public static Executor newHandlerExecutor(final Handler handler) {
+        return new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                handler.post(command);
+            }
+        };
+    }
 }
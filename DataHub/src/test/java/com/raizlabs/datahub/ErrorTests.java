@@ -0,0 +1,67 @@
+package com.raizlabs.datahub;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class ErrorTests {
+
+    @Test
+    public void testStandardError() {
+        final Object tag = new Object();
+        final DataHubError error = new DataHubError("message", DataHubError.Types.DATA_ACCESS, tag);
+
+        Assert.assertEquals("message", error.getMessage());
+        Assert.assertEquals(DataHubError.Types.DATA_ACCESS, error.getErrorType());
+        Assert.assertEquals(tag, error.getTag());
+        Assert.assertEquals("message", error.getThrowable().getMessage());
+        Assert.assertTrue(error.getThrowable().getStackTrace().length > 0);
+    }
+
+    @Test
+    public void testLightweightError() {
+        final DataHubError error =
+                DataHubError.newLightweight("Missing id: %d", DataHubError.Types.DATA_ACCESS_NOT_FOUND, null, 5);
+
+        Assert.assertEquals("Missing id: 5", error.getMessage());
+        Assert.assertEquals(DataHubError.Types.DATA_ACCESS_NOT_FOUND, error.getErrorType());
+
+        final Throwable throwable = error.getThrowable();
+        Assert.assertEquals("Missing id: 5", throwable.getMessage());
+        Assert.assertEquals(0, throwable.getStackTrace().length);
+        Assert.assertSame(throwable, error.getThrowable());
+    }
+
+    @Test
+    public void testLightweightErrorWithoutArgsIsNotFormatted() {
+        final DataHubError error =
+                DataHubError.newLightweight("Only 50% loaded", DataHubError.Types.DATA_ACCESS, null, new Object[0]);
+
+        Assert.assertEquals("Only 50% loaded", error.getMessage());
+    }
+
+    @Test
+    public void testSharedError() {
+        final DataHubError error = DataHubError.getShared(DataHubError.Types.INVALID_STATE);
+
+        Assert.assertSame(error, DataHubError.getShared(DataHubError.Types.INVALID_STATE));
+        Assert.assertNotSame(error, DataHubError.getShared(DataHubError.Types.DATA_ACCESS));
+        Assert.assertEquals(DataHubError.Types.INVALID_STATE, error.getErrorType());
+        Assert.assertNull(error.getTag());
+    }
+
+    @Test
+    public void testSharedErrorsOfManyTypes() {
+        // Insert out of order, including negative user defined types, to exercise the sorted table
+        final int[] types = {900, -5, 408, 7, Integer.MAX_VALUE, Integer.MIN_VALUE, 450};
+        final DataHubError[] errors = new DataHubError[types.length];
+        for (int i = 0; i < types.length; i++) {
+            errors[i] = DataHubError.getShared(types[i]);
+        }
+
+        for (int i = 0; i < types.length; i++) {
+            Assert.assertSame(errors[i], DataHubError.getShared(types[i]));
+            Assert.assertEquals(types[i], errors[i].getErrorType());
+        }
+    }
+}
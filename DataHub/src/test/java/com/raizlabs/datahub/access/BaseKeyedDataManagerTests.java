@@ -5,6 +5,11 @@ import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 public abstract class BaseKeyedDataManagerTests {
 
 
@@ -78,4 +83,52 @@ public abstract class BaseKeyedDataManagerTests {
         access.clear();
         AccessAssertions.assertDataUnavailable(access);
     }
+
+    @Test
+    public void testBulkOperations() {
+        final Object value1 = new Object();
+        final Object value2 = new Object();
+        final Map<String, Object> values = new HashMap<>();
+        values.put("bulk1", value1);
+        values.put("bulk2", value2);
+
+        getDataManager().setAll(values);
+        Assert.assertEquals(value1, getDataManager().get("bulk1"));
+        Assert.assertEquals(value2, getDataManager().get("bulk2"));
+
+        // Missing keys are left out
+        final Map<String, Object> found = getDataManager().getAll(Arrays.asList("bulk1", "bulk2", "missing"));
+        Assert.assertEquals(2, found.size());
+        Assert.assertEquals(value1, found.get("bulk1"));
+        Assert.assertEquals(value2, found.get("bulk2"));
+        Assert.assertFalse(found.containsKey("missing"));
+
+        getDataManager().removeAll(Collections.singletonList("bulk1"));
+        Assert.assertNull(getDataManager().get("bulk1"));
+        Assert.assertEquals(value2, getDataManager().get("bulk2"));
+    }
+
+    @Test
+    public void testBatchAccess() {
+        final BatchKeyedMemoryDataAccess<String, Object> access =
+                new BatchKeyedMemoryDataAccess<>(Arrays.asList("batch1", "batch2"), getDataManager(), 50);
+        Assert.assertEquals(50, access.getTypeId());
+        Assert.assertEquals(2, access.getKeys().size());
+
+        AccessAssertions.assertDataUnavailable(access);
+
+        final Object value = new Object();
+        getDataManager().set("batch1", value);
+        final Map<String, Object> result = access.get().getData();
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(value, result.get("batch1"));
+
+        final Map<String, Object> imported = new HashMap<>();
+        imported.put("batch2", value);
+        access.importData(imported);
+        Assert.assertEquals(2, access.get().getData().size());
+
+        access.clear();
+        AccessAssertions.assertDataUnavailable(access);
+    }
 }
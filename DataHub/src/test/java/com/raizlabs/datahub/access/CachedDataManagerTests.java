@@ -1,8 +1,11 @@
 package com.raizlabs.datahub.access;
 
+import junit.framework.Assert;
+
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -54,4 +57,45 @@ public class CachedDataManagerTests extends BaseKeyedDataManagerTests {
             first = false;
         }
     }
+
+    @Test
+    public void testWeightedEviction() {
+        final CachedKeyedDataManager<String, byte[]> manager =
+                new CachedKeyedDataManager<>(100, new CachedKeyedDataManager.Weigher<String, byte[]>() {
+                    @Override
+                    public int weigh(String key, byte[] value) {
+                        return value.length;
+                    }
+                });
+
+        final List<String> evicted = new ArrayList<>();
+        manager.setEvictionListener(new CachedKeyedDataManager.EvictionListener<String, byte[]>() {
+            @Override
+            public void onEvicted(String key, byte[] value) {
+                evicted.add(key);
+            }
+        });
+
+        manager.set("small", new byte[10]);
+        manager.set("medium", new byte[40]);
+        manager.set("large", new byte[50]);
+        Assert.assertEquals(100, manager.getStats().getSize());
+        Assert.assertTrue(evicted.isEmpty());
+
+        // Touch the small entry so that the medium entry is the least recently used
+        Assert.assertNotNull(manager.get("small"));
+        manager.set("extra", new byte[30]);
+
+        Assert.assertEquals(1, evicted.size());
+        Assert.assertEquals("medium", evicted.get(0));
+        Assert.assertNull(manager.get("medium"));
+
+        final CachedKeyedDataManager.Stats stats = manager.getStats();
+        Assert.assertEquals(90, stats.getSize());
+        Assert.assertEquals(100, stats.getMaxSize());
+        Assert.assertEquals(4, stats.getPutCount());
+        Assert.assertEquals(1, stats.getEvictionCount());
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(1, stats.getMissCount());
+    }
 }
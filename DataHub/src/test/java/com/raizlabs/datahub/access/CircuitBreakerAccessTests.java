@@ -0,0 +1,194 @@
+package com.raizlabs.datahub.access;
+
+import com.raizlabs.datahub.DataHubError;
+import com.raizlabs.datahub.hub.helpers.ImmediateResponseAsyncAccess;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.FetchStrategies;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class CircuitBreakerAccessTests {
+
+    private static class ManualClockBreaker<T> extends CircuitBreakerAsyncDataAccess<T> {
+        long now;
+
+        ManualClockBreaker(AsyncDataAccess<T> target) {
+            super(target, 4, 0.5, 1000, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        protected long getCurrentTimeMillis() {
+            return now;
+        }
+    }
+
+    private static class ResultHolder implements AsyncDataAccess.AsyncDataCallback<Object> {
+        DataAccessResult<Object> result;
+        AsyncDataAccess<Object> access;
+
+        @Override
+        public void onResult(DataAccessResult<Object> result, AsyncDataAccess<Object> access) {
+            this.result = result;
+            this.access = access;
+        }
+    }
+
+    private static final DataAccessResult<Object> SUCCESS = DataAccessResult.<Object>fromResult("a");
+    private static final DataAccessResult<Object> FAILURE =
+            DataAccessResult.fromError(DataHubError.getShared(DataHubError.Types.DATA_ACCESS));
+
+    private ManualResponseAsyncAccess<Object> target;
+    private ManualClockBreaker<Object> breaker;
+
+    @Before
+    public void setup() {
+        target = new ManualResponseAsyncAccess<>(5);
+        breaker = new ManualClockBreaker<>(target);
+    }
+
+    private ResultHolder call(DataAccessResult<Object> response) {
+        final ResultHolder holder = new ResultHolder();
+        final int request = target.getRequestCount();
+        breaker.get(holder);
+        if (target.getRequestCount() > request) {
+            target.respond(request, response);
+        }
+        return holder;
+    }
+
+    @Test
+    public void testOpensOnFailureRate() {
+        Assert.assertEquals(5, breaker.getTypeId());
+
+        // Failures below the minimum number of calls don't open the circuit
+        call(FAILURE);
+        call(SUCCESS);
+        call(FAILURE);
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.CLOSED, breaker.getState());
+
+        final ResultHolder passed = call(SUCCESS);
+        Assert.assertSame(breaker, passed.access);
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.OPEN, breaker.getState());
+
+        // Open circuits fail fast without reaching the target
+        final int requests = target.getRequestCount();
+        final ResultHolder failed = call(SUCCESS);
+        Assert.assertEquals(requests, target.getRequestCount());
+        Assert.assertEquals(DataHubError.Types.CIRCUIT_OPEN, failed.result.getError().getErrorType());
+        Assert.assertSame(breaker, failed.access);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertRejected(null, 0.5);
+        assertRejected(target, 0);
+        assertRejected(target, -0.5);
+        assertRejected(target, 1.5);
+        assertRejected(target, Double.NaN);
+
+        // A threshold of exactly 1 is allowed, and only opens once every call in the window fails
+        new CircuitBreakerAsyncDataAccess<>(target, 4, 1, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    private static void assertRejected(AsyncDataAccess<Object> target, double failureRateThreshold) {
+        try {
+            new CircuitBreakerAsyncDataAccess<>(target, 4, failureRateThreshold, 1000, TimeUnit.MILLISECONDS);
+            Assert.fail("Accepted target " + target + " with threshold " + failureRateThreshold);
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        call(FAILURE);
+        call(SUCCESS);
+        call(SUCCESS);
+        call(SUCCESS);
+        Assert.assertEquals(0.25, breaker.getFailureRate());
+
+        // The window is full, so the oldest failure drops out when the next call finishes
+        call(SUCCESS);
+        Assert.assertEquals(0.0, breaker.getFailureRate());
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenProbes() {
+        for (int i = 0; i < 4; i++) {
+            call(FAILURE);
+        }
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.OPEN, breaker.getState());
+
+        // A failed probe opens the circuit again
+        breaker.now = 1000;
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.HALF_OPEN, breaker.getState());
+        call(FAILURE);
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.OPEN, breaker.getState());
+
+        // Only one probe is let through at a time
+        breaker.now = 2000;
+        final ResultHolder probe = new ResultHolder();
+        breaker.get(probe);
+        final int probeRequest = target.getRequestCount() - 1;
+        final ResultHolder other = call(SUCCESS);
+        Assert.assertEquals(DataHubError.Types.CIRCUIT_OPEN, other.result.getError().getErrorType());
+
+        // A successful probe closes the circuit
+        target.respond(probeRequest, SUCCESS);
+        Assert.assertSame(SUCCESS, probe.result);
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.CLOSED, breaker.getState());
+        Assert.assertEquals(0.0, breaker.getFailureRate());
+    }
+
+    @Test
+    public void testStaleResultsIgnored() {
+        final ResultHolder slow = new ResultHolder();
+        breaker.get(slow);
+        final int slowRequest = target.getRequestCount() - 1;
+
+        for (int i = 0; i < 4; i++) {
+            call(FAILURE);
+        }
+        breaker.now = 1000;
+        breaker.getState();
+
+        // A success from before the circuit opened doesn't count as a probe
+        target.respond(slowRequest, SUCCESS);
+        Assert.assertSame(SUCCESS, slow.result);
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.HALF_OPEN, breaker.getState());
+
+        breaker.reset();
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testSerialMovesPast() {
+        final ManualResponseAsyncAccess<Object> webTarget = new ManualResponseAsyncAccess<>(2);
+        final CircuitBreakerAsyncDataAccess<Object> web =
+                new CircuitBreakerAsyncDataAccess<>(webTarget, 1, 1, 1, TimeUnit.HOURS);
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder
+                .newSerial(FetchStrategies.Serial.Finalizers.newNone())
+                .addAsynchronousAccess(new ImmediateResponseAsyncAccess<>(SUCCESS, 1))
+                .addAsynchronousAccess(web)
+                .setShouldBackport(false)
+                .build();
+
+        dataHub.fetch();
+        Assert.assertTrue(dataHub.isFetching());
+        webTarget.respond(0, FAILURE);
+        Assert.assertFalse(dataHub.isFetching());
+        Assert.assertEquals(CircuitBreakerAsyncDataAccess.State.OPEN, web.getState());
+
+        // Once open, the fetch finishes straight away without waiting on the web tier
+        dataHub.fetch();
+        Assert.assertFalse(dataHub.isFetching());
+        Assert.assertEquals(1, webTarget.getRequestCount());
+    }
+}
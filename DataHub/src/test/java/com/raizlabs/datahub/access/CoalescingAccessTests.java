@@ -0,0 +1,148 @@
+package com.raizlabs.datahub.access;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CoalescingAccessTests {
+
+    @Test
+    public void testConcurrentRequestsCoalesce() {
+        final CoalescingAsyncDataAccess.Group group = new CoalescingAsyncDataAccess.Group();
+        final DeferredAccess<Object> target1 = new DeferredAccess<>();
+        final DeferredAccess<Object> target2 = new DeferredAccess<>();
+        final CoalescingAsyncDataAccess<Object> access1 = new CoalescingAsyncDataAccess<>("request", target1, group);
+        final CoalescingAsyncDataAccess<Object> access2 = new CoalescingAsyncDataAccess<>("request", target2, group);
+
+        final List<AsyncDataAccess<Object>> responders = new ArrayList<>();
+        final AsyncDataAccess.AsyncDataCallback<Object> callback = new AsyncDataAccess.AsyncDataCallback<Object>() {
+            @Override
+            public void onResult(DataAccessResult<Object> result, AsyncDataAccess<Object> access) {
+                responders.add(access);
+            }
+        };
+
+        access1.get(callback);
+        access2.get(callback);
+        access1.get(callback);
+
+        Assert.assertEquals(1, target1.requests.size() + target2.requests.size());
+        Assert.assertEquals(1, group.getInFlightCount());
+
+        target1.complete(DataAccessResult.fromResult(new Object()));
+
+        // Each callback should be told the result came from the access it called
+        Assert.assertEquals(3, responders.size());
+        Assert.assertSame(access1, responders.get(0));
+        Assert.assertSame(access2, responders.get(1));
+        Assert.assertSame(access1, responders.get(2));
+        Assert.assertEquals(0, group.getInFlightCount());
+
+        // Once complete, the next request goes through again
+        access2.get(callback);
+        Assert.assertEquals(1, target2.requests.size());
+    }
+
+    @Test
+    public void testDifferentKeysDontCoalesce() {
+        final CoalescingAsyncDataAccess.Group group = new CoalescingAsyncDataAccess.Group();
+        final DeferredAccess<Object> target = new DeferredAccess<>();
+        final CoalescingAsyncDataAccess<Object> access1 = new CoalescingAsyncDataAccess<>("a", target, group);
+        final CoalescingAsyncDataAccess<Object> access2 = new CoalescingAsyncDataAccess<>("b", target, group);
+
+        access1.get(new NoOpCallback<>());
+        access2.get(new NoOpCallback<>());
+
+        Assert.assertEquals(2, target.requests.size());
+    }
+
+    @Test
+    public void testCallbackExceptionIsNotSwallowed() {
+        final CoalescingAsyncDataAccess.Group group = new CoalescingAsyncDataAccess.Group();
+        final AsyncDataAccess<Object> target = new AsyncDataAccess<Object>() {
+            @Override
+            public void get(AsyncDataCallback<Object> asyncDataCallback) {
+                // Responds synchronously
+                asyncDataCallback.onResult(DataAccessResult.fromResult(new Object()), this);
+            }
+
+            @Override
+            public void close() {
+
+            }
+
+            @Override
+            public int getTypeId() {
+                return AccessTypeIds.WEB_DATA;
+            }
+
+            @Override
+            public void importData(Object o) {
+
+            }
+        };
+        final CoalescingAsyncDataAccess<Object> access = new CoalescingAsyncDataAccess<>("request", target, group);
+
+        final List<DataAccessResult<Object>> results = new ArrayList<>();
+        final IllegalStateException thrown = new IllegalStateException();
+        try {
+            access.get(new AsyncDataAccess.AsyncDataCallback<Object>() {
+                @Override
+                public void onResult(DataAccessResult<Object> result, AsyncDataAccess<Object> access) {
+                    results.add(result);
+                    throw thrown;
+                }
+            });
+            Assert.fail("Callback exception was swallowed");
+        } catch (IllegalStateException e) {
+            Assert.assertSame(thrown, e);
+        }
+
+        // The callback should only have been given the real result, not a second error result
+        Assert.assertEquals(1, results.size());
+        Assert.assertTrue(results.get(0).hasData());
+        Assert.assertEquals(0, group.getInFlightCount());
+    }
+
+    private static class NoOpCallback<T> implements AsyncDataAccess.AsyncDataCallback<T> {
+        @Override
+        public void onResult(DataAccessResult<T> result, AsyncDataAccess<T> access) {
+
+        }
+    }
+
+    private static class DeferredAccess<T> implements AsyncDataAccess<T> {
+
+        final List<AsyncDataCallback<T>> requests = new ArrayList<>();
+
+        void complete(DataAccessResult<T> result) {
+            for (AsyncDataCallback<T> callback : requests) {
+                callback.onResult(result, this);
+            }
+            requests.clear();
+        }
+
+        @Override
+        public void get(AsyncDataCallback<T> asyncDataCallback) {
+            requests.add(asyncDataCallback);
+        }
+
+        @Override
+        public void close() {
+
+        }
+
+        @Override
+        public int getTypeId() {
+            return AccessTypeIds.WEB_DATA;
+        }
+
+        @Override
+        public void importData(T t) {
+
+        }
+    }
+}
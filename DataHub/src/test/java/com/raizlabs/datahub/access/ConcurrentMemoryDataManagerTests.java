@@ -0,0 +1,71 @@
+package com.raizlabs.datahub.access;
+
+import junit.framework.Assert;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class ConcurrentMemoryDataManagerTests extends BaseKeyedDataManagerTests {
+    private static ConcurrentMemoryKeyedDataManager<String, Object> dataManager;
+
+    @BeforeClass
+    public static void setup() {
+        dataManager = new ConcurrentMemoryKeyedDataManager<>();
+    }
+
+    @Override
+    protected KeyedDataManager<String, Object> getDataManager() {
+        return dataManager;
+    }
+
+    @Test
+    public void testNullValueRemoves() {
+        final String key = "key";
+        final KeyedMemoryDataAccess<Object> access = dataManager.createDataAccess(key);
+
+        access.importData(new Object());
+        AccessAssertions.assertDataNotNull(access);
+
+        access.importData(null);
+        AccessAssertions.assertDataUnavailable(access);
+        Assert.assertFalse(dataManager.containsKey(key));
+    }
+
+    @Test
+    public void testConcurrentWrites() throws InterruptedException {
+        final int threadCount = 8;
+        final int perThread = 500;
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int thread = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < perThread; j++) {
+                        dataManager.set(thread + ":" + j, j);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < threadCount; i++) {
+            for (int j = 0; j < perThread; j++) {
+                Assert.assertEquals(j, dataManager.<Integer>get(i + ":" + j).intValue());
+            }
+        }
+    }
+}
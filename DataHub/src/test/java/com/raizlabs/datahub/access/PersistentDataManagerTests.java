@@ -0,0 +1,205 @@
+package com.raizlabs.datahub.access;
+
+import com.raizlabs.datahub.codec.Codecs;
+import com.raizlabs.datahub.utils.Wrapper;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+public class PersistentDataManagerTests {
+
+    private static final Executor IMMEDIATE_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("datahub", "test");
+        Assert.assertTrue(directory.delete());
+        Assert.assertTrue(directory.mkdirs());
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private PersistentKeyedDataManager<String, String> open(int segmentSize) throws IOException {
+        return new PersistentKeyedDataManager<>(directory, Codecs.string(), Codecs.string(), segmentSize,
+                IMMEDIATE_EXECUTOR);
+    }
+
+    @Test
+    public void testSetGetRemove() throws IOException {
+        final PersistentKeyedDataManager<String, String> manager = open(1024);
+
+        Assert.assertNull(manager.get("key"));
+        Assert.assertFalse(manager.containsKey("key"));
+
+        manager.set("key", "value");
+        Assert.assertEquals("value", manager.get("key"));
+        Assert.assertTrue(manager.containsKey("key"));
+
+        manager.set("key", "\u00e9\u4e2d\ud83d\ude00");
+        Assert.assertEquals("\u00e9\u4e2d\ud83d\ude00", manager.get("key"));
+
+        Assert.assertEquals("\u00e9\u4e2d\ud83d\ude00", manager.remove("key"));
+        Assert.assertNull(manager.get("key"));
+        Assert.assertFalse(manager.containsKey("key"));
+
+        // Null values remove
+        manager.set("key", "value");
+        manager.set("key", null);
+        Assert.assertNull(manager.get("key"));
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        PersistentKeyedDataManager<String, String> manager = open(1024);
+        manager.set("kept", "first");
+        manager.set("replaced", "old");
+        manager.set("replaced", "new");
+        manager.set("removed", "value");
+        manager.remove("removed");
+        manager.flush();
+
+        manager = open(1024);
+        Assert.assertEquals("first", manager.get("kept"));
+        Assert.assertEquals("new", manager.get("replaced"));
+        Assert.assertNull(manager.get("removed"));
+        Assert.assertFalse(manager.containsKey("removed"));
+
+        // Writes go to a new segment after reloading
+        manager.set("kept", "second");
+        manager = open(1024);
+        Assert.assertEquals("second", manager.get("kept"));
+    }
+
+    @Test
+    public void testSegmentsRollAndCompact() throws IOException {
+        PersistentKeyedDataManager<String, String> manager = open(128);
+
+        // Rewrite the same few keys many times so that the older segments are entirely dead
+        for (int i = 0; i < 200; i++) {
+            manager.set("key" + (i % 4), "value" + i);
+        }
+        manager.remove("key0");
+
+        // Compaction runs as segments fill up, so we should never have much more than the live data
+        Assert.assertTrue("Too many segments: " + manager.getSegmentCount(), manager.getSegmentCount() <= 4);
+
+        manager.compact();
+        manager = open(128);
+        Assert.assertNull(manager.get("key0"));
+        Assert.assertEquals("value197", manager.get("key1"));
+        Assert.assertEquals("value198", manager.get("key2"));
+        Assert.assertEquals("value199", manager.get("key3"));
+    }
+
+    @Test
+    public void testLargeValue() throws IOException {
+        final PersistentKeyedDataManager<String, String> manager = open(64);
+
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append("large value ");
+        }
+        final String value = builder.toString();
+
+        manager.set("large", value);
+        manager.set("small", "value");
+        Assert.assertEquals(value, manager.get("large"));
+        Assert.assertEquals(value, open(64).get("large"));
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        PersistentKeyedDataManager<String, String> manager = open(1024);
+        manager.set("key", "value");
+        manager.clear();
+
+        Assert.assertNull(manager.get("key"));
+        Assert.assertEquals(0, manager.getSegmentCount());
+        Assert.assertNull(open(1024).get("key"));
+    }
+
+    @Test
+    public void testAsyncAccess() throws IOException {
+        final PersistentKeyedDataManager<String, String> manager = open(1024);
+        final PersistentDataAccess<String> access = manager.createAsyncDataAccess("key");
+        final Wrapper<DataAccessResult<String>> received = new Wrapper<>();
+        final AsyncDataAccess.AsyncDataCallback<String> callback = new AsyncDataAccess.AsyncDataCallback<String>() {
+            @Override
+            public void onResult(DataAccessResult<String> result, AsyncDataAccess<String> access) {
+                received.set(result);
+            }
+        };
+
+        Assert.assertEquals(DataAccess.AccessTypeIds.PERSISTENT_DATA, access.getTypeId());
+
+        access.get(callback);
+        AccessAssertions.assertDataUnavailable(received.get());
+
+        access.importData("imported");
+        access.get(callback);
+        Assert.assertEquals("imported", received.get().getData());
+        Assert.assertEquals("imported", manager.get("key"));
+
+        access.clear();
+        access.get(callback);
+        AccessAssertions.assertDataUnavailable(received.get());
+    }
+
+    @Test
+    public void testBulkOperations() throws IOException {
+        PersistentKeyedDataManager<String, String> manager = open(1024);
+
+        final Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            values.put("key" + i, "value" + i);
+        }
+        manager.setAll(values);
+
+        final Map<String, String> found = manager.getAll(Arrays.asList("key0", "key19", "missing"));
+        Assert.assertEquals(2, found.size());
+        Assert.assertEquals("value0", found.get("key0"));
+        Assert.assertEquals("value19", found.get("key19"));
+
+        // A null value in a batch removes the key
+        final Map<String, String> updates = new LinkedHashMap<>();
+        updates.put("key0", null);
+        updates.put("key1", "updated");
+        manager.setAll(updates);
+        manager.removeAll(Arrays.asList("key2", "key3", "missing"));
+
+        // Everything survives reopening
+        manager = open(1024);
+        Assert.assertNull(manager.get("key0"));
+        Assert.assertEquals("updated", manager.get("key1"));
+        Assert.assertNull(manager.get("key2"));
+        Assert.assertNull(manager.get("key3"));
+        Assert.assertEquals("value4", manager.get("key4"));
+        Assert.assertEquals(17, manager.getAll(values.keySet()).size());
+    }
+}
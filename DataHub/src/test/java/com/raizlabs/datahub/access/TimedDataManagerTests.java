@@ -0,0 +1,126 @@
+package com.raizlabs.datahub.access;
+
+import com.raizlabs.datahub.hub.DataHub;
+import com.raizlabs.datahub.hub.DataHubListener;
+import com.raizlabs.datahub.hub.DataHubResult;
+import com.raizlabs.datahub.hub.helpers.ImmediateResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.FetchStrategies;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TimedDataManagerTests extends BaseKeyedDataManagerTests {
+
+    private static final long TTL = 100;
+    private static final long MAX_STALE = 50;
+
+    private static ManualClockDataManager dataManager;
+
+    @BeforeClass
+    public static void setup() {
+        dataManager = new ManualClockDataManager();
+    }
+
+    @Override
+    protected KeyedDataManager<String, Object> getDataManager() {
+        return dataManager;
+    }
+
+    @Test
+    public void testFreshness() {
+        final String key = "timed";
+        final Object value = new Object();
+        final KeyedMemoryDataAccess<Object> access = dataManager.createDataAccess(key);
+
+        dataManager.set(key, value);
+        AccessAssertions.assertDataEquals(value, access);
+        Assert.assertFalse(access.get().isStale());
+        Assert.assertTrue(dataManager.isFresh(key));
+
+        dataManager.now += TTL;
+        AccessAssertions.assertDataEquals(value, access);
+        Assert.assertTrue(access.get().isStale());
+        Assert.assertFalse(dataManager.isFresh(key));
+
+        dataManager.now += MAX_STALE;
+        AccessAssertions.assertDataUnavailable(access);
+        Assert.assertFalse(dataManager.containsKey(key));
+
+        // Writing again resets the age
+        access.importData(value);
+        Assert.assertFalse(access.get().isStale());
+    }
+
+    @Test
+    public void testFreshDataFinalizer() {
+        final String key = "hub";
+        final Object cached = new Object();
+        final Object web = new Object();
+        final KeyedMemoryDataAccess<Object> memoryAccess = dataManager.createDataAccess(key);
+        final ImmediateResponseAsyncAccess<Object> webAccess =
+                new ImmediateResponseAsyncAccess<>(DataAccessResult.fromResult(web), DataAccess.AccessTypeIds.WEB_DATA);
+
+        final DataHub<Object> dataHub =
+                OrderedDataHub.Builder.newSerial(FetchStrategies.Serial.Finalizers.newFreshData())
+                        .setSynchronousAccess(memoryAccess)
+                        .addAsynchronousAccess(webAccess)
+                        .setShouldBackport(false)
+                        .build();
+
+        final List<DataHubResult<Object>> results = new ArrayList<>();
+        dataHub.addListener(new DataHubListener<Object>() {
+            @Override
+            public void onDataFetchStarted() {
+
+            }
+
+            @Override
+            public void onDataFetchFinished() {
+
+            }
+
+            @Override
+            public void onResultReceived(DataHubResult<Object> result) {
+                results.add(result);
+            }
+        });
+
+        // Fresh data should finish without querying the web access
+        dataManager.set(key, cached);
+        dataHub.fetch();
+        Assert.assertEquals(1, results.size());
+        Assert.assertSame(cached, results.get(0).getData());
+        Assert.assertFalse(webAccess.getCompletionLock().isUnlocked());
+
+        // Stale data should be served and then revalidated
+        results.clear();
+        dataManager.now += TTL;
+        dataHub.fetch();
+        Assert.assertEquals(2, results.size());
+        Assert.assertSame(cached, results.get(0).getData());
+        Assert.assertTrue(results.get(0).isStale());
+        Assert.assertSame(web, results.get(1).getData());
+        Assert.assertFalse(results.get(1).isStale());
+    }
+
+    private static class ManualClockDataManager extends TimedKeyedDataManager<String, Object> {
+
+        long now = 1000;
+
+        ManualClockDataManager() {
+            super(TTL, MAX_STALE, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        protected long getCurrentTimeMillis() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.raizlabs.datahub.codec;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CodecTests {
+
+    private static <T> T roundTrip(Codec<T> codec, T value) {
+        final byte[] bytes = Codecs.toBytes(codec, value);
+        Assert.assertEquals(codec.getEncodedSize(value), bytes.length);
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final T decoded = codec.decode(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        return decoded;
+    }
+
+    @Test
+    public void testPrimitives() {
+        Assert.assertEquals(Boolean.TRUE, roundTrip(Codecs.booleans(), true));
+        Assert.assertEquals(Byte.valueOf((byte) -5), roundTrip(Codecs.bytes(), (byte) -5));
+        Assert.assertEquals(Short.valueOf((short) 1234), roundTrip(Codecs.shorts(), (short) 1234));
+        Assert.assertEquals(Character.valueOf('x'), roundTrip(Codecs.characters(), 'x'));
+        Assert.assertEquals(Integer.valueOf(Integer.MIN_VALUE), roundTrip(Codecs.integers(), Integer.MIN_VALUE));
+        Assert.assertEquals(Long.valueOf(Long.MAX_VALUE), roundTrip(Codecs.longs(), Long.MAX_VALUE));
+        Assert.assertEquals(Float.valueOf(1.5f), roundTrip(Codecs.floats(), 1.5f));
+        Assert.assertEquals(Double.valueOf(Math.PI), roundTrip(Codecs.doubles(), Math.PI));
+    }
+
+    @Test
+    public void testArrays() {
+        final byte[] bytes = {1, 2, 3};
+        final int[] ints = {1, -2, Integer.MAX_VALUE};
+        final long[] longs = {Long.MIN_VALUE, 0, 7};
+        final double[] doubles = {0.5, -1e100};
+
+        Assert.assertTrue(Arrays.equals(bytes, roundTrip(Codecs.byteArray(), bytes)));
+        Assert.assertTrue(Arrays.equals(ints, roundTrip(Codecs.intArray(), ints)));
+        Assert.assertTrue(Arrays.equals(longs, roundTrip(Codecs.longArray(), longs)));
+        Assert.assertTrue(Arrays.equals(doubles, roundTrip(Codecs.doubleArray(), doubles)));
+        Assert.assertEquals(0, roundTrip(Codecs.intArray(), new int[0]).length);
+    }
+
+    @Test
+    public void testStrings() {
+        Assert.assertEquals("", roundTrip(Codecs.string(), ""));
+        Assert.assertEquals("hello", roundTrip(Codecs.string(), "hello"));
+
+        final String unicode = "\u00e9\u4e2d\ud83d\ude00";
+        Assert.assertEquals(unicode, roundTrip(Codecs.string(), unicode));
+        // Should match the JDK's own encoding
+        Assert.assertEquals(4 + "\u00e9\u4e2d\ud83d\ude00\ud800".getBytes(java.nio.charset.Charset.forName("UTF-8")).length,
+                Codecs.string().getEncodedSize("\u00e9\u4e2d\ud83d\ude00\ud800"));
+    }
+
+    @Test
+    public void testCollections() {
+        final List<String> list = new ArrayList<>();
+        list.add("a");
+        list.add(null);
+        list.add("c");
+        Assert.assertEquals(list, roundTrip(Codecs.list(Codecs.nullable(Codecs.string())), list));
+
+        final Map<String, List<Integer>> map = new LinkedHashMap<>();
+        map.put("first", Arrays.asList(1, 2, 3));
+        map.put("second", new ArrayList<Integer>());
+        final Map<String, List<Integer>> decoded =
+                roundTrip(Codecs.map(Codecs.string(), Codecs.list(Codecs.integers())), map);
+        Assert.assertEquals(map, decoded);
+        Assert.assertEquals("first", decoded.keySet().iterator().next());
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void testCorruptLength() {
+        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.putInt(Integer.MAX_VALUE);
+        buffer.putInt(1);
+        buffer.flip();
+
+        // Must fail rather than trying to allocate a huge array
+        Codecs.intArray().decode(buffer);
+    }
+
+    @Test
+    public void testBufferPool() {
+        final BufferPool pool = new BufferPool(1024, 2);
+
+        final ByteBuffer buffer = Codecs.encode(Codecs.string(), "pooled", pool);
+        Assert.assertEquals("pooled", Codecs.string().decode(buffer));
+        Assert.assertEquals(256, buffer.capacity());
+        pool.release(buffer);
+
+        // Released buffers are reused and cleared
+        final ByteBuffer reused = pool.acquire(100);
+        Assert.assertSame(buffer, reused);
+        Assert.assertEquals(0, reused.position());
+        Assert.assertEquals(reused.capacity(), reused.limit());
+
+        // Buffers larger than the pool's limit are never pooled
+        final ByteBuffer large = pool.acquire(4096);
+        pool.release(large);
+        Assert.assertNotSame(large, pool.acquire(4096));
+    }
+}
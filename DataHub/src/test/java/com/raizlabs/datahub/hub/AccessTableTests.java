@@ -0,0 +1,83 @@
+package com.raizlabs.datahub.hub;
+
+import com.raizlabs.datahub.access.AsyncDataAccess;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.helpers.ImmediateResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.AccessTable;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AccessTableTests {
+
+    @Test
+    public void testIndexLookups() {
+        final DataAccessResult<Object> result = DataAccessResult.fromUnavailable();
+        final List<AsyncDataAccess<Object>> accesses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            accesses.add(new ImmediateResponseAsyncAccess<>(result, i * 16));
+        }
+        final AsyncDataAccess<Object> minAccess = new ImmediateResponseAsyncAccess<>(result, Integer.MIN_VALUE);
+        accesses.add(null);
+        accesses.add(minAccess);
+
+        final AccessTable<Object> table = new AccessTable<>(accesses);
+
+        // Nulls are skipped
+        Assert.assertEquals(21, table.size());
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(i, table.indexOfTypeId(i * 16));
+            Assert.assertEquals(i, table.indexOf(accesses.get(i)));
+            Assert.assertSame(accesses.get(i), table.get(i));
+        }
+        Assert.assertEquals(20, table.indexOfTypeId(Integer.MIN_VALUE));
+        Assert.assertEquals(20, table.indexOf(minAccess));
+
+        Assert.assertEquals(-1, table.indexOfTypeId(1));
+        Assert.assertEquals(-1, table.indexOf(new ImmediateResponseAsyncAccess<>(result, 0)));
+    }
+
+    @Test
+    public void testDuplicatesReturnFirstIndex() {
+        final DataAccessResult<Object> result = DataAccessResult.fromUnavailable();
+        final AsyncDataAccess<Object> first = new ImmediateResponseAsyncAccess<>(result, 5);
+        final AsyncDataAccess<Object> second = new ImmediateResponseAsyncAccess<>(result, 5);
+        final List<AsyncDataAccess<Object>> accesses = new ArrayList<>();
+        accesses.add(first);
+        accesses.add(second);
+        accesses.add(first);
+
+        final AccessTable<Object> table = new AccessTable<>(accesses);
+
+        Assert.assertEquals(0, table.indexOfTypeId(5));
+        Assert.assertEquals(0, table.indexOf(first));
+        Assert.assertEquals(1, table.indexOf(second));
+    }
+
+    @Test
+    public void testEmpty() {
+        final AccessTable<Object> table = AccessTable.empty();
+
+        Assert.assertEquals(0, table.size());
+        Assert.assertTrue(table.getAccesses().isEmpty());
+        Assert.assertEquals(-1, table.indexOfTypeId(0));
+        Assert.assertEquals(-1, table.indexOfTypeId(Integer.MIN_VALUE));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        final List<AsyncDataAccess<Object>> accesses = new ArrayList<>();
+        accesses.add(new ImmediateResponseAsyncAccess<>(DataAccessResult.fromUnavailable(), 1));
+        final AccessTable<Object> table = new AccessTable<>(accesses);
+
+        // Changes to the source list don't affect the table
+        accesses.clear();
+        Assert.assertEquals(1, table.size());
+
+        table.getAccesses().clear();
+    }
+}
@@ -0,0 +1,143 @@
+package com.raizlabs.datahub.hub;
+
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+import com.raizlabs.datahub.observer.DataObserver;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class DataHubRegistryTests {
+
+    private static class CountingFactory implements DataHubRegistry.Factory<Object> {
+        final ManualResponseAsyncAccess<Object> access = new ManualResponseAsyncAccess<>(1);
+        int createCount;
+
+        @Override
+        public DataHub<Object> create() {
+            createCount++;
+            return OrderedDataHub.Builder.newParallel()
+                    .addAsynchronousAccess(access)
+                    .build();
+        }
+    }
+
+    private ScheduledThreadPoolExecutor scheduler;
+
+    @Before
+    public void setup() {
+        scheduler = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testShared() {
+        final DataHubRegistry registry = new DataHubRegistry();
+        final CountingFactory factory = new CountingFactory();
+
+        final DataHub<Object> first = registry.acquire("resource", factory);
+        final DataHub<Object> second = registry.acquire("resource", factory);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, factory.createCount);
+        Assert.assertEquals(2, registry.getReferenceCount("resource"));
+
+        // Both users share one fetch pipeline
+        first.fetch();
+        second.fetch();
+        Assert.assertEquals(1, factory.access.getRequestCount());
+
+        final DataHub<Object> other = registry.acquire("other", factory);
+        Assert.assertNotSame(first, other);
+        Assert.assertEquals(2, factory.createCount);
+    }
+
+    @Test
+    public void testFactoryRunsOutsideLock() {
+        final DataHubRegistry registry = new DataHubRegistry();
+        final CountingFactory factory = new CountingFactory();
+
+        final DataHub<Object> dataHub = registry.acquire("resource", new DataHubRegistry.Factory<Object>() {
+            @Override
+            public DataHub<Object> create() {
+                Assert.assertFalse(Thread.holdsLock(registry));
+                return factory.create();
+            }
+        });
+        Assert.assertNotNull(dataHub);
+        Assert.assertEquals(1, registry.getReferenceCount("resource"));
+    }
+
+    @Test
+    public void testCloseOnLastRelease() {
+        final DataHubRegistry registry = new DataHubRegistry();
+        final CountingFactory factory = new CountingFactory();
+
+        final DataHub<Object> dataHub = registry.acquire("resource", factory);
+        registry.acquire("resource", factory);
+
+        Assert.assertTrue(registry.release(dataHub));
+        Assert.assertFalse(dataHub.isClosed());
+        Assert.assertTrue(registry.release(dataHub));
+        Assert.assertTrue(dataHub.isClosed());
+        Assert.assertFalse(registry.contains("resource"));
+
+        // Over-releasing is ignored
+        Assert.assertFalse(registry.release(dataHub));
+
+        // A new hub is created for the next user
+        final DataHub<Object> next = registry.acquire("resource", factory);
+        Assert.assertNotSame(dataHub, next);
+        Assert.assertEquals(2, factory.createCount);
+    }
+
+    @Test
+    public void testObserverReleases() {
+        final DataHubRegistry registry = new DataHubRegistry();
+        final CountingFactory factory = new CountingFactory();
+
+        final DataObserver<Object> first = registry.createObserver("resource", factory, null);
+        final DataObserver<Object> second = registry.createObserver("resource", factory, null);
+        Assert.assertEquals(2, registry.getReferenceCount("resource"));
+
+        // A complete shutdown only releases the reference while another observer shares the hub
+        first.close(true);
+        Assert.assertEquals(1, registry.getReferenceCount("resource"));
+        Assert.assertTrue(registry.contains("resource"));
+
+        second.close(false);
+        Assert.assertEquals(0, registry.getReferenceCount("resource"));
+        Assert.assertFalse(registry.contains("resource"));
+    }
+
+    @Test
+    public void testLinger() throws InterruptedException {
+        final DataHubRegistry registry = new DataHubRegistry(100, TimeUnit.MILLISECONDS, scheduler);
+        final CountingFactory factory = new CountingFactory();
+
+        final DataHub<Object> dataHub = registry.acquire("resource", factory);
+        registry.release(dataHub);
+
+        // Reacquiring while lingering reuses the hub
+        Assert.assertTrue(registry.contains("resource"));
+        Assert.assertSame(dataHub, registry.acquire("resource", factory));
+        Assert.assertEquals(1, factory.createCount);
+
+        registry.release(dataHub);
+        final long giveUpAt = System.currentTimeMillis() + 5000;
+        while (!dataHub.isClosed() && System.currentTimeMillis() < giveUpAt) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(dataHub.isClosed());
+        Assert.assertFalse(registry.contains("resource"));
+    }
+}
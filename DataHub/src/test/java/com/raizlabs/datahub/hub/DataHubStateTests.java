@@ -0,0 +1,225 @@
+package com.raizlabs.datahub.hub;
+
+import com.raizlabs.datahub.access.DataAccess;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.helpers.ImmediateResponseAsyncAccess;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DataHubStateTests {
+
+    private static final int PRODUCER_COUNT = 4;
+    private static final int RESULTS_PER_PRODUCER = 2000;
+
+    private static class EmptyListener implements DataHubListener<Object> {
+        @Override
+        public void onDataFetchStarted() {
+
+        }
+
+        @Override
+        public void onDataFetchFinished() {
+
+        }
+
+        @Override
+        public void onResultReceived(DataHubResult<Object> result) {
+
+        }
+    }
+
+    /**
+     * Minimal {@link DataHub} which lets results be delivered directly from any thread.
+     */
+    private static class DeliveringDataHub extends DataHub<Object> {
+
+        void deliver(DataHubResult<Object> result) {
+            onResult(result);
+        }
+
+        @Override
+        protected DataHubResult<Object> doGetCurrent() {
+            return new DataHubResult<>(DataAccessResult.fromUnavailable(), DataAccess.AccessTypeIds.NONE, isFetching());
+        }
+
+        @Override
+        protected void doFetch() {
+
+        }
+
+        @Override
+        protected void doFetch(int limitId) {
+
+        }
+
+        @Override
+        protected void doImportData(Object o) {
+
+        }
+
+        @Override
+        protected void doClose() {
+
+        }
+
+        @Override
+        public boolean isFetching() {
+            return true;
+        }
+    }
+
+    @Test
+    public void testStateTransitions() {
+        final ManualResponseAsyncAccess<Object> access = new ManualResponseAsyncAccess<>(1);
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(access)
+                .build();
+
+        Assert.assertEquals(DataHubState.IDLE, dataHub.getState());
+
+        dataHub.fetch();
+        Assert.assertEquals(DataHubState.FETCHING, dataHub.getState());
+        final long generation = dataHub.getFetchGeneration();
+
+        access.respond(0, DataAccessResult.fromResult(new Object()));
+        Assert.assertEquals(DataHubState.IDLE, dataHub.getState());
+
+        dataHub.fetch();
+        dataHub.close();
+        Assert.assertEquals(DataHubState.CLOSED, dataHub.getState());
+        Assert.assertTrue(dataHub.isClosed());
+        // Closing keeps the generation
+        Assert.assertEquals(generation + 1, dataHub.getFetchGeneration());
+
+        // Closed is terminal
+        dataHub.close();
+        dataHub.fetch();
+        Assert.assertEquals(DataHubState.CLOSED, dataHub.getState());
+        Assert.assertEquals(generation + 1, dataHub.getFetchGeneration());
+    }
+
+    @Test
+    public void testListenersNotCalledUnderStateLock() {
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(new ImmediateResponseAsyncAccess<>(DataAccessResult.fromResult(new Object()), 1))
+                .build();
+
+        final AtomicInteger resultCount = new AtomicInteger();
+        final AtomicBoolean heldLock = new AtomicBoolean(false);
+        dataHub.addListener(new EmptyListener() {
+            @Override
+            public void onDataFetchStarted() {
+                heldLock.compareAndSet(false, Thread.holdsLock(dataHub));
+            }
+
+            @Override
+            public void onResultReceived(DataHubResult<Object> result) {
+                resultCount.incrementAndGet();
+                heldLock.compareAndSet(false, Thread.holdsLock(dataHub));
+            }
+        });
+
+        dataHub.fetch();
+
+        // The synchronous result is still delivered before fetch returns
+        Assert.assertEquals(1, resultCount.get());
+        Assert.assertFalse(heldLock.get());
+    }
+
+    @Test
+    public void testSlowListenerDoesNotBlockHub() throws InterruptedException {
+        final ManualResponseAsyncAccess<Object> access = new ManualResponseAsyncAccess<>(1);
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(access)
+                .build();
+
+        final CountDownLatch listenerEntered = new CountDownLatch(1);
+        final CountDownLatch releaseListener = new CountDownLatch(1);
+        dataHub.addListener(new EmptyListener() {
+            @Override
+            public void onResultReceived(DataHubResult<Object> result) {
+                listenerEntered.countDown();
+                try {
+                    releaseListener.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        dataHub.fetch();
+        final Thread responder = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                access.respond(0, DataAccessResult.fromResult(new Object()));
+            }
+        });
+        responder.start();
+        Assert.assertTrue(listenerEntered.await(5, TimeUnit.SECONDS));
+
+        // While the listener is stuck on the responder's thread, the hub is still usable here
+        dataHub.importData(new Object());
+        dataHub.fetch();
+        Assert.assertEquals(2, access.getRequestCount());
+
+        releaseListener.countDown();
+        responder.join(5000);
+        Assert.assertFalse(responder.isAlive());
+    }
+
+    @Test
+    public void testConcurrentResultsDispatchedSerially() throws InterruptedException {
+        final DeliveringDataHub dataHub = new DeliveringDataHub();
+
+        final AtomicInteger received = new AtomicInteger();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean(false);
+        dataHub.addListener(new EmptyListener() {
+            @Override
+            public void onResultReceived(DataHubResult<Object> result) {
+                if (active.incrementAndGet() != 1) {
+                    overlapped.set(true);
+                }
+                received.incrementAndGet();
+                active.decrementAndGet();
+            }
+        });
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] producers = new Thread[PRODUCER_COUNT];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < RESULTS_PER_PRODUCER; j++) {
+                        dataHub.deliver(new DataHubResult<>(DataAccessResult.fromResult(new Object()),
+                                DataAccess.AccessTypeIds.NONE, true));
+                    }
+                }
+            });
+            producers[i].start();
+        }
+
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join(10000);
+        }
+
+        Assert.assertEquals(PRODUCER_COUNT * RESULTS_PER_PRODUCER, received.get());
+        Assert.assertFalse(overlapped.get());
+    }
+}
@@ -0,0 +1,136 @@
+package com.raizlabs.datahub.hub;
+
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FetchPolicyTests {
+
+    private static class RecordingListener implements DataHubListener<Object> {
+        final List<DataHubResult<Object>> results = new ArrayList<>();
+        int startedCount;
+
+        @Override
+        public void onDataFetchStarted() {
+            startedCount++;
+        }
+
+        @Override
+        public void onDataFetchFinished() {
+
+        }
+
+        @Override
+        public void onResultReceived(DataHubResult<Object> result) {
+            results.add(result);
+        }
+    }
+
+    private OrderedDataHub<Object> createHub(ManualResponseAsyncAccess<Object> access, FetchPolicy policy) {
+        return OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(access)
+                .setFetchPolicy(policy)
+                .build();
+    }
+
+    @Test
+    public void testJoin() {
+        final ManualResponseAsyncAccess<Object> access = new ManualResponseAsyncAccess<>(1);
+        final OrderedDataHub<Object> dataHub = createHub(access, FetchPolicy.JOIN);
+        final RecordingListener listener = new RecordingListener();
+        dataHub.addListener(listener);
+
+        Assert.assertEquals(DataHubResult.NO_GENERATION, dataHub.getFetchGeneration());
+
+        dataHub.fetch();
+        final long generation = dataHub.getFetchGeneration();
+        dataHub.fetch();
+
+        // The second request joined the first
+        Assert.assertEquals(generation, dataHub.getFetchGeneration());
+        Assert.assertEquals(1, access.getRequestCount());
+        Assert.assertEquals(1, listener.startedCount);
+
+        final Object value = new Object();
+        access.respond(0, DataAccessResult.fromResult(value));
+
+        Assert.assertEquals(1, listener.results.size());
+        Assert.assertEquals(value, listener.results.get(0).getData());
+        Assert.assertEquals(generation, listener.results.get(0).getGeneration());
+        Assert.assertFalse(dataHub.isFetching());
+    }
+
+    @Test
+    public void testSupersede() {
+        final ManualResponseAsyncAccess<Object> access = new ManualResponseAsyncAccess<>(1);
+        final OrderedDataHub<Object> dataHub = createHub(access, FetchPolicy.SUPERSEDE);
+        final RecordingListener listener = new RecordingListener();
+        dataHub.addListener(listener);
+
+        dataHub.fetch();
+        final long firstGeneration = dataHub.getFetchGeneration();
+        dataHub.fetch();
+        final long secondGeneration = dataHub.getFetchGeneration();
+
+        Assert.assertTrue(secondGeneration > firstGeneration);
+        Assert.assertEquals(2, access.getRequestCount());
+        Assert.assertEquals(2, listener.startedCount);
+        Assert.assertTrue(dataHub.isFetching());
+
+        // The superseded fetch's result is discarded
+        access.respond(0, DataAccessResult.fromResult(new Object()));
+        Assert.assertTrue(listener.results.isEmpty());
+        Assert.assertTrue(dataHub.isFetching());
+
+        final Object value = new Object();
+        access.respond(1, DataAccessResult.fromResult(value));
+
+        Assert.assertEquals(1, listener.results.size());
+        Assert.assertEquals(value, listener.results.get(0).getData());
+        Assert.assertEquals(secondGeneration, listener.results.get(0).getGeneration());
+        Assert.assertFalse(dataHub.isFetching());
+    }
+
+    @Test
+    public void testQueue() {
+        final ManualResponseAsyncAccess<Object> access = new ManualResponseAsyncAccess<>(1);
+        final OrderedDataHub<Object> dataHub = createHub(access, FetchPolicy.QUEUE);
+        final RecordingListener listener = new RecordingListener();
+        dataHub.addListener(listener);
+
+        dataHub.fetch();
+        final long firstGeneration = dataHub.getFetchGeneration();
+
+        // Both requests are coalesced into a single queued fetch
+        dataHub.fetch();
+        dataHub.fetch(1);
+        Assert.assertEquals(firstGeneration, dataHub.getFetchGeneration());
+        Assert.assertEquals(1, access.getRequestCount());
+
+        final Object firstValue = new Object();
+        access.respond(0, DataAccessResult.fromResult(firstValue));
+
+        // The queued fetch starts once the first finishes
+        Assert.assertEquals(2, access.getRequestCount());
+        Assert.assertEquals(firstGeneration + 1, dataHub.getFetchGeneration());
+        Assert.assertTrue(dataHub.isFetching());
+        Assert.assertEquals(firstGeneration, listener.results.get(0).getGeneration());
+        Assert.assertEquals(firstValue, listener.results.get(0).getData());
+
+        final Object secondValue = new Object();
+        access.respond(1, DataAccessResult.fromResult(secondValue));
+
+        Assert.assertEquals(2, listener.results.size());
+        Assert.assertEquals(firstGeneration + 1, listener.results.get(1).getGeneration());
+        Assert.assertEquals(secondValue, listener.results.get(1).getData());
+        Assert.assertFalse(dataHub.isFetching());
+        Assert.assertEquals(2, access.getRequestCount());
+    }
+}
@@ -0,0 +1,158 @@
+package com.raizlabs.datahub.hub;
+
+import com.raizlabs.datahub.access.AsyncDataAccess;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.ordered.FetchStrategies;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+import com.raizlabs.datahub.utils.OneShotLock;
+import com.raizlabs.datahub.utils.Wrapper;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HedgedDataHubTests extends ParallelDataHubTests {
+
+    @Override
+    protected OrderedDataHub.Builder<Object> createNewBuilder() {
+        // Long enough that the standard parallel tests never hedge
+        return OrderedDataHub.Builder.newHedged(0.95, 1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void testSlowRequestIsHedged() {
+        final Object value = new Object();
+        final AtomicInteger requestCount = new AtomicInteger();
+        final OneShotLock finishedLock = new OneShotLock();
+        final Wrapper<Object> receivedData = new Wrapper<>();
+
+        // An access whose first request hangs forever and whose later requests respond immediately
+        final AsyncDataAccess<Object> access = new AsyncDataAccess<Object>() {
+            @Override
+            public void get(AsyncDataCallback<Object> callback) {
+                if (requestCount.incrementAndGet() > 1) {
+                    callback.onResult(DataAccessResult.fromResult(value), this);
+                }
+            }
+
+            @Override
+            public void close() {
+
+            }
+
+            @Override
+            public int getTypeId() {
+                return 4000;
+            }
+
+            @Override
+            public void importData(Object o) {
+
+            }
+        };
+
+        final DataHub<Object> dataHub =
+                OrderedDataHub.Builder.newHedged(0.95, 10, TimeUnit.MILLISECONDS)
+                        .addAsynchronousAccess(access)
+                        .build();
+        dataHub.addListener(new DataHubListener<Object>() {
+            @Override
+            public void onDataFetchStarted() {
+
+            }
+
+            @Override
+            public void onDataFetchFinished() {
+                finishedLock.unlock();
+            }
+
+            @Override
+            public void onResultReceived(DataHubResult<Object> result) {
+                receivedData.set(result.getData());
+            }
+        });
+
+        dataHub.fetch();
+        finishedLock.waitUntilUnlocked();
+
+        Assert.assertEquals(2, requestCount.get());
+        Assert.assertEquals(value, receivedData.get());
+        Assert.assertFalse(dataHub.isFetching());
+    }
+
+    @Test
+    public void testHedgeStartsOnHedgeExecutor() {
+        final Object value = new Object();
+        final AtomicInteger requestCount = new AtomicInteger();
+        final AtomicInteger handOffCount = new AtomicInteger();
+        final OneShotLock finishedLock = new OneShotLock();
+        final Wrapper<String> hedgeThreadName = new Wrapper<>();
+
+        // An access whose first request hangs forever and whose hedge records the thread it was started on
+        final AsyncDataAccess<Object> access = new AsyncDataAccess<Object>() {
+            @Override
+            public void get(AsyncDataCallback<Object> callback) {
+                if (requestCount.incrementAndGet() > 1) {
+                    hedgeThreadName.set(Thread.currentThread().getName());
+                    callback.onResult(DataAccessResult.fromResult(value), this);
+                }
+            }
+
+            @Override
+            public void close() {
+
+            }
+
+            @Override
+            public int getTypeId() {
+                return 4000;
+            }
+
+            @Override
+            public void importData(Object o) {
+
+            }
+        };
+
+        final FetchStrategies.Hedged<Object> strategy =
+                new FetchStrategies.Hedged<>(0.95, 10, TimeUnit.MILLISECONDS);
+        strategy.setHedgeExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                handOffCount.incrementAndGet();
+                new Thread(command, "HedgeExecutor").start();
+            }
+        });
+
+        final DataHub<Object> dataHub = new OrderedDataHub.Builder<Object>()
+                .setStrategy(strategy)
+                .addAsynchronousAccess(access)
+                .build();
+        dataHub.addListener(new DataHubListener<Object>() {
+            @Override
+            public void onDataFetchStarted() {
+
+            }
+
+            @Override
+            public void onDataFetchFinished() {
+                finishedLock.unlock();
+            }
+
+            @Override
+            public void onResultReceived(DataHubResult<Object> result) {
+
+            }
+        });
+
+        dataHub.fetch();
+        finishedLock.waitUntilUnlocked();
+
+        Assert.assertEquals(1, handOffCount.get());
+        Assert.assertEquals("HedgeExecutor", hedgeThreadName.get());
+    }
+}
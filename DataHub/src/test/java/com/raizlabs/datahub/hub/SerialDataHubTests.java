@@ -1,19 +1,26 @@
 package com.raizlabs.datahub.hub;
 
+import com.raizlabs.datahub.DataHubError;
 import com.raizlabs.datahub.access.AccessAssertions;
 import com.raizlabs.datahub.access.AsyncDataAccess;
 import com.raizlabs.datahub.access.DataAccess;
 import com.raizlabs.datahub.access.DataAccessResult;
 import com.raizlabs.datahub.access.TemporaryMemoryAccess;
 import com.raizlabs.datahub.hub.helpers.ImmediateResponseAsyncAccess;
+import com.raizlabs.datahub.hub.helpers.NoResponseAsyncAccess;
 import com.raizlabs.datahub.hub.ordered.FetchStrategies;
 import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+import com.raizlabs.datahub.utils.OneShotLock;
 import com.raizlabs.datahub.utils.Wrapper;
 
 import junit.framework.Assert;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class SerialDataHubTests extends BaseOrderedDataHubTests {
 
     @Override
@@ -142,4 +149,95 @@ public class SerialDataHubTests extends BaseOrderedDataHubTests {
         Assert.assertTrue(receivedInvalid.get());
         Assert.assertTrue(receivedValid.get());
     }
+
+    @Test
+    public void testAccessTimeoutAdvances() {
+        final Object value = new Object();
+        final NoResponseAsyncAccess<Object> hungAccess = new NoResponseAsyncAccess<>(5);
+        final ImmediateResponseAsyncAccess<Object> nextAccess =
+                new ImmediateResponseAsyncAccess<>(DataAccessResult.fromResult(value), 6);
+
+        final FetchStrategies.Serial<Object> strategy =
+                new FetchStrategies.Serial<>(FetchStrategies.Serial.Finalizers.newAnyData());
+        strategy.setAccessTimeout(20, TimeUnit.MILLISECONDS);
+
+        final DataHub<Object> dataHub =
+                new OrderedDataHub.Builder<Object>()
+                        .setStrategy(strategy)
+                        .addAsynchronousAccess(hungAccess)
+                        .addAsynchronousAccess(nextAccess)
+                        .build();
+
+        final List<DataHubResult<Object>> results = new ArrayList<>();
+        final OneShotLock finishedLock = new OneShotLock();
+        dataHub.addListener(new DataHubListener<Object>() {
+            @Override
+            public void onDataFetchStarted() {
+
+            }
+
+            @Override
+            public void onDataFetchFinished() {
+                finishedLock.unlock();
+            }
+
+            @Override
+            public void onResultReceived(DataHubResult<Object> result) {
+                results.add(result);
+            }
+        });
+
+        dataHub.fetch();
+        finishedLock.waitUntilUnlocked();
+
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals(DataHubError.Types.TIMEOUT, results.get(0).getError().getErrorType());
+        Assert.assertEquals(5, results.get(0).getAccessTypeId());
+        Assert.assertEquals(value, results.get(1).getData());
+        Assert.assertFalse(dataHub.isFetching());
+    }
+
+    @Test
+    public void testFetchDeadline() {
+        final NoResponseAsyncAccess<Object> hungAccess = new NoResponseAsyncAccess<>(5);
+
+        final FetchStrategies.Serial<Object> strategy =
+                new FetchStrategies.Serial<>(FetchStrategies.Serial.Finalizers.newAnyData());
+        strategy.setFetchDeadline(20, TimeUnit.MILLISECONDS);
+
+        final DataHub<Object> dataHub =
+                new OrderedDataHub.Builder<Object>()
+                        .setStrategy(strategy)
+                        .addAsynchronousAccess(hungAccess)
+                        .build();
+
+        final Wrapper<DataHubResult<Object>> received = new Wrapper<>();
+        final OneShotLock finishedLock = new OneShotLock();
+        dataHub.addListener(new DataHubListener<Object>() {
+            @Override
+            public void onDataFetchStarted() {
+
+            }
+
+            @Override
+            public void onDataFetchFinished() {
+                finishedLock.unlock();
+            }
+
+            @Override
+            public void onResultReceived(DataHubResult<Object> result) {
+                received.set(result);
+            }
+        });
+
+        dataHub.fetch();
+        finishedLock.waitUntilUnlocked();
+
+        Assert.assertEquals(DataHubError.Types.TIMEOUT, received.get().getError().getErrorType());
+        Assert.assertFalse(dataHub.isFetching());
+
+        // The hub should no longer be wedged and can fetch again
+        dataHub.fetch();
+        Assert.assertEquals(2, hungAccess.getRequestCount());
+    }
 }
@@ -0,0 +1,165 @@
+package com.raizlabs.datahub.hub;
+
+import com.raizlabs.datahub.access.AccessAssertions;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.access.TemporaryMemoryAccess;
+import com.raizlabs.datahub.hub.helpers.ImmediateResponseAsyncAccess;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public class WriteBehindBackportTests {
+
+    private static class QueueingExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            List<Runnable> toRun = new ArrayList<>(tasks);
+            tasks.clear();
+            for (Runnable task : toRun) {
+                task.run();
+            }
+        }
+    }
+
+    private static class ImportTrackingAccess extends ImmediateResponseAsyncAccess<Object> {
+        final List<Object> imports = new ArrayList<>();
+
+        ImportTrackingAccess(int typeId) {
+            super(DataAccessResult.fromUnavailable(), typeId);
+        }
+
+        @Override
+        public void importData(Object o) {
+            imports.add(o);
+        }
+    }
+
+    @Test
+    public void testQueuedAndCoalesced() {
+        final QueueingExecutor executor = new QueueingExecutor();
+        final TemporaryMemoryAccess<Object> memoryAccess = new TemporaryMemoryAccess<>();
+        final ImportTrackingAccess diskAccess = new ImportTrackingAccess(2000);
+        final ManualResponseAsyncAccess<Object> webAccess = new ManualResponseAsyncAccess<>(4000);
+
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .setSynchronousAccess(memoryAccess)
+                .addAsynchronousAccess(diskAccess)
+                .addAsynchronousAccess(webAccess)
+                .setBackportExecutor(executor)
+                .build();
+
+        final Object firstValue = new Object();
+        final Object secondValue = new Object();
+
+        dataHub.fetch();
+        webAccess.respond(0, DataAccessResult.fromResult(firstValue));
+        dataHub.fetch();
+        webAccess.respond(1, DataAccessResult.fromResult(secondValue));
+
+        // The sync access is written immediately, but the async access is written behind
+        AccessAssertions.assertDataEquals(secondValue, memoryAccess);
+        Assert.assertTrue(diskAccess.imports.isEmpty());
+        Assert.assertEquals(1, executor.tasks.size());
+
+        // Only the latest value is written
+        executor.runAll();
+        Assert.assertEquals(1, diskAccess.imports.size());
+        Assert.assertSame(secondValue, diskAccess.imports.get(0));
+
+        // Nothing is left to write
+        dataHub.flushBackports();
+        Assert.assertEquals(1, diskAccess.imports.size());
+    }
+
+    @Test
+    public void testFlushOnClose() {
+        final QueueingExecutor executor = new QueueingExecutor();
+        final ImportTrackingAccess diskAccess = new ImportTrackingAccess(2000);
+        final ManualResponseAsyncAccess<Object> webAccess = new ManualResponseAsyncAccess<>(4000);
+
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(diskAccess)
+                .addAsynchronousAccess(webAccess)
+                .setBackportExecutor(executor)
+                .build();
+
+        final Object value = new Object();
+        dataHub.fetch();
+        webAccess.respond(0, DataAccessResult.fromResult(value));
+        Assert.assertTrue(diskAccess.imports.isEmpty());
+
+        dataHub.close();
+        Assert.assertEquals(1, diskAccess.imports.size());
+        Assert.assertSame(value, diskAccess.imports.get(0));
+
+        // The scheduled flush has nothing left to do
+        executor.runAll();
+        Assert.assertEquals(1, diskAccess.imports.size());
+    }
+
+    @Test
+    public void testRejectedFlushWritesImmediately() {
+        final Executor rejectingExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        final ImportTrackingAccess diskAccess = new ImportTrackingAccess(2000);
+        final ManualResponseAsyncAccess<Object> webAccess = new ManualResponseAsyncAccess<>(4000);
+
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(diskAccess)
+                .addAsynchronousAccess(webAccess)
+                .setBackportExecutor(rejectingExecutor)
+                .build();
+
+        dataHub.fetch();
+        webAccess.respond(0, DataAccessResult.fromResult("first"));
+        Assert.assertEquals(1, diskAccess.imports.size());
+
+        // Later backports must not be left waiting on a flush which was never scheduled
+        dataHub.fetch();
+        webAccess.respond(1, DataAccessResult.fromResult("second"));
+        Assert.assertEquals(2, diskAccess.imports.size());
+        Assert.assertEquals("second", diskAccess.imports.get(1));
+    }
+
+    @Test
+    public void testImportSupersedesQueued() {
+        final QueueingExecutor executor = new QueueingExecutor();
+        final ImportTrackingAccess diskAccess = new ImportTrackingAccess(2000);
+        final ManualResponseAsyncAccess<Object> webAccess = new ManualResponseAsyncAccess<>(4000);
+
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(diskAccess)
+                .addAsynchronousAccess(webAccess)
+                .setBackportExecutor(executor)
+                .build();
+
+        final Object fetchedValue = new Object();
+        final Object importedValue = new Object();
+        dataHub.fetch();
+        webAccess.respond(0, DataAccessResult.fromResult(fetchedValue));
+        dataHub.importData(importedValue);
+        executor.runAll();
+
+        // The older backport must not overwrite the explicit import
+        Assert.assertEquals(1, diskAccess.imports.size());
+        Assert.assertSame(importedValue, diskAccess.imports.get(0));
+    }
+}
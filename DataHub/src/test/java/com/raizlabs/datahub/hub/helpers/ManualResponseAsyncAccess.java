@@ -0,0 +1,49 @@
+package com.raizlabs.datahub.hub.helpers;
+
+import com.raizlabs.datahub.access.AsyncDataAccess;
+import com.raizlabs.datahub.access.DataAccessResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ManualResponseAsyncAccess<T> implements AsyncDataAccess<T> {
+
+    private final List<AsyncDataCallback<T>> callbacks = new ArrayList<>();
+    private final int typeId;
+
+    public ManualResponseAsyncAccess(int typeId) {
+        this.typeId = typeId;
+    }
+
+    @Override
+    public synchronized void get(AsyncDataCallback<T> asyncDataCallback) {
+        callbacks.add(asyncDataCallback);
+    }
+
+    @Override
+    public void importData(T t) {
+
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public int getTypeId() {
+        return typeId;
+    }
+
+    public synchronized int getRequestCount() {
+        return callbacks.size();
+    }
+
+    public void respond(int request, DataAccessResult<T> result) {
+        final AsyncDataCallback<T> callback;
+        synchronized (this) {
+            callback = callbacks.get(request);
+        }
+        callback.onResult(result, this);
+    }
+}
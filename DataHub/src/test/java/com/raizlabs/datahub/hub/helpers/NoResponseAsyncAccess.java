@@ -0,0 +1,37 @@
+package com.raizlabs.datahub.hub.helpers;
+
+import com.raizlabs.datahub.access.AsyncDataAccess;
+
+public class NoResponseAsyncAccess<T> implements AsyncDataAccess<T> {
+
+    private final int typeId;
+    private int requestCount;
+
+    public NoResponseAsyncAccess(int typeId) {
+        this.typeId = typeId;
+    }
+
+    @Override
+    public synchronized void get(AsyncDataCallback<T> asyncDataCallback) {
+        requestCount++;
+    }
+
+    @Override
+    public void importData(T t) {
+
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public int getTypeId() {
+        return typeId;
+    }
+
+    public synchronized int getRequestCount() {
+        return requestCount;
+    }
+}
@@ -0,0 +1,163 @@
+package com.raizlabs.datahub.metrics;
+
+import com.raizlabs.datahub.DataHubError;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.DataHub;
+import com.raizlabs.datahub.hub.DataHubResult;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DataHubEventsTests {
+
+    private static class RecordingSink implements DataHubEvents.Sink {
+        final List<String> events = new ArrayList<>();
+        int tokenCount;
+
+        private synchronized Object begin(String event) {
+            events.add(event);
+            return event + (++tokenCount);
+        }
+
+        private synchronized void end(String event, Object token) {
+            // Each end gets the token from its begin
+            Assert.assertTrue(String.valueOf(token).startsWith(event));
+            events.add("end " + event);
+        }
+
+        @Override
+        public Object beginFetch(DataHub<?> dataHub, long generation) {
+            return begin("fetch");
+        }
+
+        @Override
+        public void endFetch(Object token, DataHub<?> dataHub, long generation) {
+            end("fetch", token);
+        }
+
+        @Override
+        public Object beginAccess(DataHub<?> dataHub, long generation, int accessTypeId) {
+            return begin("access " + accessTypeId);
+        }
+
+        @Override
+        public void endAccess(Object token, DataHub<?> dataHub, long generation, int accessTypeId,
+                              DataAccessResult<?> result) {
+            end("access " + accessTypeId, token);
+        }
+
+        @Override
+        public Object beginDispatch(DataHub<?> dataHub, DataHubResult<?> result) {
+            return begin("dispatch");
+        }
+
+        @Override
+        public void endDispatch(Object token, DataHub<?> dataHub, DataHubResult<?> result) {
+            end("dispatch", token);
+        }
+
+        @Override
+        public Object beginBackport(DataHub<?> dataHub, long generation, int accessTypeId) {
+            return begin("backport " + accessTypeId);
+        }
+
+        @Override
+        public void endBackport(Object token, DataHub<?> dataHub, long generation, int accessTypeId) {
+            end("backport " + accessTypeId, token);
+        }
+
+        @Override
+        public synchronized void onErrorCreated(DataHubError error) {
+            events.add("error " + error.getErrorType());
+        }
+    }
+
+    @After
+    public void tearDown() {
+        DataHubEvents.setSink(null);
+    }
+
+    @Test
+    public void testFetchEvents() {
+        final ManualResponseAsyncAccess<Object> first = new ManualResponseAsyncAccess<>(1);
+        final ManualResponseAsyncAccess<Object> second = new ManualResponseAsyncAccess<>(2);
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(first)
+                .addAsynchronousAccess(second)
+                .build();
+
+        final RecordingSink sink = new RecordingSink();
+        DataHubEvents.setSink(sink);
+        Assert.assertSame(sink, DataHubEvents.getSink());
+
+        dataHub.fetch();
+        first.respond(0, DataAccessResult.fromUnavailable());
+        second.respond(0, DataAccessResult.<Object>fromResult("a"));
+
+        final List<String> expected = new ArrayList<>();
+        expected.add("fetch");
+        expected.add("access 1");
+        expected.add("access 2");
+        expected.add("end access 1");
+        expected.add("end access 2");
+        expected.add("end fetch");
+        expected.add("dispatch");
+        expected.add("backport 1");
+        expected.add("end backport 1");
+        expected.add("end dispatch");
+
+        // Results which aren't final may also be dispatched, so only check the order of the expected events
+        int next = 0;
+        for (String event : sink.events) {
+            if ((next < expected.size()) && event.equals(expected.get(next))) {
+                next++;
+            }
+        }
+        Assert.assertEquals(expected.size(), next);
+    }
+
+    @Test
+    public void testErrorCreated() {
+        final RecordingSink sink = new RecordingSink();
+        DataHubEvents.setSink(sink);
+        DataHubError.newLightweight("failed", DataHubError.Types.TIMEOUT, null);
+        Assert.assertTrue(sink.events.contains("error " + DataHubError.Types.TIMEOUT));
+
+        DataHubEvents.setSink(null);
+        DataHubError.newLightweight("failed", DataHubError.Types.DATA_ACCESS, null);
+        Assert.assertFalse(sink.events.contains("error " + DataHubError.Types.DATA_ACCESS));
+    }
+
+    @Test
+    public void testConstructedErrorCreated() {
+        final RecordingSink sink = new RecordingSink();
+        DataHubEvents.setSink(sink);
+        try {
+            new DataHubError("failed", DataHubError.Types.CIRCUIT_OPEN);
+            Assert.assertEquals(1, sink.events.size());
+            Assert.assertTrue(sink.events.contains("error " + DataHubError.Types.CIRCUIT_OPEN));
+
+            // Subclasses only report once they call reportCreated()
+            new DataHubError("failed", DataHubError.Types.UNDEFINED) {
+            };
+            Assert.assertEquals(1, sink.events.size());
+
+            new DataHubError("failed", DataHubError.Types.INVALID_STATE) {
+                {
+                    reportCreated();
+                }
+            };
+            Assert.assertEquals(2, sink.events.size());
+            Assert.assertTrue(sink.events.contains("error " + DataHubError.Types.INVALID_STATE));
+        } finally {
+            DataHubEvents.setSink(null);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.raizlabs.datahub.metrics;
+
+import com.raizlabs.datahub.DataHubError;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class FetchEventLogTests {
+
+    @Test
+    public void testRecordAndDecode() {
+        final FetchEventLog log = new FetchEventLog(4);
+        Assert.assertEquals(4, log.getCapacity());
+        Assert.assertEquals("", log.dump());
+
+        log.record(FetchEventLog.Kind.FETCH_STARTED, 7, 1, 0);
+        log.record(FetchEventLog.Kind.ACCESS_STARTED, 7, 1, -5);
+
+        final List<FetchEventLog.Entry> entries = log.getEntries();
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals(FetchEventLog.Kind.FETCH_STARTED, entries.get(0).getKind());
+        Assert.assertEquals(FetchEventLog.Kind.ACCESS_STARTED, entries.get(1).getKind());
+        Assert.assertEquals(7, entries.get(1).getDataHubId());
+        Assert.assertEquals(1, entries.get(1).getGeneration());
+        Assert.assertEquals(-5, entries.get(1).getAccessTypeId());
+        Assert.assertTrue(entries.get(1).getNanoTime() >= entries.get(0).getNanoTime());
+        Assert.assertTrue(log.dump().contains("ACCESS_STARTED"));
+    }
+
+    @Test
+    public void testWrapAround() {
+        final FetchEventLog log = new FetchEventLog(3);
+        Assert.assertEquals(4, log.getCapacity());
+
+        for (int i = 0; i < 10; i++) {
+            log.record(FetchEventLog.Kind.RESULT_DISPATCHED, 1, i, i);
+        }
+
+        // Only the most recent events are kept, oldest first
+        final List<FetchEventLog.Entry> entries = log.getEntries();
+        Assert.assertEquals(4, entries.size());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(6 + i, entries.get(i).getGeneration());
+            Assert.assertEquals(6 + i, entries.get(i).getSequence());
+        }
+    }
+
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        final FetchEventLog log = new FetchEventLog(1 << 14);
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int hubId = t + 1;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        log.record(FetchEventLog.Kind.ACCESS_FINISHED, hubId, i, hubId);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final List<FetchEventLog.Entry> entries = log.getEntries();
+        Assert.assertEquals(4000, entries.size());
+        for (FetchEventLog.Entry entry : entries) {
+            // Fields of one event are never mixed with another's
+            Assert.assertEquals(entry.getDataHubId(), entry.getAccessTypeId());
+        }
+        Assert.assertEquals(1000, log.getEntries(2).size());
+    }
+
+    @Test
+    public void testHubEvents() {
+        final ManualResponseAsyncAccess<Object> first = new ManualResponseAsyncAccess<>(1);
+        final ManualResponseAsyncAccess<Object> second = new ManualResponseAsyncAccess<>(2);
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(first)
+                .addAsynchronousAccess(second)
+                .build();
+
+        dataHub.fetch();
+        first.respond(0, DataAccessResult.fromError(DataHubError.getShared(DataHubError.Types.DATA_ACCESS)));
+        second.respond(0, DataAccessResult.<Object>fromResult("a"));
+
+        final List<FetchEventLog.Entry> entries = FetchEventLog.getGlobalInstance().getEntries(dataHub.getId());
+        Assert.assertEquals(FetchEventLog.Kind.FETCH_STARTED, entries.get(0).getKind());
+        Assert.assertEquals(FetchEventLog.Kind.RESULT_DISPATCHED, entries.get(entries.size() - 1).getKind());
+
+        boolean failed = false;
+        boolean finished = false;
+        boolean fetchFinished = false;
+        for (FetchEventLog.Entry entry : entries) {
+            Assert.assertEquals(dataHub.getFetchGeneration(), entry.getGeneration());
+            failed |= (entry.getKind() == FetchEventLog.Kind.ACCESS_FAILED) && (entry.getAccessTypeId() == 1);
+            finished |= (entry.getKind() == FetchEventLog.Kind.ACCESS_FINISHED) && (entry.getAccessTypeId() == 2);
+            fetchFinished |= (entry.getKind() == FetchEventLog.Kind.FETCH_FINISHED);
+        }
+        Assert.assertTrue(failed);
+        Assert.assertTrue(finished);
+        Assert.assertTrue(fetchFinished);
+    }
+}
@@ -0,0 +1,119 @@
+package com.raizlabs.datahub.metrics;
+
+import com.raizlabs.datahub.DataHubError;
+import com.raizlabs.datahub.access.DataAccess;
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class FetchMetricsTests {
+
+    @Test
+    public void testHistogramBuckets() {
+        for (long value : new long[]{0, 1, 3, 4, 7, 8, 100, 1000, 123456789, Long.MAX_VALUE}) {
+            final int index = LatencyHistogram.getBucketIndex(value);
+            Assert.assertTrue(LatencyHistogram.getBucketLowerBound(index) <= value);
+            Assert.assertTrue(LatencyHistogram.getBucketUpperBound(index) >= value);
+        }
+
+        // Adjacent buckets don't overlap or leave gaps
+        for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            Assert.assertEquals(LatencyHistogram.getBucketUpperBound(i - 1) + 1, LatencyHistogram.getBucketLowerBound(i));
+        }
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(100, snapshot.getCount());
+        Assert.assertEquals(100000, snapshot.getMax());
+        Assert.assertTrue(Math.abs(snapshot.getMean() - 50500) < 0.01);
+
+        // Buckets have four sub-buckets per power of two, so values are within 25%
+        final long median = snapshot.getPercentile(0.5);
+        Assert.assertTrue(median >= 50000 * 0.75 && median <= 50000 * 1.25);
+        final long p99 = snapshot.getPercentile(0.99);
+        Assert.assertTrue(p99 >= 99000 * 0.75 && p99 <= 100000);
+
+        histogram.reset();
+        Assert.assertEquals(0, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void testAccessOutcomes() {
+        final ManualResponseAsyncAccess<Object> first = new ManualResponseAsyncAccess<>(1);
+        final ManualResponseAsyncAccess<Object> second = new ManualResponseAsyncAccess<>(2);
+        final ManualResponseAsyncAccess<Object> third = new ManualResponseAsyncAccess<>(3);
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(first)
+                .addAsynchronousAccess(second)
+                .addAsynchronousAccess(third)
+                .build();
+
+        final FetchMetrics metrics = new FetchMetrics();
+        dataHub.addFetchMetricsListener(metrics);
+
+        dataHub.fetch();
+        first.respond(0, DataAccessResult.<Object>fromResult("a"));
+        second.respond(0, DataAccessResult.fromUnavailable());
+        Assert.assertEquals(0, metrics.snapshot().getFetchDurations().getCount());
+        third.respond(0, DataAccessResult.fromError(DataHubError.newLightweight("failed", 0, null)));
+
+        FetchMetrics.Snapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(1, snapshot.getFetchStartedCount());
+        Assert.assertEquals(1, snapshot.getFetchDurations().getCount());
+        Assert.assertEquals(3, snapshot.getAccesses().size());
+
+        Assert.assertEquals(1, snapshot.getAccess(1).getHitCount());
+        Assert.assertEquals(1, snapshot.getAccess(2).getMissCount());
+        Assert.assertEquals(1, snapshot.getAccess(3).getErrorCount());
+        Assert.assertEquals(1, snapshot.getAccess(1).getLatencies().getCount());
+        Assert.assertNull(snapshot.getAccess(4));
+
+        // Removed listeners aren't notified
+        dataHub.removeFetchMetricsListener(metrics);
+        dataHub.fetch();
+        first.respond(1, DataAccessResult.<Object>fromResult("b"));
+        snapshot = metrics.snapshot();
+        Assert.assertEquals(1, snapshot.getFetchStartedCount());
+        Assert.assertEquals(1, snapshot.getAccess(1).getCount());
+    }
+
+    @Test
+    public void testOverflow() {
+        final FetchMetrics metrics = new FetchMetrics(2);
+        for (int typeId = 1; typeId <= 10; typeId++) {
+            metrics.onAccessFinished(null, 1, typeId, DataAccessResult.fromResult("a"), 10);
+        }
+
+        final FetchMetrics.Snapshot snapshot = metrics.snapshot();
+        long total = 0;
+        for (FetchMetrics.AccessSnapshot access : snapshot.getAccesses().values()) {
+            total += access.getCount();
+        }
+        // Nothing is lost, even once the table is full
+        Assert.assertEquals(10, total);
+        Assert.assertTrue(snapshot.getAccesses().size() <= 3);
+        Assert.assertNotNull(snapshot.getAccess(FetchMetrics.OVERFLOW_TYPE_ID));
+    }
+
+    @Test
+    public void testNoneTypeIdIsNotOverflow() {
+        final FetchMetrics metrics = new FetchMetrics(1);
+        metrics.onAccessFinished(null, 1, DataAccess.AccessTypeIds.NONE, DataAccessResult.fromResult("a"), 10);
+        metrics.onAccessFinished(null, 1, 5, DataAccessResult.fromResult("a"), 10);
+
+        final FetchMetrics.Snapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(1, snapshot.getAccess(DataAccess.AccessTypeIds.NONE).getCount());
+        Assert.assertEquals(1, snapshot.getAccess(FetchMetrics.OVERFLOW_TYPE_ID).getCount());
+    }
+}
@@ -0,0 +1,148 @@
+package com.raizlabs.datahub.observer;
+
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.DataHubResult;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class ConflatingDataObserverTests {
+
+    private static class ManualExecutor implements Executor {
+        final LinkedList<Runnable> pending = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            pending.add(command);
+        }
+
+        void runAll() {
+            while (!pending.isEmpty()) {
+                pending.removeFirst().run();
+            }
+        }
+    }
+
+    private static class RecordingListener implements DataObserverListener<Object> {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onDataFetchStarted() {
+            events.add("started");
+        }
+
+        @Override
+        public void onDataFetchFinished() {
+            events.add("finished");
+        }
+
+        @Override
+        public void onResultReceived(DataHubResult<Object> result) {
+            events.add((result != null) ? String.valueOf(result.getData()) : null);
+        }
+    }
+
+    private ManualResponseAsyncAccess<Object> first;
+    private ManualResponseAsyncAccess<Object> second;
+    private ManualResponseAsyncAccess<Object> third;
+    private ManualExecutor executor;
+    private DataObserver<Object> observer;
+    private RecordingListener listener;
+
+    @Before
+    public void setup() {
+        first = new ManualResponseAsyncAccess<>(1);
+        second = new ManualResponseAsyncAccess<>(2);
+        third = new ManualResponseAsyncAccess<>(3);
+        final OrderedDataHub<Object> dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(first)
+                .addAsynchronousAccess(second)
+                .addAsynchronousAccess(third)
+                .build();
+
+        executor = new ManualExecutor();
+        observer = new DataObserver<>(dataHub, null);
+        observer.setListenerExecutor(executor);
+        observer.setConflating(true);
+        Assert.assertTrue(observer.isConflating());
+
+        listener = new RecordingListener();
+        observer.addListener(listener);
+        executor.runAll();
+    }
+
+    @Test
+    public void testBurstIsOneDispatch() {
+        observer.fetch();
+        first.respond(0, DataAccessResult.<Object>fromResult("a"));
+        second.respond(0, DataAccessResult.<Object>fromResult("b"));
+        third.respond(0, DataAccessResult.<Object>fromResult("c"));
+
+        // Everything is delivered by a single task, with only the latest result
+        Assert.assertEquals(1, executor.pending.size());
+        executor.runAll();
+
+        Assert.assertEquals(3, listener.events.size());
+        Assert.assertEquals("started", listener.events.get(0));
+        Assert.assertEquals("c", listener.events.get(1));
+        Assert.assertEquals("finished", listener.events.get(2));
+    }
+
+    @Test
+    public void testTransitionsAcrossDispatches() {
+        observer.fetch();
+        first.respond(0, DataAccessResult.<Object>fromResult("a"));
+        executor.runAll();
+
+        Assert.assertEquals(2, listener.events.size());
+        Assert.assertEquals("started", listener.events.get(0));
+        Assert.assertEquals("a", listener.events.get(1));
+
+        second.respond(0, DataAccessResult.<Object>fromResult("b"));
+        third.respond(0, DataAccessResult.<Object>fromResult("c"));
+        // A new fetch starts before the previous finish has been dispatched
+        observer.fetch();
+        first.respond(1, DataAccessResult.<Object>fromResult("d"));
+        executor.runAll();
+
+        // The known fetch is finished before the new one is started
+        Assert.assertEquals(5, listener.events.size());
+        Assert.assertEquals("finished", listener.events.get(2));
+        Assert.assertEquals("started", listener.events.get(3));
+        Assert.assertEquals("d", listener.events.get(4));
+    }
+
+    @Test
+    public void testDispatchCurrentConflated() {
+        for (int i = 0; i < 5; i++) {
+            observer.dispatchCurrent();
+        }
+
+        Assert.assertEquals(1, executor.pending.size());
+        executor.runAll();
+        Assert.assertEquals(1, listener.events.size());
+    }
+
+    @Test
+    public void testNotConflating() {
+        observer.setConflating(false);
+
+        observer.fetch();
+        first.respond(0, DataAccessResult.<Object>fromResult("a"));
+        second.respond(0, DataAccessResult.<Object>fromResult("b"));
+        executor.runAll();
+
+        Assert.assertEquals(3, listener.events.size());
+        Assert.assertEquals("a", listener.events.get(1));
+        Assert.assertEquals("b", listener.events.get(2));
+    }
+}
@@ -0,0 +1,195 @@
+package com.raizlabs.datahub.reactive;
+
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.DataHubResult;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DataHubPublisherTests {
+
+    private static class RecordingSubscriber implements Subscriber<DataHubResult<Object>> {
+        final List<Object> received = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(DataHubResult<Object> item) {
+            received.add(item.getData());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+
+        }
+    }
+
+    private ManualResponseAsyncAccess<Object> first;
+    private ManualResponseAsyncAccess<Object> second;
+    private ManualResponseAsyncAccess<Object> third;
+    private OrderedDataHub<Object> dataHub;
+
+    @Before
+    public void setup() {
+        first = new ManualResponseAsyncAccess<>(1);
+        second = new ManualResponseAsyncAccess<>(2);
+        third = new ManualResponseAsyncAccess<>(3);
+        dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(first)
+                .addAsynchronousAccess(second)
+                .addAsynchronousAccess(third)
+                .build();
+    }
+
+    private void respondAll(String prefix) {
+        first.respond(first.getRequestCount() - 1, DataAccessResult.<Object>fromResult(prefix + "1"));
+        second.respond(second.getRequestCount() - 1, DataAccessResult.<Object>fromResult(prefix + "2"));
+        third.respond(third.getRequestCount() - 1, DataAccessResult.<Object>fromResult(prefix + "3"));
+    }
+
+    @Test
+    public void testDemandDriven() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DataHubPublisher<>(dataHub, OverflowStrategy.BUFFER).subscribe(subscriber);
+        Assert.assertNotNull(subscriber.subscription);
+
+        subscriber.subscription.request(2);
+        dataHub.fetch();
+        respondAll("a");
+
+        // Only what was requested is delivered, the rest waits
+        Assert.assertEquals(2, subscriber.received.size());
+        Assert.assertEquals("a1", subscriber.received.get(0));
+        Assert.assertEquals("a2", subscriber.received.get(1));
+
+        subscriber.subscription.request(1);
+        Assert.assertEquals(3, subscriber.received.size());
+        Assert.assertEquals("a3", subscriber.received.get(2));
+    }
+
+    @Test
+    public void testLatest() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DataHubPublisher<>(dataHub).subscribe(subscriber);
+
+        dataHub.fetch();
+        respondAll("a");
+        Assert.assertTrue(subscriber.received.isEmpty());
+
+        subscriber.subscription.request(5);
+        Assert.assertEquals(1, subscriber.received.size());
+        Assert.assertEquals("a3", subscriber.received.get(0));
+    }
+
+    @Test
+    public void testBoundedBuffer() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DataHubPublisher<>(dataHub, OverflowStrategy.BUFFER, 2).subscribe(subscriber);
+
+        dataHub.fetch();
+        respondAll("a");
+
+        // The oldest result was pushed out of the full buffer
+        subscriber.subscription.request(5);
+        Assert.assertEquals(2, subscriber.received.size());
+        Assert.assertEquals("a2", subscriber.received.get(0));
+        Assert.assertEquals("a3", subscriber.received.get(1));
+    }
+
+    @Test
+    public void testDrop() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DataHubPublisher<>(dataHub, OverflowStrategy.DROP).subscribe(subscriber);
+
+        dataHub.fetch();
+        respondAll("a");
+        subscriber.subscription.request(1);
+        Assert.assertTrue(subscriber.received.isEmpty());
+
+        dataHub.fetch();
+        respondAll("b");
+        Assert.assertEquals(1, subscriber.received.size());
+        Assert.assertEquals("b1", subscriber.received.get(0));
+    }
+
+    @Test
+    public void testCancel() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DataHubPublisher<>(dataHub).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        dataHub.fetch();
+        first.respond(0, DataAccessResult.<Object>fromResult("a1"));
+        subscriber.subscription.cancel();
+        second.respond(0, DataAccessResult.<Object>fromResult("a2"));
+
+        Assert.assertEquals(1, subscriber.received.size());
+        Assert.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DataHubPublisher<>(dataHub).subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+        Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+
+        // Cancelled by the error
+        dataHub.fetch();
+        respondAll("a");
+        subscriber.subscription.request(1);
+        Assert.assertTrue(subscriber.received.isEmpty());
+    }
+
+    @Test
+    public void testInvalidRequestDuringOnNext() {
+        final List<String> signals = new ArrayList<>();
+        final RecordingSubscriber subscriber = new RecordingSubscriber() {
+            private boolean isInOnNext;
+
+            @Override
+            public void onNext(DataHubResult<Object> item) {
+                isInOnNext = true;
+                signals.add("next");
+                subscription.request(0);
+                isInOnNext = false;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                // The error must not be delivered while onNext is still running
+                signals.add(isInOnNext ? "nested error" : "error");
+                super.onError(throwable);
+            }
+        };
+        new DataHubPublisher<>(dataHub).subscribe(subscriber);
+        subscriber.subscription.request(2);
+
+        dataHub.fetch();
+        first.respond(0, DataAccessResult.<Object>fromResult("a1"));
+        second.respond(0, DataAccessResult.<Object>fromResult("a2"));
+
+        Assert.assertEquals(2, signals.size());
+        Assert.assertEquals("next", signals.get(0));
+        Assert.assertEquals("error", signals.get(1));
+        Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+}
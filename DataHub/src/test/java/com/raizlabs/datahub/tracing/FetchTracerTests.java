@@ -0,0 +1,147 @@
+package com.raizlabs.datahub.tracing;
+
+import com.raizlabs.datahub.access.DataAccessResult;
+import com.raizlabs.datahub.hub.FetchPolicy;
+import com.raizlabs.datahub.hub.helpers.ManualResponseAsyncAccess;
+import com.raizlabs.datahub.hub.ordered.OrderedDataHub;
+import com.raizlabs.datahub.observer.DataObserver;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FetchTracerTests {
+
+    private static class RecordingSink implements SpanSink {
+        final List<Span> spans = new ArrayList<>();
+
+        @Override
+        public synchronized void onSpanFinished(Span span) {
+            spans.add(span);
+        }
+
+        synchronized List<Span> ofKind(Span.Kind kind) {
+            final List<Span> matching = new ArrayList<>();
+            for (Span span : spans) {
+                if (span.getKind() == kind) {
+                    matching.add(span);
+                }
+            }
+            return matching;
+        }
+    }
+
+    private ManualResponseAsyncAccess<Object> first;
+    private ManualResponseAsyncAccess<Object> second;
+    private OrderedDataHub<Object> dataHub;
+    private RecordingSink sink;
+
+    @Before
+    public void setup() {
+        first = new ManualResponseAsyncAccess<>(1);
+        second = new ManualResponseAsyncAccess<>(2);
+        dataHub = OrderedDataHub.Builder.newParallel()
+                .addAsynchronousAccess(first)
+                .addAsynchronousAccess(second)
+                .build();
+        sink = new RecordingSink();
+    }
+
+    @Test
+    public void testFetchTimeline() {
+        final FetchTracer tracer = new FetchTracer(sink);
+        dataHub.setFetchTracer(tracer);
+        final DataObserver<Object> observer = new DataObserver<>(dataHub, null);
+        observer.setFetchTracer(tracer);
+
+        dataHub.fetch();
+        first.respond(0, DataAccessResult.<Object>fromResult("a"));
+        second.respond(0, DataAccessResult.<Object>fromResult("b"));
+
+        final List<Span> fetches = sink.ofKind(Span.Kind.FETCH);
+        Assert.assertEquals(1, fetches.size());
+        final Span root = fetches.get(0);
+        Assert.assertEquals(0, root.getParentSpanId());
+        Assert.assertEquals(root.getTraceId(), root.getSpanId());
+        Assert.assertEquals(dataHub.getId(), root.getDataHubId());
+        Assert.assertEquals(Span.Outcome.FINISHED, root.getOutcome());
+
+        Assert.assertEquals(2, sink.ofKind(Span.Kind.ACCESS).size());
+        // The result of the second access is backported into the first
+        final List<Span> backports = sink.ofKind(Span.Kind.BACKPORT);
+        Assert.assertEquals(1, backports.size());
+        Assert.assertEquals(1, backports.get(0).getAccessTypeId());
+
+        Assert.assertFalse(sink.ofKind(Span.Kind.DISPATCH).isEmpty());
+        Assert.assertEquals(sink.ofKind(Span.Kind.DISPATCH).size(), sink.ofKind(Span.Kind.DISPATCH_WAIT).size());
+
+        // Every span belongs to the fetch's trace and hangs off of its root
+        for (Span span : sink.spans) {
+            Assert.assertEquals(root.getTraceId(), span.getTraceId());
+            Assert.assertEquals(root.getGeneration(), span.getGeneration());
+            Assert.assertTrue(span.getDurationNanos() >= 0);
+            if (span != root) {
+                Assert.assertEquals(root.getSpanId(), span.getParentSpanId());
+            }
+        }
+    }
+
+    @Test
+    public void testRootEndsOnSupersedeAndClose() {
+        dataHub.setFetchTracer(new FetchTracer(sink));
+        dataHub.setFetchPolicy(FetchPolicy.SUPERSEDE);
+
+        dataHub.fetch();
+        final long supersededGeneration = dataHub.getFetchGeneration();
+        dataHub.fetch();
+        final long closedGeneration = dataHub.getFetchGeneration();
+        dataHub.close();
+
+        final List<Span> fetches = sink.ofKind(Span.Kind.FETCH);
+        Assert.assertEquals(2, fetches.size());
+        Assert.assertEquals(supersededGeneration, fetches.get(0).getGeneration());
+        Assert.assertEquals(Span.Outcome.SUPERSEDED, fetches.get(0).getOutcome());
+        Assert.assertEquals(closedGeneration, fetches.get(1).getGeneration());
+        Assert.assertEquals(Span.Outcome.CLOSED, fetches.get(1).getOutcome());
+    }
+
+    @Test
+    public void testSampling() {
+        dataHub.setFetchTracer(new FetchTracer(sink, 0));
+        dataHub.fetch();
+        first.respond(0, DataAccessResult.<Object>fromResult("a"));
+        second.respond(0, DataAccessResult.<Object>fromResult("b"));
+        Assert.assertTrue(sink.spans.isEmpty());
+
+        // Roughly the given proportion of fetches are sampled
+        final FetchTracer tracer = new FetchTracer(sink, 0.25);
+        int sampled = 0;
+        for (int generation = 1; generation <= 10000; generation++) {
+            if (tracer.isSampled(dataHub, generation)) {
+                sampled++;
+            }
+        }
+        Assert.assertTrue(sampled > 2000 && sampled < 3000);
+    }
+
+    @Test
+    public void testReplaceTracer() {
+        final RecordingSink otherSink = new RecordingSink();
+        dataHub.setFetchTracer(new FetchTracer(otherSink));
+        dataHub.setFetchTracer(new FetchTracer(sink));
+
+        dataHub.fetch();
+        first.respond(0, DataAccessResult.<Object>fromResult("a"));
+        Assert.assertTrue(otherSink.spans.isEmpty());
+        Assert.assertEquals(1, sink.ofKind(Span.Kind.ACCESS).size());
+
+        dataHub.setFetchTracer(null);
+        Assert.assertNull(dataHub.getFetchTracer());
+        second.respond(0, DataAccessResult.<Object>fromResult("b"));
+        Assert.assertEquals(1, sink.ofKind(Span.Kind.ACCESS).size());
+    }
+}
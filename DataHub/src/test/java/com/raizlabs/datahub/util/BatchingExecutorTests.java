@@ -0,0 +1,142 @@
+package com.raizlabs.datahub.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public class BatchingExecutorTests {
+
+    @Test
+    public void testBurstIsOneHop() {
+        final ManualExecutor target = new ManualExecutor();
+        final BatchingExecutor executor = new BatchingExecutor(target);
+        final List<Integer> ran = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            executor.execute(new RecordingRunnable(ran, i));
+        }
+
+        Assert.assertEquals(1, target.pending.size());
+        Assert.assertEquals(5, executor.getPendingCount());
+
+        target.runAll();
+        Assert.assertEquals(5, ran.size());
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(i, ran.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testBatchLimitReschedules() {
+        final ManualExecutor target = new ManualExecutor();
+        final BatchingExecutor executor = new BatchingExecutor(target, 16, 2);
+        final List<Integer> ran = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            executor.execute(new RecordingRunnable(ran, i));
+        }
+
+        target.runNext();
+        Assert.assertEquals(2, ran.size());
+        Assert.assertEquals(1, target.pending.size());
+
+        target.runAll();
+        Assert.assertEquals(5, ran.size());
+        Assert.assertEquals(0, executor.getPendingCount());
+    }
+
+    @Test
+    public void testOverflowKeepsOrderOnTarget() {
+        final ManualExecutor target = new ManualExecutor();
+        final BatchingExecutor executor = new BatchingExecutor(target, 2, 2);
+        final List<Integer> ran = new ArrayList<>();
+
+        executor.execute(new RecordingRunnable(ran, 0));
+        executor.execute(new RecordingRunnable(ran, 1));
+        executor.execute(new RecordingRunnable(ran, 2));
+
+        // Nothing runs on the caller
+        Assert.assertEquals(0, ran.size());
+        Assert.assertEquals(3, executor.getPendingCount());
+
+        // Frees space in the queue, but later tasks must still go behind the overflowed one
+        target.runNext();
+        executor.execute(new RecordingRunnable(ran, 3));
+
+        target.runAll();
+        Assert.assertEquals(4, ran.size());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(i, ran.get(i).intValue());
+        }
+        Assert.assertEquals(0, executor.getPendingCount());
+    }
+
+    @Test
+    public void testRejectedDrainIsRescheduled() {
+        final ManualExecutor target = new ManualExecutor();
+        final BatchingExecutor executor = new BatchingExecutor(target);
+        final List<Integer> ran = new ArrayList<>();
+
+        target.rejectNext = true;
+        try {
+            executor.execute(new RecordingRunnable(ran, 0));
+            Assert.fail("Expected the target's rejection to be rethrown");
+        } catch (RejectedExecutionException e) {
+            // Expected
+        }
+        Assert.assertEquals(0, target.pending.size());
+
+        executor.execute(new RecordingRunnable(ran, 1));
+        Assert.assertEquals(1, target.pending.size());
+
+        target.runAll();
+        Assert.assertEquals(2, ran.size());
+        Assert.assertEquals(0, ran.get(0).intValue());
+        Assert.assertEquals(1, ran.get(1).intValue());
+    }
+
+    private static class RecordingRunnable implements Runnable {
+        private final List<Integer> ran;
+        private final int index;
+
+        RecordingRunnable(List<Integer> ran, int index) {
+            this.ran = ran;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            ran.add(index);
+        }
+    }
+
+    private static class ManualExecutor implements Executor {
+        final LinkedList<Runnable> pending = new LinkedList<>();
+        boolean rejectNext;
+
+        @Override
+        public void execute(Runnable command) {
+            if (rejectNext) {
+                rejectNext = false;
+                throw new RejectedExecutionException();
+            }
+            pending.add(command);
+        }
+
+        void runNext() {
+            pending.removeFirst().run();
+        }
+
+        void runAll() {
+            while (!pending.isEmpty()) {
+                runNext();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.raizlabs.datahub.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MappableSetTests {
+
+    @Test
+    public void testAddRemove() {
+        final MappableSet<Object> set = new MappableSet<>();
+        final Object item = new Object();
+
+        set.add(item);
+        set.add(item);
+        Assert.assertEquals(1, set.size());
+        Assert.assertTrue(set.contains(item));
+
+        Assert.assertTrue(set.remove(item));
+        Assert.assertFalse(set.remove(item));
+        Assert.assertEquals(0, set.size());
+    }
+
+    @Test
+    public void testModifyDuringMap() {
+        final MappableSet<Object> set = new MappableSet<>();
+        final Object first = new Object();
+        final Object second = new Object();
+        final Object added = new Object();
+        set.add(first);
+        set.add(second);
+
+        final AtomicInteger calls = new AtomicInteger();
+        set.map(new Delegate<Object>() {
+            @Override
+            public void execute(Object o) {
+                calls.incrementAndGet();
+                // Changes made during the map shouldn't affect the current iteration
+                set.remove(second);
+                set.add(added);
+            }
+        });
+
+        Assert.assertEquals(2, calls.get());
+        Assert.assertFalse(set.contains(second));
+        Assert.assertTrue(set.contains(added));
+        Assert.assertEquals(2, set.size());
+    }
+
+    @Test
+    public void testConcurrentAdds() throws InterruptedException {
+        final MappableSet<Object> set = new MappableSet<>();
+        final int threadCount = 4;
+        final int perThread = 250;
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < perThread; j++) {
+                        set.add(new Object());
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(threadCount * perThread, set.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.raizlabs.datahub.util;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class MpscQueueTests {
+
+    @Test
+    public void testFifo() {
+        final MpscQueue<Integer> queue = new MpscQueue<>();
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertNull(queue.poll());
+
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        Assert.assertFalse(queue.isEmpty());
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(i, queue.poll().intValue());
+        }
+        Assert.assertNull(queue.poll());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullRejected() {
+        new MpscQueue<Object>().offer(null);
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final int producerCount = 4;
+        final int itemsPerProducer = 10000;
+        final MpscQueue<int[]> queue = new MpscQueue<>();
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] producers = new Thread[producerCount];
+        for (int i = 0; i < producerCount; i++) {
+            final int producer = i;
+            producers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < itemsPerProducer; j++) {
+                        queue.offer(new int[]{producer, j});
+                    }
+                }
+            });
+            producers[i].start();
+        }
+        start.countDown();
+
+        final int[] nextExpected = new int[producerCount];
+        int received = 0;
+        final long giveUpAt = System.currentTimeMillis() + 10000;
+        while (received < producerCount * itemsPerProducer && System.currentTimeMillis() < giveUpAt) {
+            final int[] item = queue.poll();
+            if (item != null) {
+                // Each producer's items come out in the order it offered them
+                Assert.assertEquals(nextExpected[item[0]], item[1]);
+                nextExpected[item[0]]++;
+                received++;
+            }
+        }
+
+        for (Thread producer : producers) {
+            producer.join(5000);
+        }
+        Assert.assertEquals(producerCount * itemsPerProducer, received);
+        Assert.assertNull(queue.poll());
+    }
+}